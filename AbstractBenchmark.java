@@ -0,0 +1,55 @@
+package domain;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The JMH settings of all benchmarks: the average time in ns/op, 5 warmup and 10 measured
+ * iterations of 2 seconds in 2 forks with an 8 GB heap, and one state per benchmark. JMH
+ * inherits the annotations; a benchmark that needs other settings declares its own.
+ *
+ * @author Aleksander
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public abstract class AbstractBenchmark {
+
+	/**
+	 * Runs the benchmarks of the given class with the GC profiler and writes a JSON report.
+	 *
+	 * @param benchmark
+	 * @param args optional dataset sizes overriding the @Param values
+	 * @throws RunnerException
+	 */
+	static void run(Class<?> benchmark, String[] args) throws RunnerException {
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.include(benchmark.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.resultFormat(ResultFormatType.JSON)
+			.result(benchmark.getSimpleName() + ".json");
+		if(args.length > 0) {
+			builder.param("size", args);
+		}
+		Options options = builder.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,482 @@
+package domain;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Executor that decides per query whether to run it sequentially, in parallel or on an index.
+ *
+ * {@link #calibrate(List)} times the youngest and last name queries with the loop and the
+ * fork-join executor on growing samples of the dataset and fits a linear cost model,
+ * {@code nanos = fixed + perItem * size}, per operation and route. Every query then takes the
+ * route with the lowest predicted cost for its size. The per item cost of the parallel route is
+ * scaled by the processors left free by the current system load average compared to the load
+ * during the calibration, so a busy machine shifts queries to the sequential route. The indexes
+ * registered with {@link #useIndexes(List, LongSupplier, LastNameIndex, SortedIndex)} compete as
+ * a third route for the youngest and last name queries of the indexed list, until the version or
+ * the size of the list changes. Their cost is timed when they are registered and on every
+ * calibration, and updated with a moving average of every query they answer, so an index that
+ * turns out slower than predicted loses its queries to the other routes.
+ *
+ * Before the calibration, queries over at least {@link ParallelCollectors#MIN_LEAF_SIZE} items
+ * per thread run in parallel. The recent decisions are kept for auditing.
+ *
+ * @author Aleksander
+ */
+public class AdaptiveQueryExecutor implements QueryExecutor {
+
+	/**
+	 * Where a query runs.
+	 */
+	public enum Route {
+		SEQUENTIAL, PARALLEL, INDEXED
+	}
+
+	static final String MAX_BY = "maxBy";
+	static final String FILTER = "filter";
+
+	private static final int[] SAMPLE_SIZES = {1 << 10, 1 << 13, 1 << 16, 1 << 18};
+	private static final int RUNS = 5;
+	private static final int MAX_DECISIONS = 1024;
+	private static final double SMOOTHING = 0.2;
+
+	private final QueryExecutor sequential = new LoopQueryExecutor();
+	private final ForkJoinQueryExecutor parallel;
+	private final DoubleSupplier load;
+	private final ArrayDeque<Decision> decisions = new ArrayDeque<>();
+	private final long[] routeCounts = new long[Route.values().length];
+
+	private volatile Map<String, Map<Route, CostModel>> models = new HashMap<>();
+	private volatile double calibrationLoad;
+	private volatile Indexes indexes;
+
+	/**
+	 * Creates an uncalibrated executor reading the system load average of the operating system.
+	 *
+	 * @param parallelism number of threads of the parallel route
+	 */
+	public AdaptiveQueryExecutor(int parallelism) {
+		this(parallelism, systemLoad(ManagementFactory.getOperatingSystemMXBean()));
+	}
+
+	/**
+	 * Creates an uncalibrated executor.
+	 *
+	 * @param parallelism number of threads of the parallel route
+	 * @param load the number of runnable threads on the machine, for example the load average
+	 */
+	AdaptiveQueryExecutor(int parallelism, DoubleSupplier load) {
+		this.parallel = new ForkJoinQueryExecutor(parallelism);
+		this.load = load;
+	}
+
+	private static DoubleSupplier systemLoad(OperatingSystemMXBean system) {
+		//negative where the load average is not available
+		return () -> Math.max(0, system.getSystemLoadAverage());
+	}
+
+	/**
+	 * Fits the cost models of the sequential and parallel routes with micro-runs on prefixes of
+	 * the given programmers; the larger the list, the more sample sizes are timed.
+	 *
+	 * @param programmers
+	 */
+	public void calibrate(List<Programmer> programmers) {
+		if(programmers.isEmpty()) {
+			throw new IllegalArgumentException("Cannot calibrate on an empty list");
+		}
+		Query<List<Programmer>> byName = ProgrammerQueries.lastNameContains(sampleName(programmers));
+		Map<String, Map<Route, CostModel>> fitted = new HashMap<>();
+		fitted.put(MAX_BY, fit(programmers, sample -> () -> ProgrammerQueries.YOUNGEST.execute(sequential, sample),
+				sample -> () -> ProgrammerQueries.YOUNGEST.execute(parallel, sample)));
+		fitted.put(FILTER, fit(programmers, sample -> () -> byName.execute(sequential, sample),
+				sample -> () -> byName.execute(parallel, sample)));
+		calibrationLoad = load.getAsDouble();
+		models = fitted;
+		Indexes current = indexes;
+		if(current != null) {
+			current.time();
+		}
+	}
+
+	/**
+	 * Lets the youngest and last name queries over the given list use its indexes. Either index
+	 * may be null. The indexes are dropped as soon as the version or the size of the list
+	 * changes, or a row is inserted into the birth day index.
+	 *
+	 * @param programmers the indexed list
+	 * @param version the version of the list, for example {@link ProgrammerRepository#version()}
+	 *        or a constant for a list that is never modified
+	 * @param lastNames
+	 * @param birthDays
+	 * @throws IllegalArgumentException if the birth day index does not have a row per programmer
+	 */
+	public void useIndexes(List<Programmer> programmers, LongSupplier version, LastNameIndex lastNames,
+			SortedIndex birthDays) {
+		if(birthDays != null && birthDays.size() != programmers.size()) {
+			throw new IllegalArgumentException("The birth day index has " + birthDays.size() + " rows, the list "
+					+ programmers.size());
+		}
+		Indexes registered = new Indexes(programmers, lastNames, birthDays, version, version.getAsLong());
+		registered.time();
+		indexes = registered;
+	}
+
+	@Override
+	public <T> T maxBy(List<T> items, Comparator<? super T> order) {
+		return executorOf(decide(MAX_BY, items.size(), Double.NaN)).maxBy(items, order);
+	}
+
+	@Override
+	public <T> List<T> filter(List<T> items, Predicate<? super T> predicate) {
+		return executorOf(decide(FILTER, items.size(), Double.NaN)).filter(items, predicate);
+	}
+
+	/**
+	 * It finds the youngest programmer on the cheapest route, including the birth day index.
+	 *
+	 * @param programmers
+	 * @return the programmer, or null if the list is empty
+	 */
+	public Programmer findTheYoungestProgrammer(List<Programmer> programmers) {
+		Indexes current = indexesOf(programmers);
+		SortedIndex birthDays = current == null ? null : current.birthDays;
+		Route route = decide(MAX_BY, programmers.size(), birthDays == null ? Double.NaN : current.youngestNanos);
+		if(route == Route.INDEXED) {
+			long start = System.nanoTime();
+			int row = birthDays.maxRow();
+			current.youngestNanos = smooth(current.youngestNanos, System.nanoTime() - start);
+			return row < 0 ? null : programmers.get(row);
+		}
+		return ProgrammerQueries.YOUNGEST.execute(executorOf(route), programmers);
+	}
+
+	/**
+	 * It finds the programmers whose last name contains the given name on the cheapest route,
+	 * including the last name index.
+	 *
+	 * @param programmers
+	 * @param name
+	 * @return the programmers in list order
+	 */
+	public List<Programmer> findTheProgrammersByName(List<Programmer> programmers, String name) {
+		Indexes current = indexesOf(programmers);
+		LastNameIndex lastNames = current == null ? null : current.lastNames;
+		Route route = decide(FILTER, programmers.size(), lastNames == null ? Double.NaN : current.lastNameNanos);
+		if(route == Route.INDEXED) {
+			long start = System.nanoTime();
+			List<Programmer> found = lastNames.contains(name);
+			current.lastNameNanos = smooth(current.lastNameNanos, System.nanoTime() - start);
+			return found;
+		}
+		return ProgrammerQueries.lastNameContains(name).execute(executorOf(route), programmers);
+	}
+
+	/**
+	 * The most recent decisions, oldest first.
+	 *
+	 * @return
+	 */
+	public synchronized List<Decision> getDecisions() {
+		return new ArrayList<>(decisions);
+	}
+
+	/**
+	 * The number of queries sent to the given route since the executor was created.
+	 *
+	 * @param route
+	 * @return
+	 */
+	public synchronized long getRouteCount(Route route) {
+		return routeCounts[route.ordinal()];
+	}
+
+	public boolean isCalibrated() {
+		return !models.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return "adaptive-" + parallel.getParallelism();
+	}
+
+	@Override
+	public void close() {
+		parallel.close();
+	}
+
+	private QueryExecutor executorOf(Route route) {
+		return route == Route.PARALLEL ? parallel : sequential;
+	}
+
+	private Indexes indexesOf(List<Programmer> programmers) {
+		Indexes current = indexes;
+		if(current == null || current.programmers != programmers) {
+			return null;
+		}
+		if(current.indexedVersion != current.version.getAsLong() || current.size != programmers.size()
+				|| current.birthDays != null && current.birthDays.size() != current.size) {
+			indexes = null;
+			return null;
+		}
+		return current;
+	}
+
+	private static double smooth(double average, long nanos) {
+		return average + SMOOTHING * (nanos - average);
+	}
+
+	/**
+	 * Picks the route with the lowest predicted cost and logs the decision.
+	 *
+	 * @param operation
+	 * @param size
+	 * @param indexedNanos the cost of the index, or NaN if there is none
+	 * @return
+	 */
+	private Route decide(String operation, int size, double indexedNanos) {
+		double currentLoad = load.getAsDouble();
+		Map<Route, CostModel> costs = models.get(operation);
+		double sequentialNanos = Double.NaN;
+		double parallelNanos = Double.NaN;
+		Route route;
+		if(costs == null) {
+			route = size >= (long) ParallelCollectors.MIN_LEAF_SIZE * parallel.getParallelism() ? Route.PARALLEL : Route.SEQUENTIAL;
+		} else {
+			sequentialNanos = costs.get(Route.SEQUENTIAL).predict(size, 1);
+			parallelNanos = costs.get(Route.PARALLEL).predict(size, freeProcessors(calibrationLoad) / freeProcessors(currentLoad));
+			route = parallelNanos < sequentialNanos ? Route.PARALLEL : Route.SEQUENTIAL;
+		}
+		if(!Double.isNaN(indexedNanos) && (costs == null || indexedNanos < Math.min(sequentialNanos, parallelNanos))) {
+			route = Route.INDEXED;
+		}
+		log(new Decision(operation, size, currentLoad, route, sequentialNanos, parallelNanos, indexedNanos));
+		return route;
+	}
+
+	/**
+	 * The processors the parallel route can count on at the given load.
+	 */
+	private double freeProcessors(double load) {
+		int processors = Math.min(parallel.getParallelism(), Runtime.getRuntime().availableProcessors());
+		return Math.max(1, processors - load);
+	}
+
+	private synchronized void log(Decision decision) {
+		if(decisions.size() == MAX_DECISIONS) {
+			decisions.removeFirst();
+		}
+		decisions.addLast(decision);
+		routeCounts[decision.route.ordinal()]++;
+	}
+
+	private static String sampleName(List<Programmer> programmers) {
+		String lastName = programmers.isEmpty() ? "" : programmers.get(0).getLastName();
+		return lastName.substring(0, Math.min(2, lastName.length()));
+	}
+
+	/**
+	 * Times both routes on every sample size and fits their models.
+	 */
+	private static Map<Route, CostModel> fit(List<Programmer> programmers, SampleRun sequential, SampleRun parallel) {
+		List<double[]> sequentialPoints = new ArrayList<>();
+		List<double[]> parallelPoints = new ArrayList<>();
+		for(int size : SAMPLE_SIZES) {
+			if(size > programmers.size() && !sequentialPoints.isEmpty()) {
+				break;
+			}
+			List<Programmer> sample = programmers.subList(0, Math.min(size, programmers.size()));
+			sequentialPoints.add(new double[] {sample.size(), time(sequential.on(sample))});
+			parallelPoints.add(new double[] {sample.size(), time(parallel.on(sample))});
+		}
+		Map<Route, CostModel> models = new EnumMap<>(Route.class);
+		models.put(Route.SEQUENTIAL, CostModel.fit(sequentialPoints));
+		models.put(Route.PARALLEL, CostModel.fit(parallelPoints));
+		return models;
+	}
+
+	/**
+	 * The fastest of a few runs after a warmup run, in nanoseconds.
+	 */
+	private static double time(Supplier<?> run) {
+		run.get();
+		long best = Long.MAX_VALUE;
+		for(int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			run.get();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best;
+	}
+
+	@FunctionalInterface
+	private interface SampleRun {
+		Supplier<?> on(List<Programmer> sample);
+	}
+
+	/**
+	 * Linear cost model of one operation on one route.
+	 */
+	static final class CostModel {
+
+		private final double fixedNanos;
+		private final double nanosPerItem;
+
+		CostModel(double fixedNanos, double nanosPerItem) {
+			this.fixedNanos = fixedNanos;
+			this.nanosPerItem = nanosPerItem;
+		}
+
+		/**
+		 * Least squares fit of {size, nanos} points; both coefficients are kept non-negative.
+		 */
+		static CostModel fit(List<double[]> points) {
+			if(points.size() == 1) {
+				return new CostModel(0, points.get(0)[1] / Math.max(1, points.get(0)[0]));
+			}
+			double n = points.size();
+			double sumX = 0;
+			double sumY = 0;
+			double sumXX = 0;
+			double sumXY = 0;
+			for(double[] point : points) {
+				sumX += point[0];
+				sumY += point[1];
+				sumXX += point[0] * point[0];
+				sumXY += point[0] * point[1];
+			}
+			double slope = Math.max(0, (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX));
+			double fixed = Math.max(0, (sumY - slope * sumX) / n);
+			return new CostModel(fixed, slope);
+		}
+
+		/**
+		 * @param size
+		 * @param slowdown factor of the per item cost
+		 * @return the predicted nanoseconds
+		 */
+		double predict(int size, double slowdown) {
+			return fixedNanos + nanosPerItem * slowdown * size;
+		}
+	}
+
+	private static final class Indexes {
+
+		private final List<Programmer> programmers;
+		private final int size;
+		private final LastNameIndex lastNames;
+		private final SortedIndex birthDays;
+		private final LongSupplier version;
+		private final long indexedVersion;
+		//races of the moving averages only lose a sample
+		private volatile double lastNameNanos = Double.NaN;
+		private volatile double youngestNanos = Double.NaN;
+
+		Indexes(List<Programmer> programmers, LastNameIndex lastNames, SortedIndex birthDays, LongSupplier version,
+				long indexedVersion) {
+			this.programmers = programmers;
+			this.size = programmers.size();
+			this.lastNames = lastNames;
+			this.birthDays = birthDays;
+			this.version = version;
+			this.indexedVersion = indexedVersion;
+		}
+
+		/**
+		 * Times the indexes afresh.
+		 */
+		void time() {
+			String name = sampleName(programmers);
+			if(lastNames != null) {
+				lastNameNanos = AdaptiveQueryExecutor.time(() -> lastNames.contains(name));
+			}
+			if(birthDays != null) {
+				youngestNanos = AdaptiveQueryExecutor.time(birthDays::maxRow);
+			}
+		}
+	}
+
+	/**
+	 * One routing decision with the predicted costs it was based on.
+	 */
+	public static final class Decision {
+
+		private final String operation;
+		private final int size;
+		private final double load;
+		private final Route route;
+		private final double sequentialNanos;
+		private final double parallelNanos;
+		private final double indexedNanos;
+
+		Decision(String operation, int size, double load, Route route, double sequentialNanos, double parallelNanos,
+				double indexedNanos) {
+			this.operation = operation;
+			this.size = size;
+			this.load = load;
+			this.route = route;
+			this.sequentialNanos = sequentialNanos;
+			this.parallelNanos = parallelNanos;
+			this.indexedNanos = indexedNanos;
+		}
+
+		public String getOperation() {
+			return operation;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public double getLoad() {
+			return load;
+		}
+
+		public Route getRoute() {
+			return route;
+		}
+
+		/**
+		 * @return the predicted cost, or NaN before the calibration
+		 */
+		public double getSequentialNanos() {
+			return sequentialNanos;
+		}
+
+		/**
+		 * @return the predicted cost, or NaN before the calibration
+		 */
+		public double getParallelNanos() {
+			return parallelNanos;
+		}
+
+		/**
+		 * @return the measured cost of the index, or NaN without an index
+		 */
+		public double getIndexedNanos() {
+			return indexedNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s of %d at load %.2f -> %s (sequential %s, parallel %s, indexed %s)",
+					operation, size, load, route, millis(sequentialNanos), millis(parallelNanos), millis(indexedNanos));
+		}
+
+		private static String millis(double nanos) {
+			return Double.isNaN(nanos) ? "-" : String.format("%.3f ms", nanos / 1e6);
+		}
+	}
+
+}
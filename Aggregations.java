@@ -0,0 +1,227 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Top-K, bottom-K, min, max and argmax over any key of the elements of a list. None of the
+ * methods modifies the list, and the scans only allocate a heap of K elements (per parallel
+ * task) instead of anything per element.
+ *
+ * @author Aleksander
+ */
+public final class Aggregations {
+
+	private Aggregations() {
+	}
+
+	/**
+	 * It finds the {@code k} largest elements with a bounded heap.
+	 *
+	 * @param items
+	 * @param k
+	 * @param order
+	 * @return the elements from the largest to the smallest
+	 */
+	public static <T> List<T> top(List<T> items, int k, Comparator<? super T> order) {
+		BoundedHeap<T> heap = new BoundedHeap<>(k, order);
+		if(items instanceof RandomAccess) {
+			for(int i = 0, size = items.size(); i < size; i++) {
+				heap.offer(items.get(i));
+			}
+		} else {
+			for(T item : items) {
+				heap.offer(item);
+			}
+		}
+		return heap.toSortedList();
+	}
+
+	/**
+	 * It finds the {@code k} largest elements with one bounded heap per parallel task, merging
+	 * the heaps at the end.
+	 *
+	 * @param items
+	 * @param k
+	 * @param order
+	 * @return the elements from the largest to the smallest
+	 */
+	public static <T> List<T> topParallel(List<T> items, int k, Comparator<? super T> order) {
+		return items.parallelStream()
+				.collect(() -> new BoundedHeap<T>(k, order), BoundedHeap::offer, BoundedHeap::offerAll)
+				.toSortedList();
+	}
+
+	/**
+	 * It finds the {@code k} smallest elements with a bounded heap.
+	 *
+	 * @param items
+	 * @param k
+	 * @param order
+	 * @return the elements from the smallest to the largest
+	 */
+	public static <T> List<T> bottom(List<T> items, int k, Comparator<? super T> order) {
+		return top(items, k, Collections.reverseOrder(order));
+	}
+
+	/**
+	 * It finds the {@code k} smallest elements in parallel.
+	 *
+	 * @param items
+	 * @param k
+	 * @param order
+	 * @return the elements from the smallest to the largest
+	 */
+	public static <T> List<T> bottomParallel(List<T> items, int k, Comparator<? super T> order) {
+		return topParallel(items, k, Collections.reverseOrder(order));
+	}
+
+	/**
+	 * It finds the largest element; the first one wins on ties.
+	 *
+	 * @param items
+	 * @param order
+	 * @return the element, or null if the list is empty
+	 */
+	public static <T> T max(List<T> items, Comparator<? super T> order) {
+		int index = argMax(items, order);
+		return index < 0 ? null : items.get(index);
+	}
+
+	/**
+	 * It finds the smallest element; the first one wins on ties.
+	 *
+	 * @param items
+	 * @param order
+	 * @return the element, or null if the list is empty
+	 */
+	public static <T> T min(List<T> items, Comparator<? super T> order) {
+		return max(items, Collections.reverseOrder(order));
+	}
+
+	/**
+	 * It finds the position of the largest element; the first one wins on ties.
+	 *
+	 * @param items
+	 * @param order
+	 * @return the position, or -1 if the list is empty
+	 */
+	public static <T> int argMax(List<T> items, Comparator<? super T> order) {
+		Iterator<T> iter = items.iterator();
+		if(!iter.hasNext()) {
+			return -1;
+		}
+		T max = iter.next();
+		int maxIndex = 0;
+		for(int index = 1; iter.hasNext(); index++) {
+			T item = iter.next();
+			if(order.compare(item, max) > 0) {
+				max = item;
+				maxIndex = index;
+			}
+		}
+		return maxIndex;
+	}
+
+	/**
+	 * It finds the position of the largest element with a parallel reduction over the
+	 * positions of a random access list.
+	 *
+	 * @param items
+	 * @param order
+	 * @return the position, or -1 if the list is empty
+	 */
+	public static <T> int argMaxParallel(List<T> items, Comparator<? super T> order) {
+		if(!(items instanceof RandomAccess)) {
+			return argMax(items, order);
+		}
+		return IntStream.range(0, items.size()).parallel()
+				.reduce((a, b) -> order.compare(items.get(b), items.get(a)) > 0 ? b : a)
+				.orElse(-1);
+	}
+
+	/**
+	 * Min-heap that keeps the {@code k} largest elements offered to it.
+	 */
+	static final class BoundedHeap<T> {
+
+		private final Object[] elements;
+		private final Comparator<? super T> order;
+		private int size;
+
+		BoundedHeap(int k, Comparator<? super T> order) {
+			if(k <= 0) {
+				throw new IllegalArgumentException("k must be positive: " + k);
+			}
+			this.elements = new Object[k];
+			this.order = order;
+		}
+
+		void offer(T element) {
+			if(size < elements.length) {
+				elements[size] = element;
+				siftUp(size++);
+			} else if(order.compare(element, element(0)) > 0) {
+				elements[0] = element;
+				siftDown(0);
+			}
+		}
+
+		void offerAll(BoundedHeap<T> other) {
+			for(int i = 0; i < other.size; i++) {
+				offer(other.element(i));
+			}
+		}
+
+		List<T> toSortedList() {
+			@SuppressWarnings("unchecked")
+			T[] sorted = (T[]) Arrays.copyOf(elements, size);
+			Arrays.sort(sorted, Collections.reverseOrder(order));
+			return new ArrayList<>(Arrays.asList(sorted));
+		}
+
+		@SuppressWarnings("unchecked")
+		private T element(int index) {
+			return (T) elements[index];
+		}
+
+		private void siftUp(int index) {
+			Object element = elements[index];
+			while(index > 0) {
+				int parent = (index - 1) >>> 1;
+				if(order.compare(element(parent), element(index)) <= 0) {
+					break;
+				}
+				elements[index] = elements[parent];
+				elements[parent] = element;
+				index = parent;
+			}
+		}
+
+		private void siftDown(int index) {
+			while(true) {
+				int child = 2 * index + 1;
+				if(child >= size) {
+					return;
+				}
+				if(child + 1 < size && order.compare(element(child + 1), element(child)) < 0) {
+					child++;
+				}
+				if(order.compare(element(index), element(child)) <= 0) {
+					return;
+				}
+				Object swap = elements[index];
+				elements[index] = elements[child];
+				elements[child] = swap;
+				index = child;
+			}
+		}
+	}
+
+}
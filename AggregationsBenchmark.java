@@ -0,0 +1,86 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares the bounded heap top-K of {@link Aggregations} with sorting a copy of the list and
+ * with {@code sorted().limit(k)} for the youngest and the best paid programmers.
+ *
+ * @author Aleksander
+ */
+public class AggregationsBenchmark extends AbstractBenchmark {
+
+	private static final Comparator<Programmer> BY_BIRTH_DATE = Comparator.comparing(Programmer::getBirthDate);
+	private static final Comparator<Programmer> BY_SALARY = Comparator.comparing(Programmer::getSalary);
+
+	@Param({"1000000", "10000000"})
+	private int size;
+
+	@Param({"1", "10", "100", "10000"})
+	private int k;
+
+	private List<Programmer> programmers;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+	}
+
+	@Benchmark
+	public List<Programmer> youngestHeap() {
+		return Aggregations.top(programmers, k, BY_BIRTH_DATE);
+	}
+
+	@Benchmark
+	public List<Programmer> youngestHeapParallel() {
+		return Aggregations.topParallel(programmers, k, BY_BIRTH_DATE);
+	}
+
+	@Benchmark
+	public List<Programmer> youngestSortedCopy() {
+		List<Programmer> copy = new ArrayList<>(programmers);
+		copy.sort(BY_BIRTH_DATE.reversed());
+		return copy.subList(0, k);
+	}
+
+	@Benchmark
+	public List<Programmer> youngestStreamSortedLimit() {
+		return programmers.parallelStream().sorted(BY_BIRTH_DATE.reversed()).limit(k).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<Programmer> highestSalariesHeap() {
+		return Aggregations.top(programmers, k, BY_SALARY);
+	}
+
+	@Benchmark
+	public List<Programmer> highestSalariesHeapParallel() {
+		return Aggregations.topParallel(programmers, k, BY_SALARY);
+	}
+
+	@Benchmark
+	public List<Programmer> highestSalariesSortedCopy() {
+		List<Programmer> copy = new ArrayList<>(programmers);
+		copy.sort(BY_SALARY.reversed());
+		return copy.subList(0, k);
+	}
+
+	@Benchmark
+	public List<Programmer> highestSalariesStreamSortedLimit() {
+		return programmers.parallelStream().sorted(BY_SALARY.reversed()).limit(k).collect(Collectors.toList());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(AggregationsBenchmark.class, args);
+	}
+
+}
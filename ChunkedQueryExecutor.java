@@ -0,0 +1,103 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Splits the list into a fixed number of chunks, runs a loop over every chunk on a thread pool
+ * and combines the partial results in chunk order.
+ *
+ * @author Aleksander
+ */
+public class ChunkedQueryExecutor implements QueryExecutor {
+
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final int threads;
+	private final ExecutorService executor;
+	private final LoopQueryExecutor loop = new LoopQueryExecutor();
+
+	public ChunkedQueryExecutor(int threads) {
+		this.threads = threads;
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "chunked-query");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public <T> T maxBy(List<T> items, Comparator<? super T> order) {
+		T max = null;
+		for(T partial : map(items, chunk -> loop.maxBy(chunk, order))) {
+			if(partial != null && (max == null || order.compare(partial, max) > 0)) {
+				max = partial;
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public <T> List<T> filter(List<T> items, Predicate<? super T> predicate) {
+		List<List<T>> partials = map(items, chunk -> loop.filter(chunk, predicate));
+		int size = 0;
+		for(List<T> partial : partials) {
+			size += partial.size();
+		}
+		List<T> filtered = new ArrayList<>(size);
+		for(List<T> partial : partials) {
+			filtered.addAll(partial);
+		}
+		return filtered;
+	}
+
+	/**
+	 * Applies the function to every chunk of the list on the pool.
+	 *
+	 * @param items
+	 * @param function
+	 * @return the partial results in chunk order
+	 */
+	private <T, R> List<R> map(List<T> items, Function<List<T>, R> function) {
+		int size = items.size();
+		int chunks = Math.max(1, Math.min(size, threads * CHUNKS_PER_THREAD));
+		List<Future<R>> futures = new ArrayList<>(chunks);
+		for(int chunk = 0; chunk < chunks; chunk++) {
+			List<T> part = items.subList((int) ((long) size * chunk / chunks), (int) ((long) size * (chunk + 1) / chunks));
+			Callable<R> task = () -> function.apply(part);
+			futures.add(executor.submit(task));
+		}
+
+		List<R> results = new ArrayList<>(chunks);
+		try {
+			for(Future<R> future : futures) {
+				results.add(future.get());
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the chunks", e);
+		} catch(ExecutionException e) {
+			throw new IllegalStateException("A chunk failed", e.getCause());
+		}
+		return results;
+	}
+
+	@Override
+	public String getName() {
+		return "chunked-" + threads;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+}
@@ -0,0 +1,257 @@
+package domain;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Age, years of experience and start age of a list of programmers, precomputed into primitive
+ * arrays so queries such as "more than 10 years of experience in Java" filter ints instead of
+ * doing {@link java.time.Period} arithmetic on {@link LocalDate} objects per programmer.
+ *
+ * The dates are packed into ints as {@code year << 9 | month << 5 | day}. The difference of two
+ * packed dates shifted right by 9 is the number of whole years between them, because the month
+ * and day bits only borrow from the year when the anniversary has not been reached yet. The
+ * yearly values are therefore plain subtractions and shifts over int arrays, which the JIT
+ * compiles to SIMD loops.
+ *
+ * The age and the experience depend on the reference date. They are recomputed lazily by the
+ * first {@link #current()} after the supplied date changed; the start age never changes. Like
+ * {@link LastNameIndex}, the columns do not notice changes of the programmers and have to be
+ * rebuilt.
+ *
+ * @author Aleksander
+ */
+public class DerivedColumns {
+
+	private static final byte NO_LANGUAGE = -1;
+	private static final int BLOCK_SIZE = 1 << 14;
+
+	private final int[] birthDays;
+	private final int[] startDays;
+	private final byte[] languages;
+	private final int[] startAges;
+	private final Supplier<LocalDate> today;
+	private volatile Values values;
+
+	private DerivedColumns(int[] birthDays, int[] startDays, byte[] languages, Supplier<LocalDate> today) {
+		this.birthDays = birthDays;
+		this.startDays = startDays;
+		this.languages = languages;
+		this.today = today;
+		this.startAges = new int[birthDays.length];
+		yearsBetween(birthDays, startDays, startAges);
+	}
+
+	/**
+	 * Precomputes the columns with today as the reference date.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static DerivedColumns of(List<Programmer> programmers) {
+		return of(programmers, LocalDate::now);
+	}
+
+	/**
+	 * Precomputes the columns.
+	 *
+	 * @param programmers
+	 * @param today the reference date of the age and the experience, read by every
+	 * {@link #current()}
+	 * @return
+	 */
+	public static DerivedColumns of(List<Programmer> programmers, Supplier<LocalDate> today) {
+		Programmer[] array = programmers.toArray(new Programmer[0]);
+		int[] birthDays = new int[array.length];
+		int[] startDays = new int[array.length];
+		byte[] languages = new byte[array.length];
+		IntStream.range(0, array.length).parallel().forEach(row -> {
+			Programmer programmer = array[row];
+			birthDays[row] = pack(programmer.getBirthDate());
+			startDays[row] = pack(programmer.getProgrammingStartDate());
+			ProgrammingLanguages language = programmer.getLanguage();
+			languages[row] = language == null ? NO_LANGUAGE : (byte) language.ordinal();
+		});
+		return new DerivedColumns(birthDays, startDays, languages, today);
+	}
+
+	/**
+	 * Packs a date into an int that orders like the date.
+	 *
+	 * @param date
+	 * @return {@code year << 9 | month << 5 | day}
+	 */
+	static int pack(LocalDate date) {
+		return date.getYear() << 9 | date.getMonthValue() << 5 | date.getDayOfMonth();
+	}
+
+	/**
+	 * The whole years from one packed date to another, like
+	 * {@link java.time.temporal.ChronoUnit#YEARS}: negative if {@code to} is earlier, rounded
+	 * towards zero.
+	 *
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	static int yearsBetween(int from, int to) {
+		int difference = to - from;
+		//a negative difference is rounded up, like a division, without a branch
+		return (difference + (difference >> 31 & 511)) >> 9;
+	}
+
+	public int size() {
+		return birthDays.length;
+	}
+
+	/**
+	 * The columns for the current reference date, recomputing the age and the experience if the
+	 * date changed since the last call.
+	 *
+	 * @return
+	 */
+	public Values current() {
+		LocalDate asOf = today.get();
+		Values current = values;
+		if(current != null && current.asOf.equals(asOf)) {
+			return current;
+		}
+		synchronized(this) {
+			current = values;
+			if(current == null || !current.asOf.equals(asOf)) {
+				current = compute(asOf);
+				values = current;
+			}
+			return current;
+		}
+	}
+
+	/**
+	 * It finds the rows of the programmers of the given language with more than the given years
+	 * of experience.
+	 *
+	 * @param language
+	 * @param minExperienceYears exclusive
+	 * @return the ascending rows
+	 */
+	public int[] findExperienced(ProgrammingLanguages language, int minExperienceYears) {
+		Values current = current();
+		byte ordinal = (byte) language.ordinal();
+		return current.rows().parallel()
+				.filter(row -> languages[row] == ordinal && current.experience[row] > minExperienceYears)
+				.toArray();
+	}
+
+	private Values compute(LocalDate asOf) {
+		int asOfDay = pack(asOf);
+		int[] ages = new int[birthDays.length];
+		int[] experience = new int[birthDays.length];
+		blocks(birthDays.length).forEach(block -> {
+			int from = block * BLOCK_SIZE;
+			int to = Math.min(birthDays.length, from + BLOCK_SIZE);
+			for(int row = from; row < to; row++) {
+				ages[row] = yearsBetween(birthDays[row], asOfDay);
+				experience[row] = yearsBetween(startDays[row], asOfDay);
+			}
+		});
+		return new Values(asOf, ages, experience);
+	}
+
+	/**
+	 * Fills {@code years[i]} with the whole years from {@code from[i]} to {@code to[i]}.
+	 */
+	private static void yearsBetween(int[] from, int[] to, int[] years) {
+		blocks(years.length).forEach(block -> {
+			int start = block * BLOCK_SIZE;
+			int end = Math.min(years.length, start + BLOCK_SIZE);
+			for(int row = start; row < end; row++) {
+				years[row] = yearsBetween(from[row], to[row]);
+			}
+		});
+	}
+
+	/**
+	 * The blocks of rows as a parallel stream; each block is a simple loop the JIT can vectorize.
+	 */
+	private static IntStream blocks(int size) {
+		return IntStream.range(0, (size + BLOCK_SIZE - 1) / BLOCK_SIZE).parallel();
+	}
+
+	/**
+	 * The columns for one reference date. The arrays are shared and must not be modified.
+	 */
+	public final class Values {
+
+		private final LocalDate asOf;
+		private final int[] ages;
+		private final int[] experience;
+
+		Values(LocalDate asOf, int[] ages, int[] experience) {
+			this.asOf = asOf;
+			this.ages = ages;
+			this.experience = experience;
+		}
+
+		public LocalDate getAsOf() {
+			return asOf;
+		}
+
+		public int size() {
+			return ages.length;
+		}
+
+		/**
+		 * All rows, for primitive filters over the columns.
+		 *
+		 * @return a sequential stream
+		 */
+		public IntStream rows() {
+			return IntStream.range(0, ages.length);
+		}
+
+		/**
+		 * @param row
+		 * @return the age in whole years
+		 */
+		public int age(int row) {
+			return ages[row];
+		}
+
+		/**
+		 * @param row
+		 * @return the whole years since the programming start date
+		 */
+		public int experience(int row) {
+			return experience[row];
+		}
+
+		/**
+		 * @param row
+		 * @return the age in whole years at the programming start date
+		 */
+		public int startAge(int row) {
+			return startAges[row];
+		}
+
+		/**
+		 * @param row
+		 * @return the language, or null if it is not one of the enum constants
+		 */
+		public ProgrammingLanguages language(int row) {
+			byte ordinal = languages[row];
+			return ordinal == NO_LANGUAGE ? null : ProgrammingLanguages.of(ordinal);
+		}
+
+		/**
+		 * @param row
+		 * @param language
+		 * @return whether the programmer of the row uses the language
+		 */
+		public boolean isLanguage(int row, ProgrammingLanguages language) {
+			return languages[row] == language.ordinal();
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+package domain;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Measures the "more than 10 years of experience in Java" query over the precomputed
+ * {@link DerivedColumns} against the same query with {@link Period} arithmetic on the
+ * {@link LocalDate} fields, and the cost of recomputing the columns for a new reference date.
+ *
+ * @author Aleksander
+ */
+public class DerivedColumnsBenchmark extends AbstractBenchmark {
+
+	private static final LocalDate TODAY = LocalDate.of(2016, 10, 15);
+	private static final int MIN_EXPERIENCE_YEARS = 10;
+
+	@Param({"100000", "1000000", "10000000"})
+	private int size;
+
+	private List<Programmer> programmers;
+	private DerivedColumns columns;
+	private DerivedColumns movingColumns;
+	private LocalDate movingToday = TODAY;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		columns = DerivedColumns.of(programmers, () -> TODAY);
+		movingColumns = DerivedColumns.of(programmers, () -> movingToday);
+	}
+
+	@Benchmark
+	public long experiencedPeriodSequential() {
+		return programmers.stream()
+				.filter(p -> p.getLanguage() == ProgrammingLanguages.JAVA
+						&& Period.between(p.getProgrammingStartDate(), TODAY).getYears() > MIN_EXPERIENCE_YEARS)
+				.count();
+	}
+
+	@Benchmark
+	public long experiencedPeriodParallel() {
+		return programmers.parallelStream()
+				.filter(p -> p.getLanguage() == ProgrammingLanguages.JAVA
+						&& Period.between(p.getProgrammingStartDate(), TODAY).getYears() > MIN_EXPERIENCE_YEARS)
+				.count();
+	}
+
+	@Benchmark
+	public long experiencedDerivedSequential() {
+		DerivedColumns.Values values = columns.current();
+		return values.rows()
+				.filter(row -> values.isLanguage(row, ProgrammingLanguages.JAVA) && values.experience(row) > MIN_EXPERIENCE_YEARS)
+				.count();
+	}
+
+	@Benchmark
+	public int[] experiencedDerivedParallel() {
+		return columns.findExperienced(ProgrammingLanguages.JAVA, MIN_EXPERIENCE_YEARS);
+	}
+
+	@Benchmark
+	public long averageAgePeriodParallel() {
+		return programmers.parallelStream().mapToLong(p -> Period.between(p.getBirthDate(), TODAY).getYears()).sum();
+	}
+
+	@Benchmark
+	public long averageAgeDerivedParallel() {
+		DerivedColumns.Values values = columns.current();
+		return values.rows().parallel().mapToLong(values::age).sum();
+	}
+
+	@Benchmark
+	public DerivedColumns.Values refresh() {
+		movingToday = movingToday.plusDays(1);
+		return movingColumns.current();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(DerivedColumnsBenchmark.class, args);
+	}
+
+}
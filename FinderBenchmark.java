@@ -0,0 +1,136 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * JMH benchmarks for every query variant of {@link LambdaTest}. Each variant is measured in
+ * ns/op after warmup in separate forks, and the GC profiler reports the allocated bytes per
+ * operation (gc.alloc.rate.norm).
+ *
+ * Built into target/benchmarks.jar by the pom.xml.
+ *
+ * @author Aleksander
+ */
+public class FinderBenchmark extends AbstractBenchmark {
+
+	@Param({"10000", "100000", "1000000", "10000000"})
+	private int size;
+
+	private List<Programmer> programmers;
+	private String name;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		name = ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaParallel(programmers).getLastName().substring(0, 2);
+	}
+
+	/**
+	 * The sorting variants reorder the list they get, so they sort a fresh copy per iteration and
+	 * run once per iteration; copying the list per invocation would dominate the short finders.
+	 */
+	@State(Scope.Thread)
+	public static class SortingState {
+
+		private List<Programmer> programmers;
+
+		@Setup(Level.Iteration)
+		public void copy(FinderBenchmark benchmark) {
+			programmers = new ArrayList<>(benchmark.programmers);
+		}
+	}
+
+	@Benchmark
+	public Programmer youngestByIterator() {
+		return ProgrammerQueries.findTheYoungestProgrammerByIterator(programmers);
+	}
+
+	@Benchmark
+	public Programmer youngestForeachLoop() {
+		return ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 10)
+	@Measurement(iterations = 20)
+	public Programmer youngestSorting(SortingState state) {
+		return ProgrammerQueries.findTheYoungestProgrammerSorting(state.programmers);
+	}
+
+	@Benchmark
+	public Programmer youngestLambdaSequential() {
+		return ProgrammerQueries.findTheYoungestProgrammerLambdaSequential(programmers);
+	}
+
+	@Benchmark
+	public Programmer youngestLambdaParallel() {
+		return ProgrammerQueries.findTheYoungestProgrammerLambdaParallel(programmers);
+	}
+
+	@Benchmark
+	public Programmer highestSalaryByIterator() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryByIterator(programmers);
+	}
+
+	@Benchmark
+	public Programmer highestSalaryForLoop() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 10)
+	@Measurement(iterations = 20)
+	public Programmer highestSalarySorting(SortingState state) {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalarySorting(state.programmers);
+	}
+
+	@Benchmark
+	public Programmer highestSalaryLambdaSerial() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaSerial(programmers);
+	}
+
+	@Benchmark
+	public Programmer highestSalaryLambdaParallel() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaParallel(programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> byNameIterator() {
+		return ProgrammerQueries.findTheProgrammersByNameAndIterator(name, programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> byNameForLoop() {
+		return ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> byNameLambdaSerial() {
+		return ProgrammerQueries.findTheProgrammersByNameAndLambdaSerial(name, programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> byNameLambdaParallel() {
+		return ProgrammerQueries.findTheProgrammersByNameAndLambdaParallel(name, programmers);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(FinderBenchmark.class, args);
+	}
+
+}
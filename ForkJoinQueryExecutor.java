@@ -0,0 +1,48 @@
+package domain;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the queries on parallel streams in a dedicated fork-join pool. A parallel stream started
+ * from a task of a pool forks its subtasks into that pool, so the parallelism is independent of
+ * the common pool.
+ *
+ * @author Aleksander
+ */
+public class ForkJoinQueryExecutor implements QueryExecutor {
+
+	private final ForkJoinPool pool;
+
+	public ForkJoinQueryExecutor(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	@Override
+	public <T> T maxBy(List<T> items, Comparator<? super T> order) {
+		return pool.submit(() -> items.parallelStream().max(order).orElse(null)).join();
+	}
+
+	@Override
+	public <T> List<T> filter(List<T> items, Predicate<? super T> predicate) {
+		return pool.submit(() -> items.parallelStream().filter(predicate).collect(Collectors.toList())).join();
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@Override
+	public String getName() {
+		return "forkJoin-" + pool.getParallelism();
+	}
+
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+
+}
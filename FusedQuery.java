@@ -0,0 +1,233 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Several queries answered in one pass over the programmers. Every registered query is a
+ * {@link Collector}; a pass loads each programmer once and hands it to all of them, so N queries
+ * cost one trip through memory instead of N. The handles returned on registration pick the
+ * results out of the {@link Results} of a run.
+ *
+ * <pre>
+ * FusedQuery query = new FusedQuery();
+ * FusedQuery.Handle&lt;Programmer&gt; youngest = query.maxBy(Comparator.comparing(Programmer::getBirthDate));
+ * FusedQuery.Handle&lt;List&lt;Programmer&gt;&gt; byName = query.filter(p -&gt; p.getLastName().contains("AB"));
+ * FusedQuery.Results results = query.runParallel(programmers);
+ * results.get(youngest);
+ * </pre>
+ *
+ * @author Aleksander
+ */
+public final class FusedQuery {
+
+	private final List<Collector<Programmer, Object, Object>> collectors = new ArrayList<>();
+
+	/**
+	 * Registers a query given as a collector.
+	 *
+	 * @param collector
+	 * @return the handle of the result
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> Handle<R> add(Collector<? super Programmer, ?, R> collector) {
+		collectors.add((Collector<Programmer, Object, Object>) collector);
+		return new Handle<>(this, collectors.size() - 1);
+	}
+
+	/**
+	 * Registers a query for the smallest programmer; the first one wins on ties.
+	 *
+	 * @param order
+	 * @return the handle of the programmer, which is null if there are none
+	 */
+	public Handle<Programmer> minBy(Comparator<? super Programmer> order) {
+		return add(Collectors.collectingAndThen(Collectors.minBy(order), min -> min.orElse(null)));
+	}
+
+	/**
+	 * Registers a query for the largest programmer; the first one wins on ties.
+	 *
+	 * @param order
+	 * @return the handle of the programmer, which is null if there are none
+	 */
+	public Handle<Programmer> maxBy(Comparator<? super Programmer> order) {
+		return add(Collectors.collectingAndThen(Collectors.maxBy(order), max -> max.orElse(null)));
+	}
+
+	/**
+	 * Registers a query for the programmers matching the predicate, in encounter order.
+	 *
+	 * @param predicate
+	 * @return the handle of the matching programmers
+	 */
+	public Handle<List<Programmer>> filter(Predicate<? super Programmer> predicate) {
+		return add(Collectors.filtering(predicate, Collectors.toList()));
+	}
+
+	/**
+	 * Registers a query counting the programmers per key.
+	 *
+	 * @param key
+	 * @return the handle of the counts
+	 */
+	public <K> Handle<Map<K, Long>> countBy(Function<? super Programmer, ? extends K> key) {
+		return add(Collectors.groupingBy(key, Collectors.counting()));
+	}
+
+	/**
+	 * Runs all registered queries in one sequential pass over the list.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public Results run(List<? extends Programmer> programmers) {
+		Pass pass = new Pass();
+		Object[] containers = pass.newContainers();
+		if(programmers instanceof RandomAccess) {
+			for(int i = 0, size = programmers.size(); i < size; i++) {
+				pass.accumulate(containers, programmers.get(i));
+			}
+		} else {
+			for(Programmer programmer : programmers) {
+				pass.accumulate(containers, programmer);
+			}
+		}
+		return pass.finish(containers);
+	}
+
+	/**
+	 * Runs all registered queries in one parallel pass over the list.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public Results runParallel(List<? extends Programmer> programmers) {
+		return run(programmers.parallelStream());
+	}
+
+	/**
+	 * Runs all registered queries in one pass over the stream, parallel if the stream is.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public Results run(Stream<? extends Programmer> programmers) {
+		Pass pass = new Pass();
+		return pass.finish(programmers.collect(Collector.of(pass::newContainers, pass::accumulate, pass::combine)));
+	}
+
+	/**
+	 * The functions of the queries registered when a run starts, unpacked into arrays so the
+	 * inner loop does not go through the collectors for every programmer.
+	 */
+	private final class Pass {
+
+		private final Supplier<Object>[] suppliers;
+		private final BiConsumer<Object, Programmer>[] accumulators;
+		private final BinaryOperator<Object>[] combiners;
+		private final Function<Object, Object>[] finishers;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Pass() {
+			int size = collectors.size();
+			suppliers = new Supplier[size];
+			accumulators = new BiConsumer[size];
+			combiners = new BinaryOperator[size];
+			finishers = new Function[size];
+			for(int i = 0; i < size; i++) {
+				Collector<Programmer, Object, Object> collector = collectors.get(i);
+				suppliers[i] = collector.supplier();
+				accumulators[i] = collector.accumulator();
+				combiners[i] = collector.combiner();
+				finishers[i] = collector.finisher();
+			}
+		}
+
+		Object[] newContainers() {
+			Object[] containers = new Object[suppliers.length];
+			for(int i = 0; i < containers.length; i++) {
+				containers[i] = suppliers[i].get();
+			}
+			return containers;
+		}
+
+		void accumulate(Object[] containers, Programmer programmer) {
+			for(int i = 0; i < containers.length; i++) {
+				accumulators[i].accept(containers[i], programmer);
+			}
+		}
+
+		Object[] combine(Object[] left, Object[] right) {
+			for(int i = 0; i < left.length; i++) {
+				left[i] = combiners[i].apply(left[i], right[i]);
+			}
+			return left;
+		}
+
+		Results finish(Object[] containers) {
+			Object[] results = new Object[containers.length];
+			for(int i = 0; i < containers.length; i++) {
+				results[i] = finishers[i].apply(containers[i]);
+			}
+			return new Results(FusedQuery.this, results);
+		}
+	}
+
+	/**
+	 * Position of a registered query in the results of its {@link FusedQuery}.
+	 */
+	public static final class Handle<R> {
+
+		private final FusedQuery query;
+		private final int index;
+
+		private Handle(FusedQuery query, int index) {
+			this.query = query;
+			this.index = index;
+		}
+	}
+
+	/**
+	 * Results of one run of all registered queries.
+	 */
+	public static final class Results {
+
+		private final FusedQuery query;
+		private final Object[] results;
+
+		private Results(FusedQuery query, Object[] results) {
+			this.query = query;
+			this.results = results;
+		}
+
+		/**
+		 * Result of the query of the given handle.
+		 *
+		 * @param handle
+		 * @return
+		 */
+		@SuppressWarnings("unchecked")
+		public <R> R get(Handle<R> handle) {
+			if(handle.query != query) {
+				throw new IllegalArgumentException("Handle of another query");
+			}
+			if(handle.index >= results.length) {
+				throw new IllegalArgumentException("Query registered after the run");
+			}
+			return (R) results[handle.index];
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package domain;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares running the youngest, highest salary, last name and language count queries as four
+ * separate passes with running them fused into a single {@link FusedQuery} pass.
+ *
+ * @author Aleksander
+ */
+public class FusedQueryBenchmark extends AbstractBenchmark {
+
+	private static final Comparator<Programmer> BY_BIRTH_DATE = Comparator.comparing(Programmer::getBirthDate);
+
+	@Param({"100000", "1000000", "10000000"})
+	private int size;
+
+	private List<Programmer> programmers;
+	private String name;
+	private FusedQuery query;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		name = programmers.get(size / 2).getLastName().substring(0, 2);
+		query = new FusedQuery();
+		query.maxBy(BY_BIRTH_DATE);
+		query.add(ParallelCollectors.maxByLong(Salaries.IN_CENTS));
+		query.filter(programmer -> programmer.getLastName().contains(name));
+		query.countBy(Programmer::getPrimaryLanguage);
+	}
+
+	@Benchmark
+	public void separate(Blackhole blackhole) {
+		blackhole.consume(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers));
+		blackhole.consume(ProgrammerQueries.findTheProgrammerWithHighestSalaryInCentsForLoop(programmers));
+		blackhole.consume(ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers));
+		blackhole.consume(programmers.stream().collect(Collectors.groupingBy(Programmer::getPrimaryLanguage, Collectors.counting())));
+	}
+
+	@Benchmark
+	public FusedQuery.Results fused() {
+		return query.run(programmers);
+	}
+
+	@Benchmark
+	public void separateParallel(Blackhole blackhole) {
+		blackhole.consume(ProgrammerQueries.findTheYoungestProgrammerLambdaParallel(programmers));
+		blackhole.consume(ProgrammerQueries.findTheProgrammerWithHighestSalaryInCentsLambdaParallel(programmers));
+		blackhole.consume(ProgrammerQueries.findTheProgrammersByNameAndLambdaParallel(name, programmers));
+		Map<String, Long> counts = programmers.parallelStream()
+				.collect(Collectors.groupingBy(Programmer::getPrimaryLanguage, Collectors.counting()));
+		blackhole.consume(counts);
+	}
+
+	@Benchmark
+	public FusedQuery.Results fusedParallel() {
+		return query.runParallel(programmers);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(FusedQueryBenchmark.class, args);
+	}
+
+}
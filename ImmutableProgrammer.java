@@ -0,0 +1,263 @@
+package domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, compact variant of {@link Programmer}. The language is only kept as the enum
+ * constant, the salary only as cents, and the dates are the shared instances of
+ * {@link LocalDateCache}, so a row holds two name strings and no objects of its own besides
+ * them. {@link #asProgrammer()} adapts a record to the {@link Person} hierarchy for the existing
+ * queries.
+ *
+ * @author Aleksander
+ */
+public final class ImmutableProgrammer {
+
+	private final String firstName;
+	private final String lastName;
+	private final LocalDate birthDate;
+	private final LocalDate programmingStartDate;
+	private final ProgrammingLanguages language;
+	private final long salaryInCents;
+
+	/**
+	 * Creates a programmer; the dates are replaced by their cached instances.
+	 *
+	 * @param firstName
+	 * @param lastName
+	 * @param birthDate
+	 * @param language
+	 * @param programmingStartDate
+	 * @param salaryInCents
+	 */
+	public ImmutableProgrammer(String firstName, String lastName, LocalDate birthDate, ProgrammingLanguages language,
+			LocalDate programmingStartDate, long salaryInCents) {
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.birthDate = LocalDateCache.canonical(birthDate);
+		this.language = Objects.requireNonNull(language, "language");
+		this.programmingStartDate = LocalDateCache.canonical(programmingStartDate);
+		this.salaryInCents = salaryInCents;
+	}
+
+	/**
+	 * Copies a programmer.
+	 *
+	 * @param programmer
+	 * @return
+	 * @throws IllegalArgumentException if the language is not one of {@link ProgrammingLanguages}
+	 */
+	public static ImmutableProgrammer from(Programmer programmer) {
+		if(programmer.getLanguage() == null) {
+			throw new IllegalArgumentException("Unknown language: " + programmer.getPrimaryLanguage());
+		}
+		return new ImmutableProgrammer(programmer.getFirstName(), programmer.getLastName(), programmer.getBirthDate(),
+				programmer.getLanguage(), programmer.getProgrammingStartDate(), programmer.getSalaryInCents());
+	}
+
+	/**
+	 * Copies the programmers in parallel.
+	 *
+	 * @param programmers
+	 * @return a fixed-size list in the same order
+	 */
+	public static List<ImmutableProgrammer> of(List<Programmer> programmers) {
+		Programmer[] array = programmers.toArray(new Programmer[0]);
+		ImmutableProgrammer[] copies = new ImmutableProgrammer[array.length];
+		IntStream.range(0, array.length).parallel().forEach(row -> copies[row] = from(array[row]));
+		return Arrays.asList(copies);
+	}
+
+	/**
+	 * The programmers as a read-only list of adapters, see {@link #asProgrammer()}. An adapter is
+	 * created on every {@link List#get(int)}.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static List<Programmer> asProgrammers(List<ImmutableProgrammer> programmers) {
+		return new AdapterList(programmers);
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public LocalDate getBirthDate() {
+		return birthDate;
+	}
+
+	public ProgrammingLanguages getLanguage() {
+		return language;
+	}
+
+	public String getPrimaryLanguage() {
+		return language.toString();
+	}
+
+	public LocalDate getProgrammingStartDate() {
+		return programmingStartDate;
+	}
+
+	public long getSalaryInCents() {
+		return salaryInCents;
+	}
+
+	/**
+	 * The salary as a new BigDecimal, see {@link Salaries}.
+	 *
+	 * @return
+	 */
+	public BigDecimal getSalary() {
+		return Salaries.fromCents(salaryInCents);
+	}
+
+	/**
+	 * A read-only {@link Programmer} backed by this record; its setters throw
+	 * {@link UnsupportedOperationException}.
+	 *
+	 * @return
+	 */
+	public Programmer asProgrammer() {
+		return new Adapter(this);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(!(obj instanceof ImmutableProgrammer)) {
+			return false;
+		}
+		ImmutableProgrammer other = (ImmutableProgrammer) obj;
+		return salaryInCents == other.salaryInCents && language == other.language
+				&& Objects.equals(firstName, other.firstName) && Objects.equals(lastName, other.lastName)
+				&& Objects.equals(birthDate, other.birthDate) && Objects.equals(programmingStartDate, other.programmingStartDate);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(firstName, lastName, birthDate, language, programmingStartDate, salaryInCents);
+	}
+
+	@Override
+	public String toString() {
+		return firstName + " " + lastName + " (" + birthDate + ", " + language + " since " + programmingStartDate + ", "
+				+ getSalary() + ")";
+	}
+
+	private static final class AdapterList extends AbstractList<Programmer> implements RandomAccess {
+
+		private final List<ImmutableProgrammer> programmers;
+
+		AdapterList(List<ImmutableProgrammer> programmers) {
+			this.programmers = programmers;
+		}
+
+		@Override
+		public Programmer get(int index) {
+			return programmers.get(index).asProgrammer();
+		}
+
+		@Override
+		public int size() {
+			return programmers.size();
+		}
+	}
+
+	/**
+	 * Programmer whose getters read an immutable record.
+	 */
+	private static final class Adapter extends Programmer {
+
+		private final ImmutableProgrammer record;
+
+		Adapter(ImmutableProgrammer record) {
+			super(null, null, null, null, null, null);
+			this.record = record;
+		}
+
+		@Override
+		public String getFirstName() {
+			return record.firstName;
+		}
+
+		@Override
+		public String getLastName() {
+			return record.lastName;
+		}
+
+		@Override
+		public LocalDate getBirthDate() {
+			return record.birthDate;
+		}
+
+		@Override
+		public String getPrimaryLanguage() {
+			return record.getPrimaryLanguage();
+		}
+
+		@Override
+		public ProgrammingLanguages getLanguage() {
+			return record.language;
+		}
+
+		@Override
+		public LocalDate getProgrammingStartDate() {
+			return record.programmingStartDate;
+		}
+
+		@Override
+		public BigDecimal getSalary() {
+			return record.getSalary();
+		}
+
+		@Override
+		public long getSalaryInCents() {
+			return record.salaryInCents;
+		}
+
+		@Override
+		public void setFirstName(String firstName) {
+			throw new UnsupportedOperationException("Immutable programmer");
+		}
+
+		@Override
+		public void setLastName(String lastName) {
+			throw new UnsupportedOperationException("Immutable programmer");
+		}
+
+		@Override
+		public void setBirthDate(LocalDate birthDate) {
+			throw new UnsupportedOperationException("Immutable programmer");
+		}
+
+		@Override
+		public void setPrimaryLanguage(String primaryLanguage) {
+			throw new UnsupportedOperationException("Immutable programmer");
+		}
+
+		@Override
+		public void setProgrammingStartDate(LocalDate programmingStartDate) {
+			throw new UnsupportedOperationException("Immutable programmer");
+		}
+
+		@Override
+		public void setSalary(BigDecimal salary) {
+			throw new UnsupportedOperationException("Immutable programmer");
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of positions of a random access list or an array. It splits the
+ * range exactly in halves and stops splitting at a given leaf size, so a parallel stream gets
+ * balanced tasks with a tunable amount of work each instead of the default batching.
+ *
+ * @author Aleksander
+ */
+public final class IndexedSpliterator<T> implements Spliterator<T> {
+
+	private final List<T> items;
+	private final int leafSize;
+	private int index;
+	private final int fence;
+
+	private IndexedSpliterator(List<T> items, int index, int fence, int leafSize) {
+		this.items = items;
+		this.index = index;
+		this.fence = fence;
+		this.leafSize = leafSize;
+	}
+
+	/**
+	 * Creates a spliterator over the whole list.
+	 *
+	 * @param items a random access list
+	 * @param leafSize ranges of at most this size are not split any more
+	 * @return
+	 */
+	public static <T> IndexedSpliterator<T> of(List<T> items, int leafSize) {
+		if(!(items instanceof RandomAccess)) {
+			throw new IllegalArgumentException("Not a random access list: " + items.getClass().getName());
+		}
+		if(leafSize <= 0) {
+			throw new IllegalArgumentException("Leaf size must be positive: " + leafSize);
+		}
+		return new IndexedSpliterator<>(items, 0, items.size(), leafSize);
+	}
+
+	/**
+	 * Creates a spliterator over the whole array.
+	 *
+	 * @param items
+	 * @param leafSize ranges of at most this size are not split any more
+	 * @return
+	 */
+	public static <T> IndexedSpliterator<T> of(T[] items, int leafSize) {
+		return of(Arrays.asList(items), leafSize);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if(index >= fence) {
+			return false;
+		}
+		action.accept(items.get(index++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		List<T> items = this.items;
+		int fence = this.fence;
+		for(int i = index; i < fence; i++) {
+			action.accept(items.get(i));
+		}
+		index = fence;
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		if(fence - index <= leafSize) {
+			return null;
+		}
+		int middle = (index + fence) >>> 1;
+		IndexedSpliterator<T> prefix = new IndexedSpliterator<>(items, index, middle, leafSize);
+		index = middle;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED;
+	}
+
+}
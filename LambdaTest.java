@@ -1,513 +1,291 @@
 package domain;
 
-import java.math.BigDecimal;
-import java.security.SecureRandom;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.time.Period;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Test case scenarios. The first part initializes the random objects and the second part
- * performs tests.
- * 
+ * performs tests. If a snapshot file is given as argument and exists, the queries run over the
+ * mapped snapshot instead; otherwise the generated objects are also written to that file.
+ *
+ * Every query is recorded by {@link QueryMetrics}. With the system property {@code metrics}
+ * set to a file prefix, the recorded metrics are written to {@code <prefix>.csv} and
+ * {@code <prefix>.json}.
+ *
+ * With the system property {@code stream} set to a number of rows, the programmers are
+ * generated lazily and all queries run in one pass with constant memory, so the number of rows
+ * is not limited by the heap. The last name filter uses the property {@code name} and its
+ * matches are written to the file given by the property {@code matches}, if any.
+ *
  * @author Aleksander
  *
  */
 public class LambdaTest {
 
-	private static final int NUMBER_OF_OBJECTS = 10000000;
-	private static final int STRING_LENGTH = 25;
+	private static final int NUMBER_OF_OBJECTS = Integer.getInteger("size", 10000000);
+	private static final int TOP_PROGRAMMERS = 10000;
+	private static final String STREAMED_NAME = "AB";
+
+	private static final QueryMetrics METRICS = new QueryMetrics();
+
+	public static void main(String[] args) throws IOException {
+
+		String streamedRows = System.getProperty("stream");
+		if(streamedRows != null) {
+			runStreamingQueries(Long.parseLong(streamedRows), System.getProperty("name", STREAMED_NAME));
+			writeMetrics();
+			return;
+		}
+
+		Path snapshot = args.length > 0 ? Paths.get(args[0]) : null;
+		if(snapshot != null && Files.exists(snapshot)) {
+			runSnapshotQueries(snapshot);
+			writeMetrics();
+			return;
+		}
 
-	public static void main(String[] args) {
-		
 		System.out.println("NUMBER OF OBJECTS: " + NUMBER_OF_OBJECTS);
 
-		SecureRandom random = new SecureRandom();
-		List<Programmer> programmers = new ArrayList<>();
-		String characters = new String("ABCDEFGHIJKLMNOPRSTUVWXYZ");
-
-		LocalDateTime start = LocalDateTime.now();
-		
-		//Generating objects
-		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
-			String firstName = generateString(random, characters, STRING_LENGTH);
-			String lastName = generateString(random, characters, STRING_LENGTH);
-			LocalDate birthDate = generateBirthDate();
-			String programmingLanguage = generateRandomProgrammingLanguage(random);
-			LocalDate programmingStartDate = generateProgrammingStartDate(birthDate);
-			BigDecimal randomSalary = generateRandomSalary(random);
-			Programmer programmer = new Programmer(firstName, lastName, birthDate, programmingLanguage, programmingStartDate, randomSalary);
-			programmers.add(programmer);
+		List<Programmer> programmers = measure("GENERATING OBJECTS",
+				() -> new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(NUMBER_OF_OBJECTS), LambdaTest::count);
+
+		if(snapshot != null) {
+			ProgrammerSnapshot.write(programmers, snapshot);
 		}
-		
-		LocalDateTime end = LocalDateTime.now();
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
+
 		//performing benchmark tests
-		findTheYoungestProgrammerByIterator(programmers);
-		findTheYoungestProgrammerForeachLoop(programmers);
-		findTheYoungestProgrammerSorting(programmers);
-		findTheYoungestProgrammerLambdaSequential(programmers);
-		findTheYoungestProgrammerLambdaParallel(programmers);
-		
-		findTheProgrammerWithHighestSalaryByIterator(programmers);
-		findTheProgrammerWithHighestSalaryForLoop(programmers);
-		findTheProgrammerWithHighestSalarySorting(programmers);
-		findTheProgrammerWithHighestSalaryLambdaSerial(programmers);
-		Programmer programmerWithTheHighestSalary = findTheProgrammerWithHighestSalaryLambdaParallel(programmers);
-		
-		findTheProgrammersByNameAndIterator(programmerWithTheHighestSalary.getLastName().substring(0, 2), programmers);
-		findTheProgrammersByNameAndForLoop(programmerWithTheHighestSalary.getLastName().substring(0, 2), programmers);
-		findTheProgrammersByNameAndLambdaSerial(programmerWithTheHighestSalary.getLastName().substring(0, 2), programmers);
-		findTheProgrammersByNameAndLambdaParallel(programmerWithTheHighestSalary.getLastName().substring(0, 2), programmers);
+		measure("YOUNGEST PROGRAMMER (ITERATOR)", () -> ProgrammerQueries.findTheYoungestProgrammerByIterator(programmers), LambdaTest::name);
+		measure("YOUNGEST PROGRAMMER (FOREACH LOOP)", () -> ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers), LambdaTest::name);
+		measure("YOUNGEST PROGRAMMER (SORTING WITH COMPARATOR)", () -> ProgrammerQueries.findTheYoungestProgrammerSorting(programmers), LambdaTest::name);
+		measure("YOUNGEST PROGRAMMER (LAMBDA SEQUENTIAL STREAM)", () -> ProgrammerQueries.findTheYoungestProgrammerLambdaSequential(programmers), LambdaTest::name);
+		measure("YOUNGEST PROGRAMMER (LAMBDA PARALLEL STREAM)", () -> ProgrammerQueries.findTheYoungestProgrammerLambdaParallel(programmers), LambdaTest::name);
+		measure("YOUNGEST PROGRAMMER (PRIMITIVE KEY PARALLEL STREAM)", () -> ProgrammerQueries.findTheYoungestProgrammerPrimitiveParallel(programmers), LambdaTest::name);
 
-	}
+		measure("HIGHEST SALARY (ITERATOR)", () -> ProgrammerQueries.findTheProgrammerWithHighestSalaryByIterator(programmers), LambdaTest::name);
+		measure("HIGHEST SALARY (FOREACH LOOP)", () -> ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers), LambdaTest::name);
+		measure("HIGHEST SALARY (SORTING WITH COMPARATOR)", () -> ProgrammerQueries.findTheProgrammerWithHighestSalarySorting(programmers), LambdaTest::name);
+		measure("HIGHEST SALARY (LAMBDA SEQUENTIAL STREAM)", () -> ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaSerial(programmers), LambdaTest::name);
+		Programmer programmerWithTheHighestSalary = measure("HIGHEST SALARY (LAMBDA PARALLEL STREAM)",
+				() -> ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaParallel(programmers), LambdaTest::name);
+		measure("HIGHEST SALARY (PRIMITIVE KEY PARALLEL STREAM)", () -> ProgrammerQueries.findTheProgrammerWithHighestSalaryPrimitiveParallel(programmers), LambdaTest::name);
 
-	/**
-	 * Generates random string of specified length.
-	 * 
-	 * @param rng
-	 * @param characters
-	 * @param length
-	 * @return
-	 */
-	private static String generateString(Random rng, String characters, int length) {
-		char[] text = new char[length];
-		for (int i = 0; i < length; i++) {
-			text[i] = characters.charAt(rng.nextInt(characters.length()));
-		}
-		return new String(text);
-	}
-	
-	/**
-	 * Generated a random birth date between 01.01.1950. and 31.12.1998.
-	 * 
-	 * @return
-	 */
-	private static LocalDate generateBirthDate() {
-		long minDay = LocalDate.of(1950, 1, 1).toEpochDay();
-	    long maxDay = LocalDate.of(1998, 12, 31).toEpochDay();
-	    long randomDay = ThreadLocalRandom.current().nextLong(minDay, maxDay);
-	    LocalDate randomDate = LocalDate.ofEpochDay(randomDay);
-	    return randomDate;
-	}
-	
-	/**
-	 * Generates programming start date between a birthdate + 7 years and the conference date.
-	 * 
-	 * @param birthDate
-	 * @return
-	 */
-	private static LocalDate generateProgrammingStartDate(LocalDate birthDate) {
-		long minDay = birthDate.plusYears(7).toEpochDay();
-	    long maxDay = LocalDate.of(2016, 10, 15).toEpochDay();
-	    long randomDay = ThreadLocalRandom.current().nextLong(minDay, maxDay);
-	    LocalDate randomDate = LocalDate.ofEpochDay(randomDay);
-	    return randomDate;
-	}
-	
-	/**
-	 * Geerates a name of random programming language.
-	 * 
-	 * @param random
-	 * @return
-	 */
-	private static String generateRandomProgrammingLanguage(Random random) {
-		return ProgrammingLanguages.values()[random.nextInt(ProgrammingLanguages.values().length)].toString();
-	}
-	
-	/**
-	 * Generated a random salary between 5.000 and 10.000 Kunas.
-	 * 
-	 * @param random
-	 * @return
-	 */
-	private static BigDecimal generateRandomSalary(Random random) {
-		BigDecimal max = new BigDecimal("5000.0");
-        BigDecimal randFromDouble = new BigDecimal(Math.random());
-        BigDecimal actualRandomDec = randFromDouble.divide(max,BigDecimal.ROUND_DOWN);
-        actualRandomDec = actualRandomDec.add(max);
-        return actualRandomDec;
-	}
-	
-	/**
-	 * It finds the jungest programmer by using operator.
-	 * 
-	 * @param programmers
-	 * @return
-	 */
-	private static Programmer findTheYoungestProgrammerByIterator(List<Programmer> programmers) {
-		System.out.println("YOUNGEST PROGRAMMER (ITERATOR)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Iterator<Programmer> iter = programmers.iterator();
-		Programmer youngestProgrammer = programmers.get(0);
-		iter.next();
-		
-		while(iter.hasNext()) {
-			Programmer newProgrammer = iter.next();
-			if(newProgrammer.getBirthDate().isAfter(youngestProgrammer.getBirthDate())) {
-				youngestProgrammer = newProgrammer;
+		measure("YOUNGEST " + TOP_PROGRAMMERS + " PROGRAMMERS (BOUNDED HEAP PARALLEL STREAM)",
+				() -> ProgrammerQueries.findTheYoungestProgrammers(TOP_PROGRAMMERS, programmers), p -> name(p.get(0)));
+		measure("HIGHEST " + TOP_PROGRAMMERS + " SALARIES (BOUNDED HEAP PARALLEL STREAM)",
+				() -> ProgrammerQueries.findTheProgrammersWithHighestSalaries(TOP_PROGRAMMERS, programmers), p -> name(p.get(0)));
+
+		String name = programmerWithTheHighestSalary.getLastName().substring(0, 2);
+		measure("PROGRAMMERS BY NAME (ITERATOR)", () -> ProgrammerQueries.findTheProgrammersByNameAndIterator(name, programmers), LambdaTest::count);
+		measure("PROGRAMMERS BY NAME (FOREACH LOOP)", () -> ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers), LambdaTest::count);
+		measure("PROGRAMMERS BY NAME (LAMBDA SEQUENTIAL STREAM)", () -> ProgrammerQueries.findTheProgrammersByNameAndLambdaSerial(name, programmers), LambdaTest::count);
+		measure("PROGRAMMERS BY NAME (LAMBDA PARALLEL STREAM)", () -> ProgrammerQueries.findTheProgrammersByNameAndLambdaParallel(name, programmers), LambdaTest::count);
+		measure("PROGRAMMERS BY NAME (PRESIZED PARALLEL FILTER)", () -> ProgrammerQueries.findTheProgrammersByNamePresizedParallel(name, programmers), LambdaTest::count);
+		LastNameIndex index = measure("LAST NAME INDEX", () -> LastNameIndex.of(programmers), i -> i.estimatedBytes() / (1024 * 1024) + " MB");
+		measure("PROGRAMMERS BY NAME (LAST NAME INDEX)", () -> index.contains(name), LambdaTest::count);
+		PackedNames lastNames = measure("PACKED LAST NAMES", () -> PackedNames.lastNames(programmers), n -> n.estimatedBytes() / (1024 * 1024) + " MB");
+		measure("PROGRAMMERS BY NAME (PACKED NAMES PARALLEL)", () -> lastNames.findContainingParallel(name), rows -> rows.length + " programmers.");
+		SortedIndex birthDays = measure("BIRTH DAY INDEX", () -> SortedIndex.byBirthDay(programmers), i -> i.size() + " rows");
+		measure("YOUNGEST PROGRAMMER (BIRTH DAY INDEX)", () -> programmers.get(birthDays.maxRow()), LambdaTest::name);
+		measure("BORN 1990-1995 (BIRTH DAY INDEX)", () -> birthDays.count(LocalDate.of(1990, 1, 1).toEpochDay(), LocalDate.of(1996, 1, 1).toEpochDay()),
+				c -> c + " programmers.");
+		QueryCache cache = new QueryCache(64L * 1024 * 1024, () -> 0);
+		measure("PROGRAMMERS BY NAME (QUERY CACHE MISS)",
+				() -> cache.get("lastName", name, () -> ProgrammerQueries.findTheProgrammersByNameAndLambdaParallel(name, programmers)), LambdaTest::count);
+		measure("PROGRAMMERS BY NAME (QUERY CACHE HIT)",
+				() -> cache.get("lastName", name, () -> ProgrammerQueries.findTheProgrammersByNameAndLambdaParallel(name, programmers)), LambdaTest::count);
+
+		//same queries fused into one pass
+		FusedQuery fused = new FusedQuery();
+		FusedQuery.Handle<Programmer> youngest = fused.maxBy(Comparator.comparing(Programmer::getBirthDate));
+		FusedQuery.Handle<Programmer> highestSalary = fused.add(ParallelCollectors.maxByLong(Salaries.IN_CENTS));
+		FusedQuery.Handle<List<Programmer>> byName = fused.filter(programmer -> programmer.getLastName().contains(name));
+		FusedQuery.Handle<Map<String, Long>> byLanguage = fused.countBy(Programmer::getPrimaryLanguage);
+		measure("ALL QUERIES (FUSED PARALLEL PASS)", () -> fused.runParallel(programmers),
+				results -> "YOUNGEST " + name(results.get(youngest)) + ", HIGHEST SALARY " + name(results.get(highestSalary))
+						+ ", " + count(results.get(byName)) + " BY NAME, " + results.get(byLanguage).size() + " LANGUAGES");
+
+		measure("LANGUAGE STATISTICS (ENUM ARRAY PARALLEL)", () -> LanguageStatistics.ofParallel(programmers),
+				statistics -> statistics.getSummaries().size() + " languages, " + statistics.get(ProgrammingLanguages.JAVA));
+
+		//same queries under every execution strategy
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		for(String executorName : new String[] {"loop", "stream", "parallelStream", "forkJoin", "chunked"}) {
+			try(QueryExecutor executor = QueryExecutor.named(executorName, parallelism)) {
+				String strategy = " (" + executor.getName().toUpperCase() + " EXECUTOR)";
+				measure("YOUNGEST PROGRAMMER" + strategy, () -> ProgrammerQueries.YOUNGEST.execute(executor, programmers), LambdaTest::name);
+				measure("HIGHEST SALARY" + strategy, () -> ProgrammerQueries.HIGHEST_SALARY.execute(executor, programmers), LambdaTest::name);
+				measure("PROGRAMMERS BY NAME" + strategy, () -> ProgrammerQueries.lastNameContains(name).execute(executor, programmers), LambdaTest::count);
 			}
 		}
-		
-		System.out.println("RESULT: " + youngestProgrammer.getLastName() + " " + youngestProgrammer.getFirstName());
-		
-		LocalDateTime end = LocalDateTime.now();
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return youngestProgrammer;
-	}
-	
-	/**
-	 * It finds the youngest programmer with foreach loop.
-	 * 
-	 * @param programmers
-	 * @return
-	 */
-	private static Programmer findTheYoungestProgrammerForeachLoop(List<Programmer> programmers) {
-		System.out.println("YOUNGEST PROGRAMMER (FOREACH LOOP)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Programmer youngestProgrammer = programmers.get(0);
-		
-		for(Programmer newProgrammer : programmers.subList(1, programmers.size())) {
-			if(newProgrammer.getBirthDate().isAfter(youngestProgrammer.getBirthDate())) {
-				youngestProgrammer = newProgrammer;
-			}
+
+		ProgrammerLog log = measure("CONCURRENT INGEST (PROGRAMMER LOG)", () -> {
+			ProgrammerLog ingested = new ProgrammerLog();
+			programmers.parallelStream().forEach(ingested::add);
+			return ingested;
+		}, l -> l.size() + " programmers in " + l.getStripes() + " stripes.");
+		measure("YOUNGEST PROGRAMMER (PROGRAMMER LOG SNAPSHOT)",
+				() -> ProgrammerQueries.findTheYoungestProgrammerPrimitiveParallel(log.snapshot()), LambdaTest::name);
+
+		DerivedColumns derived = measure("DERIVED AGE AND EXPERIENCE COLUMNS", () -> DerivedColumns.of(programmers),
+				d -> d.size() + " rows as of " + d.current().getAsOf());
+		measure("MORE THAN 10 YEARS OF JAVA (PERIOD PARALLEL STREAM)", () -> programmers.parallelStream()
+				.filter(p -> p.getLanguage() == ProgrammingLanguages.JAVA && Period.between(p.getProgrammingStartDate(), LocalDate.now()).getYears() > 10)
+				.count(), c -> c + " programmers.");
+		measure("MORE THAN 10 YEARS OF JAVA (DERIVED COLUMNS PARALLEL)", () -> derived.findExperienced(ProgrammingLanguages.JAVA, 10),
+				rows -> rows.length + " programmers.");
+
+		//same queries routed by calibrated cost models
+		try(AdaptiveQueryExecutor adaptive = new AdaptiveQueryExecutor(parallelism)) {
+			measure("CALIBRATING ADAPTIVE EXECUTOR", () -> {
+				adaptive.calibrate(programmers);
+				return adaptive;
+			}, a -> a.getName());
+			measure("YOUNGEST PROGRAMMER (ADAPTIVE EXECUTOR)", () -> adaptive.findTheYoungestProgrammer(programmers), LambdaTest::name);
+			measure("PROGRAMMERS BY NAME (ADAPTIVE EXECUTOR)", () -> adaptive.findTheProgrammersByName(programmers, name), LambdaTest::count);
+			adaptive.useIndexes(programmers, () -> 0, index, birthDays);
+			measure("YOUNGEST PROGRAMMER (ADAPTIVE EXECUTOR WITH INDEXES)", () -> adaptive.findTheYoungestProgrammer(programmers), LambdaTest::name);
+			measure("PROGRAMMERS BY NAME (ADAPTIVE EXECUTOR WITH INDEXES)", () -> adaptive.findTheProgrammersByName(programmers, name), LambdaTest::count);
+			adaptive.getDecisions().forEach(decision -> System.out.println("\tROUTED " + decision));
 		}
-		
-		System.out.println("RESULT: " + youngestProgrammer.getLastName() + " " + youngestProgrammer.getFirstName());
-		
-		LocalDateTime end = LocalDateTime.now();
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return youngestProgrammer;
+
+		//same queries over the columnar table
+		ProgrammerTable table = measure("COLUMNAR TABLE", () -> ProgrammerTable.of(programmers),
+				t -> t.estimatedBytes() / (1024 * 1024) + " MB in columns.");
+		measure("YOUNGEST PROGRAMMER (COLUMNAR PARALLEL STREAM)", table::findTheYoungestProgrammerLambdaParallel,
+				row -> table.getLastName(row) + " " + table.getFirstName(row));
+		measure("HIGHEST SALARY (COLUMNAR PARALLEL STREAM)", table::findTheProgrammerWithHighestSalaryLambdaParallel,
+				row -> table.getLastName(row) + " " + table.getFirstName(row));
+
+		//same queries over the records off the heap
+		ProgrammerRecords offHeap = measure("OFF-HEAP RECORDS", () -> OffHeapProgrammers.of(programmers),
+				r -> r.size() * r.getLayout().getRecordSize() / (1024 * 1024) + " MB off the heap.");
+		measure("YOUNGEST PROGRAMMER (OFF-HEAP PARALLEL STREAM)", offHeap::findTheYoungestProgrammerLambdaParallel,
+				row -> name(offHeap.view(row)));
+		measure("PROGRAMMERS BY NAME (OFF-HEAP PARALLEL STREAM)", () -> offHeap.findTheProgrammersByNameParallel(name),
+				rows -> rows.length + " programmers.");
+		measure("HIGHEST SALARY (OFF-HEAP PARALLEL STREAM)", offHeap::findTheProgrammerWithHighestSalaryLambdaParallel,
+				row -> name(offHeap.view(row)));
+		offHeap.close();
+
+		writeMetrics();
 	}
-	
+
 	/**
-	 * It finds the youngest programmer with comparator method for sorting.
-	 * 
-	 * @param programmers
-	 * @return
+	 * Runs a query, records it in the metrics and prints its result and costs.
+	 *
+	 * @param title
+	 * @param query
+	 * @param result describes the result of the query
+	 * @return the result of the query
 	 */
-	private static Programmer findTheYoungestProgrammerSorting(List<Programmer> programmers) {
-		System.out.println("YOUNGEST PROGRAMMER (SORTING WITH COMPARATOR)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Collections.sort(programmers, new Comparator<Programmer>() {
-			@Override
-			public int compare(Programmer p1, Programmer p2) {
-				return p1.getBirthDate().compareTo(p2.getBirthDate());
-			}
-		});
-		
-		Programmer youngestProgrammer = programmers.get(programmers.size() - 1);
-		
-		System.out.println("RESULT: " + youngestProgrammer.getLastName() + " " + youngestProgrammer.getFirstName());
-		
-		LocalDateTime end = LocalDateTime.now();
-		
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return youngestProgrammer;
+	private static <T> T measure(String title, Supplier<T> query, Function<T, String> result) {
+		System.out.println(title);
+
+		T value = METRICS.record(title, query);
+
+		System.out.println("RESULT: " + result.apply(value));
+		System.out.println(METRICS.last());
+
+		return value;
 	}
-	
-	/**
-	 * It finds the jungest programmer using sequential stream.
-	 * 
-	 * @param programmers
-	 * @return
-	 */
-	private static Programmer findTheYoungestProgrammerLambdaSequential(List<Programmer> programmers) {
-		
-		System.out.println("YOUNGEST PROGRAMMER (LAMBDA SEQUENTIAL STREAM)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Programmer youngestProgrammer = programmers.stream().max(Comparator.comparing(Programmer::getBirthDate)).get();
-		
-		System.out.println("RESULT: " + youngestProgrammer.getLastName() + " " + youngestProgrammer.getFirstName());
-		
-		LocalDateTime end = LocalDateTime.now();
-		
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return youngestProgrammer;
+
+	private static String name(Programmer programmer) {
+		return programmer.getLastName() + " " + programmer.getFirstName();
 	}
-	
-	/**
-	 * It finds the youngest programmer using parallel streams.
-	 * 
-	 * @param programmers
-	 * @return
-	 */
-	private static Programmer findTheYoungestProgrammerLambdaParallel(List<Programmer> programmers) {
-		
-		System.out.println("YOUNGEST PROGRAMMER (LAMBDA PARALLEL STREAM)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Programmer youngestProgrammer = programmers.parallelStream().max(Comparator.comparing(Programmer::getBirthDate)).get();
-		
-		System.out.println("RESULT: " + youngestProgrammer.getLastName() + " " + youngestProgrammer.getFirstName());
-		
-		LocalDateTime end = LocalDateTime.now();
-		
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return youngestProgrammer;
+
+	private static String count(List<Programmer> programmers) {
+		return programmers.size() + " programmers.";
 	}
-	
+
 	/**
-	 * It finds the programmer with the highest salary by iterator.
-	 * 
-	 * @param programmers
-	 * @return
+	 * Writes the recorded metrics if the metrics system property is set.
+	 *
+	 * @throws IOException
 	 */
-	private static Programmer findTheProgrammerWithHighestSalaryByIterator(List<Programmer> programmers) {
-		System.out.println("HIGHEST SALARY (ITERATOR)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Iterator<Programmer> iter = programmers.iterator();
-		Programmer programmerWithHighestSalary = programmers.get(0);
-		iter.next();
-		
-		while(iter.hasNext()) {
-			Programmer newProgrammer = iter.next();
-			if(newProgrammer.getSalary().compareTo(programmerWithHighestSalary.getSalary()) == 1) {
-				programmerWithHighestSalary = newProgrammer;
-			}
+	private static void writeMetrics() throws IOException {
+		String prefix = System.getProperty("metrics");
+		if(prefix != null) {
+			METRICS.writeCsv(Paths.get(prefix + ".csv"));
+			METRICS.writeJson(Paths.get(prefix + ".json"));
 		}
-		
-		System.out.println("RESULT: " + programmerWithHighestSalary.getLastName() + " " + programmerWithHighestSalary.getFirstName());
-		
-		LocalDateTime end = LocalDateTime.now();
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return programmerWithHighestSalary;
 	}
-	
+
 	/**
-	 * It finds the programmer with the highest salary by for loop.
-	 * 
-	 * @param programmers
-	 * @return
+	 * Maps the given snapshot and runs the youngest, highest salary and last name queries over
+	 * the records in place.
+	 *
+	 * @param snapshot
 	 */
-	private static Programmer findTheProgrammerWithHighestSalaryForLoop(List<Programmer> programmers) {
-		System.out.println("HIGHEST SALARY (FOREACH LOOP)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Programmer programmerWithHighestSalary = programmers.get(0);
-		
-		for(Programmer newProgrammer : programmers.subList(1, programmers.size())) {
-			if(newProgrammer.getSalary().compareTo(programmerWithHighestSalary.getSalary()) == 1) {
-				programmerWithHighestSalary = newProgrammer;
+	private static void runSnapshotQueries(Path snapshot) {
+		try(ProgrammerRecords records = measure("MAPPING SNAPSHOT " + snapshot, () -> map(snapshot), r -> r.size() + " programmers.")) {
+			if(records.size() > 0) {
+				runRecordQueries(records);
 			}
 		}
-		
-		System.out.println("RESULT: " + programmerWithHighestSalary.getLastName() + " " + programmerWithHighestSalary.getFirstName());
-		
-		LocalDateTime end = LocalDateTime.now();
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return programmerWithHighestSalary;
-	}
-	
-	/**
-	 * It fonds the programmer with the highest salary by using comparator and sorting.
-	 * 
-	 * @param programmers
-	 * @return
-	 */
-	private static Programmer findTheProgrammerWithHighestSalarySorting(List<Programmer> programmers) {
-		System.out.println("HIGHEST SALARY (SORTING WITH COMPARATOR)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Collections.sort(programmers, new Comparator<Programmer>() {
-			@Override
-			public int compare(Programmer p1, Programmer p2) {
-				return p1.getSalary().compareTo(p2.getSalary());
-			}
-		});
-		
-		Programmer programmerWithHighestSalary = programmers.get(programmers.size() - 1);
-		
-		System.out.println("RESULT: " + programmerWithHighestSalary.getLastName() + " " + programmerWithHighestSalary.getFirstName());
-		
-		LocalDateTime end = LocalDateTime.now();
-		
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return programmerWithHighestSalary;
-	}
-	
-	/**
-	 * It finds the programmer with the highest salary by sequential lambda.
-	 * 
-	 * @param programmers
-	 * @return
-	 */
-	private static Programmer findTheProgrammerWithHighestSalaryLambdaSerial(List<Programmer> programmers) {
-		
-		System.out.println("HIGHEST SALARY (LAMBDA SEQUENTIAL STREAM)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Programmer programmerWithHighestSalary = programmers.stream().max(Comparator.comparing(Programmer::getSalary)).get();
-		
-		LocalDateTime end = LocalDateTime.now();
-		
-		System.out.println("RESULT: " + programmerWithHighestSalary.getLastName() + " " + programmerWithHighestSalary.getFirstName());
-		
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return programmerWithHighestSalary;
 	}
-	
-	/**
-	 * It finds the programmer with the highest salarz by parallel streams.
-	 * 
-	 * @param programmers
-	 * @return
-	 */
-	private static Programmer findTheProgrammerWithHighestSalaryLambdaParallel(List<Programmer> programmers) {
-		
-		System.out.println("HIGHEST SALARY (LAMBDA PARALLEL STREAM)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		Programmer programmerWithHighestSalary = programmers.parallelStream().max(Comparator.comparing(Programmer::getSalary)).get();
-		
-		LocalDateTime end = LocalDateTime.now();
-		
-		System.out.println("RESULT: " + programmerWithHighestSalary.getLastName() + " " + programmerWithHighestSalary.getFirstName());
-		
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		return programmerWithHighestSalary;
+
+	private static void runRecordQueries(ProgrammerRecords records) {
+		measure("YOUNGEST PROGRAMMER (SNAPSHOT PARALLEL STREAM)", records::findTheYoungestProgrammerLambdaParallel,
+				row -> name(records.getProgrammer(row)));
+		long highestSalary = measure("HIGHEST SALARY (SNAPSHOT PARALLEL STREAM)", records::findTheProgrammerWithHighestSalaryLambdaParallel,
+				row -> name(records.getProgrammer(row)));
+		String name = records.getLastName(highestSalary).substring(0, 2);
+		measure("PROGRAMMERS BY NAME (SNAPSHOT PARALLEL STREAM)", () -> records.findTheProgrammersByNameParallel(name),
+				rows -> rows.length + " programmers.");
+		measure("ALL QUERIES (SNAPSHOT SINGLE PASS)", () -> ProgrammerScan.scan(records.stream().parallel(), name, programmer -> {}),
+				LambdaTest::describe);
 	}
-	
+
 	/**
-	 * It finds the programmer by name with iterator.
-	 * 
+	 * Generates the given number of programmers lazily and runs the youngest, highest salary and
+	 * last name queries over them in a single parallel pass.
+	 *
+	 * @param rows
 	 * @param name
-	 * @param programmers
-	 * @return
+	 * @throws IOException
 	 */
-	private static List<Programmer> findTheProgrammersByNameAndIterator(String name, List<Programmer> programmers) {
-		System.out.println("PROGRAMMERS BY NAME (ITERATOR)");
-		List<Programmer> filteredProgrammers = new ArrayList<>();
-		LocalDateTime start = LocalDateTime.now();
-		
-		Iterator<Programmer> iter = programmers.iterator();
-
-		while(iter.hasNext()) {
-			Programmer newProgrammer = iter.next();
-			if(newProgrammer.getLastName().contains(name)) {
-				filteredProgrammers.add(newProgrammer);
-			}
+	private static void runStreamingQueries(long rows, String name) throws IOException {
+		System.out.println("NUMBER OF OBJECTS: " + rows + " (STREAMED)");
+
+		String matches = System.getProperty("matches");
+		try(PrintWriter out = matches == null ? null : new PrintWriter(Files.newBufferedWriter(Paths.get(matches)))) {
+			Consumer<Programmer> sink = out == null ? programmer -> {} : programmer -> {
+				synchronized(out) {
+					out.println(name(programmer));
+				}
+			};
+			measure("ALL QUERIES (STREAMED SINGLE PASS)",
+					() -> ProgrammerScan.scan(new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).stream(rows).parallel(), name, sink),
+					LambdaTest::describe);
 		}
-		
-		LocalDateTime end = LocalDateTime.now();
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		System.out.println("RESULT: " + filteredProgrammers.size() + " programmers.");
-		
-		return filteredProgrammers;
 	}
-	
-	/**
-	 * It finds the programmer by name with for loop.
-	 * 
-	 * @param name
-	 * @param programmers
-	 * @return
-	 */
-	private static  List<Programmer> findTheProgrammersByNameAndForLoop(String name, List<Programmer> programmers) {
-		System.out.println("PROGRAMMERS BY NAME (FOREACH LOOP)");
-		
-		List<Programmer> filteredProgrammers = new ArrayList<>();
-		
-		LocalDateTime start = LocalDateTime.now();
-		
-		for(Programmer newProgrammer : programmers) {
-			if(newProgrammer.getLastName().contains(name)) {
-				filteredProgrammers.add(newProgrammer);
-			}
+
+	private static String describe(ProgrammerScan scan) {
+		if(scan.getCount() == 0) {
+			return "no programmers.";
 		}
-		
-		LocalDateTime end = LocalDateTime.now();
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		System.out.println("RESULT: " + filteredProgrammers.size() + " programmers.");
-		
-		return filteredProgrammers;
-	}
-	
-	/**
-	 * It finds the programmer by name and sequential stream.
-	 * 
-	 * @param name
-	 * @param programmers
-	 * @return
-	 */
-	private static List<Programmer> findTheProgrammersByNameAndLambdaSerial(final String name, List<Programmer> programmers) {		
-		System.out.println("PROGRAMMERS BY NAME (LAMBDA SEQUENTIAL STREAM)");
-		
-		LocalDateTime start = LocalDateTime.now();
-		
-		List<Programmer> filteredProgrammers = programmers.stream().filter(p -> p.getLastName().contains(name)).collect(Collectors.toList());
-		
-		LocalDateTime end = LocalDateTime.now();
-
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		System.out.println("RESULT: " + filteredProgrammers.size() + " programmers.");
-		
-		return filteredProgrammers;
+		return "YOUNGEST " + name(scan.getYoungest()) + ", HIGHEST SALARY " + name(scan.getHighestSalary())
+				+ ", " + scan.getMatches() + " of " + scan.getCount() + " programmers by name.";
 	}
-	
-	/**
-	 * It finds the programmer by name and parallel stream.
-	 * 
-	 * @param name
-	 * @param programmers
-	 * @return
-	 */
-	private static List<Programmer> findTheProgrammersByNameAndLambdaParallel(final String name, List<Programmer> programmers) {
-		
-		System.out.println("PROGRAMMERS BY NAME (LAMBDA PARALLEL STREAM)");
-		LocalDateTime start = LocalDateTime.now();
-		
-		List<Programmer> filteredProgrammers = programmers.parallelStream().filter(p -> p.getLastName().contains(name)).collect(Collectors.toList());
-		
-		LocalDateTime end = LocalDateTime.now();
-		
-		long milliseconds = start.until(end, ChronoUnit.MILLIS);
-		System.out.println("TIME: " + milliseconds + " ms");
-		
-		System.out.println("RESULT: " + filteredProgrammers.size() + " programmers.");
-		
-		return filteredProgrammers;
+
+	private static ProgrammerRecords map(Path snapshot) {
+		try {
+			return ProgrammerSnapshot.map(snapshot);
+		} catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 }
@@ -0,0 +1,257 @@
+package domain;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Salary, experience and age analytics per {@link ProgrammingLanguages}. The group-by keeps one
+ * slot per language in plain arrays indexed by the ordinal, so a parallel pass accumulates into
+ * a few arrays per task and merges them slot by slot instead of hashing the language names into
+ * maps. Programmers whose language is not one of the enum constants are skipped.
+ *
+ * @author Aleksander
+ */
+public final class LanguageStatistics {
+
+	private static final double DAYS_PER_YEAR = 365.2425;
+
+	private final Summary[] summaries;
+
+	private LanguageStatistics(Summary[] summaries) {
+		this.summaries = summaries;
+	}
+
+	/**
+	 * Computes the statistics with a sequential pass, measuring the experience up to today.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static LanguageStatistics of(List<Programmer> programmers) {
+		return of(programmers, LocalDate.now());
+	}
+
+	/**
+	 * Computes the statistics with a sequential pass.
+	 *
+	 * @param programmers
+	 * @param asOf the day up to which the experience is measured
+	 * @return
+	 */
+	public static LanguageStatistics of(List<Programmer> programmers, LocalDate asOf) {
+		Accumulator accumulator = new Accumulator(asOf.toEpochDay());
+		for(Programmer programmer : programmers) {
+			accumulator.add(programmer);
+		}
+		return accumulator.finish(false);
+	}
+
+	/**
+	 * Computes the statistics with a parallel pass, measuring the experience up to today.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static LanguageStatistics ofParallel(List<Programmer> programmers) {
+		return ofParallel(programmers, LocalDate.now());
+	}
+
+	/**
+	 * Computes the statistics with a parallel pass; the medians are selected in parallel too.
+	 *
+	 * @param programmers
+	 * @param asOf the day up to which the experience is measured
+	 * @return
+	 */
+	public static LanguageStatistics ofParallel(List<Programmer> programmers, LocalDate asOf) {
+		long asOfDay = asOf.toEpochDay();
+		return ParallelCollectors.parallelStream(programmers)
+				.collect(() -> new Accumulator(asOfDay), Accumulator::add, Accumulator::merge)
+				.finish(true);
+	}
+
+	/**
+	 * The statistics of the given language.
+	 *
+	 * @param language
+	 * @return the summary, with a count of 0 if there is no such programmer
+	 */
+	public Summary get(ProgrammingLanguages language) {
+		return summaries[language.ordinal()];
+	}
+
+	/**
+	 * The statistics of the languages with at least one programmer, in enum order.
+	 *
+	 * @return
+	 */
+	public List<Summary> getSummaries() {
+		List<Summary> present = new ArrayList<>();
+		for(Summary summary : summaries) {
+			if(summary.getCount() > 0) {
+				present.add(summary);
+			}
+		}
+		return Collections.unmodifiableList(present);
+	}
+
+	/**
+	 * The statistics of one language.
+	 */
+	public static final class Summary {
+
+		private final ProgrammingLanguages language;
+		private final long count;
+		private final double averageSalaryInCents;
+		private final double medianSalaryInCents;
+		private final double averageExperienceYears;
+		private final Programmer youngest;
+
+		Summary(ProgrammingLanguages language, long count, double averageSalaryInCents, double medianSalaryInCents,
+				double averageExperienceYears, Programmer youngest) {
+			this.language = language;
+			this.count = count;
+			this.averageSalaryInCents = averageSalaryInCents;
+			this.medianSalaryInCents = medianSalaryInCents;
+			this.averageExperienceYears = averageExperienceYears;
+			this.youngest = youngest;
+		}
+
+		public ProgrammingLanguages getLanguage() {
+			return language;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the average salary, or NaN if there are no programmers
+		 */
+		public double getAverageSalaryInCents() {
+			return averageSalaryInCents;
+		}
+
+		/**
+		 * @return the median salary, the mean of the two middle ones for an even count, or NaN
+		 * if there are no programmers
+		 */
+		public double getMedianSalaryInCents() {
+			return medianSalaryInCents;
+		}
+
+		/**
+		 * @return the average years since the programming start date, or NaN if there are no
+		 * programmers
+		 */
+		public double getAverageExperienceYears() {
+			return averageExperienceYears;
+		}
+
+		/**
+		 * @return the youngest programmer, the first one on ties, or null if there are none
+		 */
+		public Programmer getYoungest() {
+			return youngest;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d programmers, average salary %.2f, median salary %.2f, average experience %.1f years",
+					language, count, averageSalaryInCents / 100, medianSalaryInCents / 100, averageExperienceYears);
+		}
+	}
+
+	/**
+	 * Mutable per-task state with one slot per language. Salaries are kept per language to
+	 * select the exact median at the end.
+	 */
+	private static final class Accumulator {
+
+		private final long asOfDay;
+		private final long[] counts = new long[ProgrammingLanguages.COUNT];
+		private final long[] salarySums = new long[ProgrammingLanguages.COUNT];
+		private final long[] experienceDays = new long[ProgrammingLanguages.COUNT];
+		private final long[] youngestDays = new long[ProgrammingLanguages.COUNT];
+		private final Programmer[] youngest = new Programmer[ProgrammingLanguages.COUNT];
+		private final long[][] salaries = new long[ProgrammingLanguages.COUNT][];
+
+		Accumulator(long asOfDay) {
+			this.asOfDay = asOfDay;
+			for(int i = 0; i < salaries.length; i++) {
+				salaries[i] = new long[16];
+			}
+		}
+
+		void add(Programmer programmer) {
+			ProgrammingLanguages language = programmer.getLanguage();
+			if(language == null) {
+				return;
+			}
+			int slot = language.ordinal();
+			int count = (int) counts[slot]++;
+			long salary = programmer.getSalaryInCents();
+			salarySums[slot] += salary;
+			experienceDays[slot] += asOfDay - programmer.getProgrammingStartDate().toEpochDay();
+			long birthDay = programmer.getBirthDate().toEpochDay();
+			if(youngest[slot] == null || birthDay > youngestDays[slot]) {
+				youngest[slot] = programmer;
+				youngestDays[slot] = birthDay;
+			}
+			if(count == salaries[slot].length) {
+				salaries[slot] = Arrays.copyOf(salaries[slot], 2 * count);
+			}
+			salaries[slot][count] = salary;
+		}
+
+		void merge(Accumulator other) {
+			for(int slot = 0; slot < counts.length; slot++) {
+				int count = (int) counts[slot];
+				int otherCount = (int) other.counts[slot];
+				if(otherCount == 0) {
+					continue;
+				}
+				counts[slot] += otherCount;
+				salarySums[slot] += other.salarySums[slot];
+				experienceDays[slot] += other.experienceDays[slot];
+				if(youngest[slot] == null || other.youngestDays[slot] > youngestDays[slot]) {
+					youngest[slot] = other.youngest[slot];
+					youngestDays[slot] = other.youngestDays[slot];
+				}
+				if(count + otherCount > salaries[slot].length) {
+					salaries[slot] = Arrays.copyOf(salaries[slot], Math.max(2 * salaries[slot].length, count + otherCount));
+				}
+				System.arraycopy(other.salaries[slot], 0, salaries[slot], count, otherCount);
+			}
+		}
+
+		LanguageStatistics finish(boolean parallel) {
+			Summary[] summaries = new Summary[counts.length];
+			IntStream slots = IntStream.range(0, counts.length);
+			(parallel ? slots.parallel() : slots).forEach(slot -> summaries[slot] = summary(slot, parallel));
+			return new LanguageStatistics(summaries);
+		}
+
+		private Summary summary(int slot, boolean parallel) {
+			ProgrammingLanguages language = ProgrammingLanguages.of(slot);
+			int count = (int) counts[slot];
+			if(count == 0) {
+				return new Summary(language, 0, Double.NaN, Double.NaN, Double.NaN, null);
+			}
+			long[] sorted = salaries[slot];
+			if(parallel) {
+				Arrays.parallelSort(sorted, 0, count);
+			} else {
+				Arrays.sort(sorted, 0, count);
+			}
+			double median = count % 2 == 1 ? sorted[count / 2] : (sorted[count / 2 - 1] + sorted[count / 2]) / 2.0;
+			return new Summary(language, count, (double) salarySums[slot] / count, median,
+					experienceDays[slot] / (double) count / DAYS_PER_YEAR, youngest[slot]);
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+package domain;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares the enum indexed {@link LanguageStatistics} with grouping the programmers by the
+ * language name with {@code groupingBy} and {@code groupingByConcurrent} and summarizing every
+ * group list afterwards.
+ *
+ * @author Aleksander
+ */
+public class LanguageStatisticsBenchmark extends AbstractBenchmark {
+
+	private static final LocalDate AS_OF = LocalDate.of(2016, 10, 15);
+	private static final double DAYS_PER_YEAR = 365.2425;
+
+	@Param({"1000000", "10000000"})
+	private int size;
+
+	private List<Programmer> programmers;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+	}
+
+	@Benchmark
+	public LanguageStatistics enumArray() {
+		return LanguageStatistics.of(programmers, AS_OF);
+	}
+
+	@Benchmark
+	public LanguageStatistics enumArrayParallel() {
+		return LanguageStatistics.ofParallel(programmers, AS_OF);
+	}
+
+	@Benchmark
+	public Map<String, LanguageStatistics.Summary> groupingBy() {
+		return programmers.stream().collect(Collectors.groupingBy(Programmer::getPrimaryLanguage,
+				Collectors.collectingAndThen(Collectors.toList(), LanguageStatisticsBenchmark::summarize)));
+	}
+
+	@Benchmark
+	public Map<String, LanguageStatistics.Summary> groupingByParallel() {
+		return programmers.parallelStream().collect(Collectors.groupingBy(Programmer::getPrimaryLanguage,
+				Collectors.collectingAndThen(Collectors.toList(), LanguageStatisticsBenchmark::summarize)));
+	}
+
+	@Benchmark
+	public Map<String, LanguageStatistics.Summary> groupingByConcurrent() {
+		return programmers.parallelStream().collect(Collectors.groupingByConcurrent(Programmer::getPrimaryLanguage,
+				Collectors.collectingAndThen(Collectors.toList(), LanguageStatisticsBenchmark::summarize)));
+	}
+
+	/**
+	 * Summarizes one group the way it is usually done after a {@code groupingBy}.
+	 */
+	private static LanguageStatistics.Summary summarize(List<Programmer> group) {
+		long[] salaries = group.stream().mapToLong(Programmer::getSalaryInCents).toArray();
+		Arrays.sort(salaries);
+		int count = salaries.length;
+		double median = count % 2 == 1 ? salaries[count / 2] : (salaries[count / 2 - 1] + salaries[count / 2]) / 2.0;
+		double experience = group.stream()
+				.mapToLong(p -> AS_OF.toEpochDay() - p.getProgrammingStartDate().toEpochDay())
+				.average().getAsDouble() / DAYS_PER_YEAR;
+		Programmer youngest = group.stream().max(Comparator.comparing(Programmer::getBirthDate)).get();
+		return new LanguageStatistics.Summary(group.get(0).getLanguage(), count, Arrays.stream(salaries).average().getAsDouble(),
+				median, experience, youngest);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(LanguageStatisticsBenchmark.class, args);
+	}
+
+}
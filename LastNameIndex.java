@@ -0,0 +1,254 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Inverted n-gram index over the last names of a list of programmers. Every bigram and trigram
+ * of the letters A-Z points to a compressed, ascending list of the rows whose last name contains
+ * it. A substring query intersects the lists of its n-grams and verifies the remaining
+ * candidates with {@link String#contains(CharSequence)}.
+ *
+ * The index is a snapshot: it has to be rebuilt when the list or a last name changes.
+ *
+ * @author Aleksander
+ */
+public class LastNameIndex {
+
+	private static final int ALPHABET = 26;
+
+	private final List<Programmer> programmers;
+	private final PostingList[] bigrams;
+	private final PostingList[] trigrams;
+
+	private LastNameIndex(List<Programmer> programmers, PostingList[] bigrams, PostingList[] trigrams) {
+		this.programmers = programmers;
+		this.bigrams = bigrams;
+		this.trigrams = trigrams;
+	}
+
+	/**
+	 * Builds the index over the last names of the given programmers.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static LastNameIndex of(List<Programmer> programmers) {
+		PostingList[] bigrams = new PostingList[ALPHABET * ALPHABET];
+		PostingList[] trigrams = new PostingList[ALPHABET * ALPHABET * ALPHABET];
+		for(int i = 0; i < bigrams.length; i++) {
+			bigrams[i] = new PostingList();
+		}
+		for(int i = 0; i < trigrams.length; i++) {
+			trigrams[i] = new PostingList();
+		}
+
+		int row = 0;
+		for(Programmer programmer : programmers) {
+			String lastName = programmer.getLastName();
+			for(int i = 0; i + 1 < lastName.length(); i++) {
+				int bigram = bigram(lastName, i);
+				if(bigram < 0) {
+					continue;
+				}
+				bigrams[bigram].add(row);
+				if(i + 2 < lastName.length()) {
+					int third = letter(lastName.charAt(i + 2));
+					if(third >= 0) {
+						trigrams[bigram * ALPHABET + third].add(row);
+					}
+				}
+			}
+			row++;
+		}
+		for(PostingList postings : bigrams) {
+			postings.trim();
+		}
+		for(PostingList postings : trigrams) {
+			postings.trim();
+		}
+		return new LastNameIndex(programmers, bigrams, trigrams);
+	}
+
+	/**
+	 * It finds the programmers whose last name contains the given name, in list order.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public List<Programmer> contains(String name) {
+		List<PostingList> postings = postings(name);
+		if(postings == null) {
+			return ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers);
+		}
+
+		postings.sort(Comparator.comparingInt(PostingList::size));
+		int[] candidates = postings.get(0).decode();
+		int count = candidates.length;
+		for(int i = 1; i < postings.size() && count > 0; i++) {
+			count = postings.get(i).retainAll(candidates, count);
+		}
+
+		boolean exact = name.length() <= 3;
+		List<Programmer> filteredProgrammers = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			Programmer programmer = programmers.get(candidates[i]);
+			if(exact || programmer.getLastName().contains(name)) {
+				filteredProgrammers.add(programmer);
+			}
+		}
+		return filteredProgrammers;
+	}
+
+	/**
+	 * Collects the posting lists needed for the given name.
+	 *
+	 * @param name
+	 * @return the lists, or null if the name cannot be answered from the index
+	 */
+	private List<PostingList> postings(String name) {
+		List<PostingList> postings = new ArrayList<>();
+		if(name.length() == 2) {
+			int bigram = bigram(name, 0);
+			if(bigram < 0) {
+				return null;
+			}
+			postings.add(bigrams[bigram]);
+			return postings;
+		}
+		if(name.length() < 2) {
+			return null;
+		}
+		for(int i = 0; i + 2 < name.length(); i++) {
+			int bigram = bigram(name, i);
+			int third = letter(name.charAt(i + 2));
+			if(bigram < 0 || third < 0) {
+				return null;
+			}
+			PostingList trigram = trigrams[bigram * ALPHABET + third];
+			if(!postings.contains(trigram)) {
+				postings.add(trigram);
+			}
+		}
+		return postings;
+	}
+
+	private static int bigram(String text, int index) {
+		int first = letter(text.charAt(index));
+		int second = letter(text.charAt(index + 1));
+		return first < 0 || second < 0 ? -1 : first * ALPHABET + second;
+	}
+
+	private static int letter(char c) {
+		return c >= 'A' && c <= 'Z' ? c - 'A' : -1;
+	}
+
+	/**
+	 * Size of the compressed posting lists in bytes.
+	 *
+	 * @return
+	 */
+	public long estimatedBytes() {
+		long bytes = 0;
+		for(PostingList postings : bigrams) {
+			bytes += postings.data.length;
+		}
+		for(PostingList postings : trigrams) {
+			bytes += postings.data.length;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Ascending row ids stored as variable length encoded gaps.
+	 */
+	private static final class PostingList {
+
+		private byte[] data = new byte[4];
+		private int length;
+		private int size;
+		private int last = -1;
+
+		void add(int row) {
+			if(row == last) {
+				return;
+			}
+			if(length + 5 > data.length) {
+				data = Arrays.copyOf(data, Math.max(2 * data.length, length + 5));
+			}
+			int gap = row - last;
+			while((gap & ~0x7F) != 0) {
+				data[length++] = (byte) ((gap & 0x7F) | 0x80);
+				gap >>>= 7;
+			}
+			data[length++] = (byte) gap;
+			last = row;
+			size++;
+		}
+
+		void trim() {
+			data = Arrays.copyOf(data, length);
+		}
+
+		int size() {
+			return size;
+		}
+
+		int[] decode() {
+			int[] rows = new int[size];
+			int position = 0;
+			int row = -1;
+			for(int i = 0; i < size; i++) {
+				int gap = 0;
+				int shift = 0;
+				byte b;
+				do {
+					b = data[position++];
+					gap |= (b & 0x7F) << shift;
+					shift += 7;
+				} while(b < 0);
+				row += gap;
+				rows[i] = row;
+			}
+			return rows;
+		}
+
+		/**
+		 * Keeps the first {@code count} candidates that are also in this list.
+		 *
+		 * @param candidates ascending rows, compacted in place
+		 * @param count
+		 * @return the number of remaining candidates
+		 */
+		int retainAll(int[] candidates, int count) {
+			int retained = 0;
+			int position = 0;
+			int row = -1;
+			int decoded = 0;
+			for(int i = 0; i < count; i++) {
+				int candidate = candidates[i];
+				while(row < candidate && decoded < size) {
+					int gap = 0;
+					int shift = 0;
+					byte b;
+					do {
+						b = data[position++];
+						gap |= (b & 0x7F) << shift;
+						shift += 7;
+					} while(b < 0);
+					row += gap;
+					decoded++;
+				}
+				if(row == candidate) {
+					candidates[retained++] = candidate;
+				} else if(row < candidate) {
+					break;
+				}
+			}
+			return retained;
+		}
+	}
+
+}
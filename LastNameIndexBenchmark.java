@@ -0,0 +1,65 @@
+package domain;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares {@link LastNameIndex#contains(String)} with the four scanning variants of the last
+ * name search.
+ *
+ * @author Aleksander
+ */
+public class LastNameIndexBenchmark extends AbstractBenchmark {
+
+	@Param({"10000", "100000", "1000000", "10000000"})
+	private int size;
+
+	@Param({"2", "3", "5"})
+	private int nameLength;
+
+	private List<Programmer> programmers;
+	private LastNameIndex index;
+	private String name;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		index = LastNameIndex.of(programmers);
+		name = programmers.get(size / 2).getLastName().substring(3, 3 + nameLength);
+	}
+
+	@Benchmark
+	public List<Programmer> index() {
+		return index.contains(name);
+	}
+
+	@Benchmark
+	public List<Programmer> iterator() {
+		return ProgrammerQueries.findTheProgrammersByNameAndIterator(name, programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> forLoop() {
+		return ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> lambdaSerial() {
+		return ProgrammerQueries.findTheProgrammersByNameAndLambdaSerial(name, programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> lambdaParallel() {
+		return ProgrammerQueries.findTheProgrammersByNameAndLambdaParallel(name, programmers);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(LastNameIndexBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,120 @@
+package domain;
+
+/**
+ * Histogram of latencies in nanoseconds with a bounded relative error, in the layout of
+ * HdrHistogram. Values below 256 are counted exactly; above that every power of two is divided
+ * into 128 linear sub-buckets, so a recorded value is off by less than 1% and the histogram has
+ * a fixed size no matter how many values it holds.
+ *
+ * The class is not thread-safe.
+ *
+ * @author Aleksander
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 8;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+	private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS];
+	private long count;
+	private long min = Long.MAX_VALUE;
+	private long max;
+	private double sum;
+
+	/**
+	 * Records one latency.
+	 *
+	 * @param nanos a non-negative latency
+	 */
+	public void record(long nanos) {
+		if(nanos < 0) {
+			throw new IllegalArgumentException("Negative latency: " + nanos);
+		}
+		counts[index(nanos)]++;
+		count++;
+		min = Math.min(min, nanos);
+		max = Math.max(max, nanos);
+		sum += nanos;
+	}
+
+	/**
+	 * Adds all values of the other histogram.
+	 *
+	 * @param other
+	 */
+	public void add(LatencyHistogram other) {
+		for(int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		sum += other.sum;
+	}
+
+	/**
+	 * The counter of a value. Bucket {@code b} holds the values whose sub-bucket
+	 * {@code value >>> b} lies in the upper half of the sub-buckets, so its counters continue
+	 * where those of bucket {@code b - 1} end; bucket 0 uses all sub-buckets.
+	 *
+	 * @param value
+	 * @return
+	 */
+	static int index(long value) {
+		int bucket = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+		int subBucket = (int) (value >>> bucket);
+		return (bucket + 1) * HALF_SUB_BUCKETS + subBucket - HALF_SUB_BUCKETS;
+	}
+
+	/**
+	 * The largest value counted by the given counter, the inverse of {@link #index(long)}.
+	 *
+	 * @param index
+	 * @return
+	 */
+	static long highestValue(int index) {
+		int bucket = Math.max(0, index / HALF_SUB_BUCKETS - 1);
+		long subBucket = index - bucket * HALF_SUB_BUCKETS;
+		return (subBucket << bucket) + ((1L << bucket) - 1);
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : sum / count;
+	}
+
+	/**
+	 * The value below or at which the given percentage of the recorded values lie, rounded up to
+	 * the end of its bucket.
+	 *
+	 * @param percentile between 0 and 100
+	 * @return
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if(count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for(int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if(seen >= rank) {
+				return Math.min(max, highestValue(i));
+			}
+		}
+		return max;
+	}
+
+}
@@ -0,0 +1,65 @@
+package domain;
+
+import java.time.LocalDate;
+
+/**
+ * Canonical {@link LocalDate} instances for the days from 1900 to 2099. A dataset of millions of
+ * programmers has only some tens of thousands of distinct birth and start days, so sharing one
+ * instance per day instead of one per field saves most of the date objects. The instances are
+ * created up front, which costs about 2 MB.
+ *
+ * @author Aleksander
+ */
+public final class LocalDateCache {
+
+	private static final long FIRST_DAY = LocalDate.of(1900, 1, 1).toEpochDay();
+	private static final long END_DAY = LocalDate.of(2100, 1, 1).toEpochDay();
+	private static final LocalDate[] DAYS = new LocalDate[(int) (END_DAY - FIRST_DAY)];
+
+	static {
+		for(int i = 0; i < DAYS.length; i++) {
+			DAYS[i] = LocalDate.ofEpochDay(FIRST_DAY + i);
+		}
+	}
+
+	private LocalDateCache() {
+	}
+
+	/**
+	 * The date of the given epoch day, the shared instance if the day is cached.
+	 *
+	 * @param epochDay
+	 * @return
+	 */
+	public static LocalDate of(long epochDay) {
+		if(epochDay >= FIRST_DAY && epochDay < END_DAY) {
+			return DAYS[(int) (epochDay - FIRST_DAY)];
+		}
+		return LocalDate.ofEpochDay(epochDay);
+	}
+
+	/**
+	 * The array of all cached instances, for the size accounting of {@link ObjectSizes}. It must
+	 * not be modified.
+	 *
+	 * @return
+	 */
+	static LocalDate[] days() {
+		return DAYS;
+	}
+
+	/**
+	 * The shared instance equal to the given date, or the date itself if it is not cached.
+	 *
+	 * @param date
+	 * @return null for null
+	 */
+	public static LocalDate canonical(LocalDate date) {
+		if(date == null) {
+			return null;
+		}
+		long epochDay = date.toEpochDay();
+		return epochDay >= FIRST_DAY && epochDay < END_DAY ? DAYS[(int) (epochDay - FIRST_DAY)] : date;
+	}
+
+}
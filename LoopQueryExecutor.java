@@ -0,0 +1,36 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Runs the queries with plain loops on the calling thread.
+ *
+ * @author Aleksander
+ */
+public class LoopQueryExecutor implements QueryExecutor {
+
+	@Override
+	public <T> T maxBy(List<T> items, Comparator<? super T> order) {
+		return Aggregations.max(items, order);
+	}
+
+	@Override
+	public <T> List<T> filter(List<T> items, Predicate<? super T> predicate) {
+		List<T> filtered = new ArrayList<>();
+		for(T item : items) {
+			if(predicate.test(item)) {
+				filtered.add(item);
+			}
+		}
+		return filtered;
+	}
+
+	@Override
+	public String getName() {
+		return "loop";
+	}
+
+}
@@ -0,0 +1,249 @@
+package domain;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Object size accounting in the style of JOL (Java Object Layout), from the declared fields and
+ * the header, reference and alignment sizes of the running HotSpot VM. The shallow size of an
+ * object is its header plus its fields rounded up to the object alignment; the deep size counts
+ * every object reachable from a root once.
+ *
+ * The fields of JDK classes cannot be read without opening their modules, so their shallow size
+ * comes from the declared fields and only the contents that matter for the datasets are added:
+ * the byte array of a String, the magnitude of a BigDecimal that does not fit into a long and
+ * the elements and backing array of a collection. Enum constants and classes are shared and not
+ * counted.
+ *
+ * @author Aleksander
+ */
+public final class ObjectSizes {
+
+	private static final boolean COMPRESSED_OOPS = vmFlag("UseCompressedOops", true);
+	private static final boolean COMPRESSED_CLASS_POINTERS = vmFlag("UseCompressedClassPointers", true);
+	private static final int ALIGNMENT = Integer.parseInt(vmOption("ObjectAlignmentInBytes", "8"));
+	static final int REFERENCE_BYTES = COMPRESSED_OOPS ? 4 : 8;
+	static final int HEADER_BYTES = 8 + (COMPRESSED_CLASS_POINTERS ? 4 : 8);
+	static final int ARRAY_HEADER_BYTES = HEADER_BYTES + 4;
+
+	private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<Long>() {
+		@Override
+		protected Long computeValue(Class<?> type) {
+			long bytes = HEADER_BYTES;
+			for(Class<?> c = type; c != null; c = c.getSuperclass()) {
+				for(Field field : c.getDeclaredFields()) {
+					if(!Modifier.isStatic(field.getModifiers())) {
+						bytes += fieldBytes(field.getType());
+					}
+				}
+			}
+			return align(bytes);
+		}
+	};
+
+	private static final ClassValue<List<Field>> REFERENCE_FIELDS = new ClassValue<List<Field>>() {
+		@Override
+		protected List<Field> computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+			for(Class<?> c = type; c != null; c = c.getSuperclass()) {
+				for(Field field : c.getDeclaredFields()) {
+					if(!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+			}
+			return fields;
+		}
+	};
+
+	private ObjectSizes() {
+	}
+
+	/**
+	 * The bytes of an instance of the given class without the objects it references.
+	 *
+	 * @param type
+	 * @return
+	 */
+	public static long shallowSize(Class<?> type) {
+		return SHALLOW_SIZES.get(type);
+	}
+
+	/**
+	 * The bytes of an array.
+	 *
+	 * @param componentType
+	 * @param length
+	 * @return
+	 */
+	public static long arraySize(Class<?> componentType, long length) {
+		return align(ARRAY_HEADER_BYTES + fieldBytes(componentType) * length);
+	}
+
+	/**
+	 * The bytes of the given object and of all objects reachable from it, each counted once.
+	 *
+	 * @param root
+	 * @return
+	 */
+	public static long deepSize(Object root) {
+		Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<Object> pending = new ArrayDeque<>();
+		pending.push(root);
+		long bytes = 0;
+		while(!pending.isEmpty()) {
+			Object object = pending.pop();
+			if(object instanceof Enum || object instanceof Class || !visited.add(object)) {
+				continue;
+			}
+			bytes += size(object, pending);
+		}
+		return bytes;
+	}
+
+	/**
+	 * The shallow size of an object plus its contents that are not separate objects to visit,
+	 * pushing the objects it references.
+	 */
+	private static long size(Object object, Deque<Object> pending) {
+		Class<?> type = object.getClass();
+		if(type.isArray()) {
+			if(object instanceof Object[]) {
+				for(Object element : (Object[]) object) {
+					if(element != null) {
+						pending.push(element);
+					}
+				}
+			}
+			return arraySize(type.getComponentType(), Array.getLength(object));
+		}
+		long bytes = shallowSize(type);
+		if(!type.getModule().isNamed()) {
+			for(Field field : REFERENCE_FIELDS.get(type)) {
+				Object value = read(field, object);
+				if(value != null) {
+					pending.push(value);
+				}
+			}
+		} else if(object instanceof String) {
+			String string = (String) object;
+			bytes += arraySize(byte.class, isLatin1(string) ? string.length() : 2L * string.length());
+		} else if(object instanceof BigDecimal) {
+			BigInteger unscaled = ((BigDecimal) object).unscaledValue();
+			if(unscaled.bitLength() > 63) {
+				bytes += shallowSize(BigInteger.class) + arraySize(int.class, (unscaled.bitLength() + 31) / 32);
+			}
+		} else if(object instanceof Collection) {
+			Collection<?> collection = (Collection<?>) object;
+			bytes += arraySize(Object.class, collection.size());
+			for(Object element : collection) {
+				if(element != null) {
+					pending.push(element);
+				}
+			}
+		}
+		return bytes;
+	}
+
+	private static Object read(Field field, Object object) {
+		try {
+			return field.get(object);
+		} catch(IllegalAccessException e) {
+			throw new IllegalStateException("Cannot read " + field, e);
+		}
+	}
+
+	private static boolean isLatin1(String string) {
+		for(int i = 0; i < string.length(); i++) {
+			if(string.charAt(i) > 0xFF) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int fieldBytes(Class<?> type) {
+		if(type == long.class || type == double.class) {
+			return 8;
+		}
+		if(type == int.class || type == float.class) {
+			return 4;
+		}
+		if(type == short.class || type == char.class) {
+			return 2;
+		}
+		if(type == byte.class || type == boolean.class) {
+			return 1;
+		}
+		return REFERENCE_BYTES;
+	}
+
+	private static long align(long bytes) {
+		return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	private static boolean vmFlag(String name, boolean defaultValue) {
+		return Boolean.parseBoolean(vmOption(name, Boolean.toString(defaultValue)));
+	}
+
+	private static String vmOption(String name, String defaultValue) {
+		try {
+			return ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption(name).getValue();
+		} catch(RuntimeException e) {
+			//not a HotSpot VM or no such option
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Prints the deep size of the generated programmers as {@link Programmer}s and as
+	 * {@link ImmutableProgrammer}s. The immutable rows are also counted together with the whole
+	 * {@link LocalDateCache}, whose dates are created up front and cost about 2 MB no matter how
+	 * many rows use them. Arguments: number of programmers (default 10000000). The accounting
+	 * needs about as much heap again as the dataset.
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+		ProgrammerGenerator generator = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED);
+		System.out.printf("HEADER: %d bytes, REFERENCE: %d bytes, ALIGNMENT: %d bytes%n", HEADER_BYTES, REFERENCE_BYTES, ALIGNMENT);
+		System.out.printf("SHALLOW: Programmer %d bytes, ImmutableProgrammer %d bytes%n",
+				shallowSize(Programmer.class), shallowSize(ImmutableProgrammer.class));
+
+		List<Programmer> programmers = generator.generate(size);
+		long programmerBytes = deepSize(programmers);
+		report("Programmer", size, programmerBytes);
+		programmers = null;
+
+		List<ImmutableProgrammer> immutable = generator.generateImmutable(size);
+		report("ImmutableProgrammer", size, deepSize(immutable));
+		//the rows reference some of the cached dates, the others are a fixed cost on top
+		long cacheBytes = deepSize(LocalDateCache.days());
+		long immutableBytes = deepSize(new Object[] {immutable, LocalDateCache.days()}) - arraySize(Object.class, 2);
+		System.out.printf("LocalDateCache: %d KB%n", cacheBytes / 1024);
+		report("ImmutableProgrammer with LocalDateCache", size, immutableBytes);
+		System.out.printf("SAVED: %d MB (%.1f%%)%n", (programmerBytes - immutableBytes) / (1024 * 1024),
+				100.0 * (programmerBytes - immutableBytes) / programmerBytes);
+	}
+
+	private static void report(String type, int size, long bytes) {
+		System.out.printf("%s x %d: %d MB, %.1f bytes per row%n", type, size, bytes / (1024 * 1024), (double) bytes / Math.max(1, size));
+	}
+
+}
@@ -0,0 +1,80 @@
+package domain;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares the queries over the records off the heap, which read the fields in place, with the
+ * same queries over the list of programmers. Only the selected storage is created, so the heap
+ * used printed after the setup shows the footprint of each, and the GC profiler shows the
+ * collections the queries cause with the dataset on or off the heap. The direct memory limit is
+ * raised to hold the largest dataset.
+ *
+ * @author Aleksander
+ */
+@Fork(value = 2, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "-XX:MaxDirectMemorySize=8g"})
+public class OffHeapBenchmark extends AbstractBenchmark {
+
+	@Param({"100000", "1000000", "10000000"})
+	private int size;
+
+	@Param({"heap", "offHeap"})
+	private String storage;
+
+	private List<Programmer> programmers;
+	private ProgrammerRecords records;
+	private String name;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		ProgrammerGenerator generator = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED);
+		if("heap".equals(storage)) {
+			programmers = generator.generate(size);
+			name = programmers.get(0).getLastName().substring(0, 2);
+		} else {
+			records = OffHeapProgrammers.of(generator.stream(size).iterator(), size, ProgrammerGenerator.STRING_LENGTH);
+			name = records.getLastName(0).substring(0, 2);
+		}
+		System.gc();
+		long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		System.out.println("HEAP USED (" + storage + "): " + heapUsed / (1024 * 1024) + " MB");
+	}
+
+	@TearDown(Level.Trial)
+	public void releaseRecords() {
+		if(records != null) {
+			records.close();
+		}
+	}
+
+	@Benchmark
+	public Object youngestParallel() {
+		return records == null ? ProgrammerQueries.findTheYoungestProgrammerPrimitiveParallel(programmers)
+				: records.findTheYoungestProgrammerLambdaParallel();
+	}
+
+	@Benchmark
+	public Object highestSalaryParallel() {
+		return records == null ? ProgrammerQueries.findTheProgrammerWithHighestSalaryPrimitiveParallel(programmers)
+				: records.findTheProgrammerWithHighestSalaryLambdaParallel();
+	}
+
+	@Benchmark
+	public Object byNameParallel() {
+		return records == null ? ProgrammerQueries.findTheProgrammersByNamePresizedParallel(name, programmers)
+				: records.findTheProgrammersByNameParallel(name);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(OffHeapBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,79 @@
+package domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Copies programmers into direct byte buffers outside of the Java heap, in the record layout of
+ * {@link ProgrammerRecordLayout}. The garbage collector neither scans nor moves the records, so a
+ * large dataset adds almost nothing to the heap and to the GC pauses. The memory is released
+ * when the returned {@link ProgrammerRecords} are closed.
+ *
+ * Direct buffers count against {@code -XX:MaxDirectMemorySize}, which defaults to the maximum
+ * heap size, so a dataset larger than the heap needs the limit raised, for example
+ * {@code -XX:MaxDirectMemorySize=8g} as in {@link OffHeapBenchmark}; otherwise the allocation
+ * fails with an {@link OutOfMemoryError}.
+ *
+ * @author Aleksander
+ */
+public final class OffHeapProgrammers {
+
+	private OffHeapProgrammers() {
+	}
+
+	/**
+	 * Copies the programmers off the heap, filling the records in parallel.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static ProgrammerRecords of(List<Programmer> programmers) {
+		Programmer[] array = programmers.toArray(new Programmer[0]);
+		int nameWidth = 0;
+		for(Programmer programmer : array) {
+			nameWidth = Math.max(nameWidth, Math.max(programmer.getFirstName().length(), programmer.getLastName().length()));
+		}
+		ProgrammerRecords records = allocate(new ProgrammerRecordLayout(nameWidth), array.length);
+		ProgrammerRecordLayout layout = records.getLayout();
+		IntStream.range(0, array.length).parallel()
+				.forEach(row -> layout.write(records.segment(row), records.position(row), array[row]));
+		return records;
+	}
+
+	/**
+	 * Copies the programmers off the heap as they are pulled from the iterator, so they never
+	 * have to be on the heap at the same time.
+	 *
+	 * @param programmers
+	 * @param size the number of programmers the iterator returns
+	 * @param nameWidth the longest first or last name
+	 * @return
+	 * @throws IllegalArgumentException if the iterator returns fewer programmers
+	 */
+	public static ProgrammerRecords of(Iterator<? extends Programmer> programmers, long size, int nameWidth) {
+		ProgrammerRecords records = allocate(new ProgrammerRecordLayout(nameWidth), size);
+		ProgrammerRecordLayout layout = records.getLayout();
+		for(long row = 0; row < size; row++) {
+			if(!programmers.hasNext()) {
+				throw new IllegalArgumentException("Expected " + size + " programmers, got " + row);
+			}
+			layout.write(records.segment(row), records.position(row), programmers.next());
+		}
+		return records;
+	}
+
+	private static ProgrammerRecords allocate(ProgrammerRecordLayout layout, long size) {
+		int recordsPerSegment = ProgrammerRecords.recordsPerSegment(layout);
+		int segmentCount = (int) ((size + recordsPerSegment - 1) / recordsPerSegment);
+		ByteBuffer[] segments = new ByteBuffer[segmentCount];
+		for(int segment = 0; segment < segmentCount; segment++) {
+			long rows = Math.min(recordsPerSegment, size - (long) segment * recordsPerSegment);
+			segments[segment] = ByteBuffer.allocateDirect((int) (rows * layout.getRecordSize())).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return new ProgrammerRecords(layout, segments, recordsPerSegment, size);
+	}
+
+}
@@ -0,0 +1,234 @@
+package domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * One name column of a list of programmers packed into a single byte array: every name is
+ * stored as ISO-8859-1 bytes, zero-padded to a fixed stride, so row {@code i} starts at
+ * {@code i * stride} and the column costs one array instead of a String and its backing array
+ * per programmer.
+ *
+ * The substring search reads the names eight bytes at a time and finds the positions of the
+ * first two bytes of the searched name in all of them at once with SWAR (SIMD within a register)
+ * bit tricks; only those candidates are compared byte by byte.
+ *
+ * @author Aleksander
+ */
+public class PackedNames {
+
+	private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	private final byte[] data;
+	private final int stride;
+	private final int size;
+
+	private PackedNames(byte[] data, int stride, int size) {
+		this.data = data;
+		this.stride = stride;
+		this.size = size;
+	}
+
+	/**
+	 * Packs the given name of every programmer.
+	 *
+	 * @param programmers
+	 * @param name for example {@code Programmer::getLastName}
+	 * @return
+	 * @throws IllegalArgumentException if a name is not storable as ISO-8859-1 without zero bytes
+	 */
+	public static PackedNames of(List<Programmer> programmers, Function<? super Programmer, String> name) {
+		Programmer[] array = programmers.toArray(new Programmer[0]);
+		int stride = 1;
+		for(Programmer programmer : array) {
+			stride = Math.max(stride, name.apply(programmer).length());
+		}
+		if((long) array.length * stride + Long.BYTES > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Too many names for one array: " + array.length);
+		}
+		//the padding lets the last name be read a whole word at a time
+		byte[] data = new byte[array.length * stride + Long.BYTES];
+		int width = stride;
+		IntStream.range(0, array.length).parallel().forEach(row -> {
+			byte[] bytes = ProgrammerRecordLayout.encode(name.apply(array[row]));
+			System.arraycopy(bytes, 0, data, row * width, bytes.length);
+		});
+		return new PackedNames(data, stride, array.length);
+	}
+
+	/**
+	 * Packs the last names of the programmers.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static PackedNames lastNames(List<Programmer> programmers) {
+		return of(programmers, Programmer::getLastName);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getStride() {
+		return stride;
+	}
+
+	/**
+	 * Decodes the name of the given row.
+	 *
+	 * @param row
+	 * @return
+	 */
+	public String get(int row) {
+		int start = row * stride;
+		int length = 0;
+		while(length < stride && data[start + length] != 0) {
+			length++;
+		}
+		return new String(data, start, length, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Bytes held by the packed column.
+	 *
+	 * @return
+	 */
+	public long estimatedBytes() {
+		return data.length;
+	}
+
+	/**
+	 * It finds the rows whose name contains the given name with the word-at-a-time search.
+	 *
+	 * @param name
+	 * @return the ascending rows
+	 */
+	public int[] findContaining(String name) {
+		return scan(0, size, ProgrammerRecordLayout.encode(name));
+	}
+
+	/**
+	 * It finds the rows whose name contains the given name with the word-at-a-time search in
+	 * parallel, scanning blocks of rows and concatenating their results.
+	 *
+	 * @param name
+	 * @return the ascending rows
+	 */
+	public int[] findContainingParallel(String name) {
+		byte[] pattern = ProgrammerRecordLayout.encode(name);
+		int blockSize = ParallelCollectors.defaultLeafSize(size);
+		int blocks = (int) ((size + (long) blockSize - 1) / blockSize);
+		int[][] results = IntStream.range(0, blocks).parallel()
+				.mapToObj(block -> scan(block * blockSize, (int) Math.min(size, (long) block * blockSize + blockSize), pattern))
+				.toArray(int[][]::new);
+		int count = 0;
+		for(int[] rows : results) {
+			count += rows.length;
+		}
+		int[] rows = new int[count];
+		int position = 0;
+		for(int[] block : results) {
+			System.arraycopy(block, 0, rows, position, block.length);
+			position += block.length;
+		}
+		return rows;
+	}
+
+	/**
+	 * It finds the rows whose name contains the given name comparing byte by byte, as the
+	 * baseline of the word-at-a-time search.
+	 *
+	 * @param name
+	 * @return the ascending rows
+	 */
+	public int[] findContainingScalar(String name) {
+		byte[] pattern = ProgrammerRecordLayout.encode(name);
+		return IntStream.range(0, size).filter(row -> containsScalar(row, pattern)).toArray();
+	}
+
+	/**
+	 * Scans the bytes of the given rows as one sequence. Every word read covers seven start
+	 * positions, since the eighth byte is only needed as the second byte of the seventh one. A
+	 * candidate counts if the whole pattern fits into its row, as names may fill their stride and
+	 * touch the next name.
+	 *
+	 * @param fromRow
+	 * @param toRow
+	 * @param pattern
+	 * @return the ascending rows containing the pattern
+	 */
+	int[] scan(int fromRow, int toRow, byte[] pattern) {
+		int length = pattern.length;
+		if(length == 0 || length > stride) {
+			return length == 0 ? IntStream.range(fromRow, toRow).toArray() : new int[0];
+		}
+		int[] rows = new int[16];
+		int count = 0;
+		int lastRow = -1;
+		long first = ONES * (pattern[0] & 0xFF);
+		long second = length > 1 ? ONES * (pattern[1] & 0xFF) : 0;
+		int last = toRow * stride - length;
+		for(int offset = fromRow * stride; offset <= last; offset += 7) {
+			long word = (long) LONGS.get(data, offset);
+			long candidates = zeroBytes(word ^ first);
+			if(length > 1) {
+				candidates &= zeroBytes(word ^ second) >>> 8;
+			}
+			if(last - offset < 6) {
+				candidates &= (1L << (8 * (last - offset + 1))) - 1;
+			} else {
+				candidates &= 0x00FFFFFFFFFFFFFFL;
+			}
+			while(candidates != 0) {
+				int position = offset + (Long.numberOfTrailingZeros(candidates) >>> 3);
+				int row = position / stride;
+				if(row != lastRow && position - row * stride <= stride - length && matches(position, pattern)) {
+					if(count == rows.length) {
+						rows = Arrays.copyOf(rows, 2 * count);
+					}
+					rows[count++] = row;
+					lastRow = row;
+				}
+				candidates &= candidates - 1;
+			}
+		}
+		return Arrays.copyOf(rows, count);
+	}
+
+	boolean containsScalar(int row, byte[] pattern) {
+		int start = row * stride;
+		for(int position = start, last = start + stride - pattern.length; position <= last; position++) {
+			if(matches(position, pattern)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean matches(int position, byte[] pattern) {
+		for(int i = 0; i < pattern.length; i++) {
+			if(data[position + i] != pattern[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Sets the high bit of every zero byte of the word. Bytes above a zero byte may be flagged
+	 * as well, which only adds candidates; a zero byte is never missed.
+	 */
+	private static long zeroBytes(long word) {
+		return (word - ONES) & ~word & HIGH_BITS;
+	}
+
+}
@@ -0,0 +1,65 @@
+package domain;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares the last name search over {@link PackedNames}, word-at-a-time and byte by byte, with
+ * {@link String#contains(CharSequence)} over the programmer objects.
+ *
+ * @author Aleksander
+ */
+public class PackedNamesBenchmark extends AbstractBenchmark {
+
+	@Param({"1000000", "10000000"})
+	private int size;
+
+	@Param({"2", "3", "5"})
+	private int nameLength;
+
+	private List<Programmer> programmers;
+	private PackedNames names;
+	private String name;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		names = PackedNames.lastNames(programmers);
+		name = programmers.get(size / 2).getLastName().substring(3, 3 + nameLength);
+	}
+
+	@Benchmark
+	public int[] packedWords() {
+		return names.findContaining(name);
+	}
+
+	@Benchmark
+	public int[] packedBytes() {
+		return names.findContainingScalar(name);
+	}
+
+	@Benchmark
+	public int[] packedWordsParallel() {
+		return names.findContainingParallel(name);
+	}
+
+	@Benchmark
+	public List<Programmer> stringContains() {
+		return ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> stringContainsParallel() {
+		return ProgrammerQueries.findTheProgrammersByNameAndLambdaParallel(name, programmers);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(PackedNamesBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,188 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Building blocks for parallel queries over random access lists: streams with a tunable leaf
+ * size, a filter that writes all matches into one presized array, and min/max collectors over a
+ * primitive key that neither box the key nor wrap the result in an {@link java.util.Optional}.
+ *
+ * @author Aleksander
+ */
+public final class ParallelCollectors {
+
+	/**
+	 * Leaves are never smaller than this, so the task overhead stays small against the work.
+	 */
+	static final int MIN_LEAF_SIZE = 1024;
+
+	private static final int LEAVES_PER_THREAD = 4;
+
+	private ParallelCollectors() {
+	}
+
+	/**
+	 * The leaf size giving a few leaves per thread of the pool the caller runs in, or of the
+	 * common pool outside of a pool.
+	 *
+	 * @param size
+	 * @return
+	 */
+	public static int defaultLeafSize(int size) {
+		int parallelism = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism()
+				: ForkJoinPool.getCommonPoolParallelism();
+		return Math.max(MIN_LEAF_SIZE, size / (LEAVES_PER_THREAD * parallelism));
+	}
+
+	/**
+	 * Parallel stream over the list that splits down to the given leaf size.
+	 *
+	 * @param items a random access list
+	 * @param leafSize
+	 * @return
+	 */
+	public static <T> Stream<T> parallelStream(List<T> items, int leafSize) {
+		return StreamSupport.stream(IndexedSpliterator.of(items, leafSize), true);
+	}
+
+	/**
+	 * Parallel stream over the list with the default leaf size.
+	 *
+	 * @param items a random access list
+	 * @return
+	 */
+	public static <T> Stream<T> parallelStream(List<T> items) {
+		return parallelStream(items, defaultLeafSize(items.size()));
+	}
+
+	/**
+	 * It finds the elements matching the predicate in two parallel phases. The first one tests
+	 * every element once, marks the matches in a bitmap and counts them per leaf; the prefix
+	 * sums of the counts give every leaf its offset in a result array of the exact size, which
+	 * the second phase fills from the bitmap. No intermediate lists are built or merged.
+	 *
+	 * @param items a random access list
+	 * @param predicate
+	 * @param leafSize rounded up to a multiple of 64, so no two leaves share a bitmap word
+	 * @return the matching elements in list order, in a fixed-size list
+	 */
+	public static <T> List<T> filter(List<T> items, Predicate<? super T> predicate, int leafSize) {
+		int size = items.size();
+		int leaf = (Math.max(leafSize, 1) + 63) & ~63;
+		int leaves = (int) ((size + (long) leaf - 1) / leaf);
+		long[] matches = new long[(size + 63) >>> 6];
+		int[] offsets = new int[leaves + 1];
+
+		IntStream.range(0, leaves).parallel().forEach(index -> {
+			int count = 0;
+			for(int i = index * leaf, to = (int) Math.min(size, (long) i + leaf); i < to; i++) {
+				if(predicate.test(items.get(i))) {
+					matches[i >>> 6] |= 1L << i;
+					count++;
+				}
+			}
+			offsets[index + 1] = count;
+		});
+		for(int index = 0; index < leaves; index++) {
+			offsets[index + 1] += offsets[index];
+		}
+
+		Object[] result = new Object[offsets[leaves]];
+		IntStream.range(0, leaves).parallel().forEach(index -> {
+			int position = offsets[index];
+			for(int word = index * (leaf >>> 6), to = Math.min(matches.length, word + (leaf >>> 6)); word < to; word++) {
+				for(long bits = matches[word]; bits != 0; bits &= bits - 1) {
+					result[position++] = items.get((word << 6) + Long.numberOfTrailingZeros(bits));
+				}
+			}
+		});
+		@SuppressWarnings("unchecked")
+		List<T> filtered = (List<T>) Arrays.asList(result);
+		return filtered;
+	}
+
+	/**
+	 * It finds the elements matching the predicate with the default leaf size.
+	 *
+	 * @param items a random access list
+	 * @param predicate
+	 * @return the matching elements in list order, in a fixed-size list
+	 */
+	public static <T> List<T> filter(List<T> items, Predicate<? super T> predicate) {
+		return filter(items, predicate, defaultLeafSize(items.size()));
+	}
+
+	/**
+	 * Collector of the element with the largest key; the first one wins on ties.
+	 *
+	 * @param key
+	 * @return the element, or null if there are none
+	 */
+	public static <T> Collector<T, ?, T> maxByLong(ToLongFunction<? super T> key) {
+		return Collector.of(() -> new Best<T>(key, 1), Best::offer, Best::merge, Best::get);
+	}
+
+	/**
+	 * Collector of the element with the smallest key; the first one wins on ties.
+	 *
+	 * @param key
+	 * @return the element, or null if there are none
+	 */
+	public static <T> Collector<T, ?, T> minByLong(ToLongFunction<? super T> key) {
+		return Collector.of(() -> new Best<T>(key, -1), Best::offer, Best::merge, Best::get);
+	}
+
+	/**
+	 * The best element seen so far together with its key. The sign turns the comparison of the
+	 * keys into a max or a min without a comparator.
+	 */
+	private static final class Best<T> {
+
+		private final ToLongFunction<? super T> key;
+		private final int sign;
+		private boolean present;
+		private T element;
+		private long best;
+
+		Best(ToLongFunction<? super T> key, int sign) {
+			this.key = key;
+			this.sign = sign;
+		}
+
+		void offer(T candidate) {
+			long value = key.applyAsLong(candidate);
+			if(!present || better(value, best)) {
+				present = true;
+				element = candidate;
+				best = value;
+			}
+		}
+
+		Best<T> merge(Best<T> other) {
+			if(!present || other.present && better(other.best, best)) {
+				present = other.present;
+				element = other.element;
+				best = other.best;
+			}
+			return this;
+		}
+
+		T get() {
+			return element;
+		}
+
+		private boolean better(long value, long than) {
+			return sign > 0 ? value > than : value < than;
+		}
+	}
+
+}
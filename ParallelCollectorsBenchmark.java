@@ -0,0 +1,80 @@
+package domain;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares the default parallel streams with the {@link ParallelCollectors} building blocks for
+ * the youngest programmer, the highest salary and the last name filter. Every query runs inside a
+ * pool of the given parallelism, so the speedup can be read off against {@code threads = 1}.
+ *
+ * @author Aleksander
+ */
+public class ParallelCollectorsBenchmark extends AbstractBenchmark {
+
+	@Param({"1000000", "10000000"})
+	private int size;
+
+	@Param({"1", "2", "4", "8", "16", "32"})
+	private int threads;
+
+	private List<Programmer> programmers;
+	private String name;
+	private ForkJoinPool pool;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		name = programmers.get(size / 2).getLastName().substring(0, 2);
+		pool = new ForkJoinPool(threads);
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdownPool() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public Programmer youngestComparator() {
+		return pool.submit(() -> programmers.parallelStream().max(Comparator.comparing(Programmer::getBirthDate)).get()).join();
+	}
+
+	@Benchmark
+	public Programmer youngestPrimitive() {
+		return pool.submit(() -> ProgrammerQueries.findTheYoungestProgrammerPrimitiveParallel(programmers)).join();
+	}
+
+	@Benchmark
+	public Programmer highestSalaryComparator() {
+		return pool.submit(() -> programmers.parallelStream().max(Comparator.comparing(Programmer::getSalary)).get()).join();
+	}
+
+	@Benchmark
+	public Programmer highestSalaryPrimitive() {
+		return pool.submit(() -> ProgrammerQueries.findTheProgrammerWithHighestSalaryPrimitiveParallel(programmers)).join();
+	}
+
+	@Benchmark
+	public List<Programmer> byNameToList() {
+		return pool.submit(() -> programmers.parallelStream().filter(p -> p.getLastName().contains(name)).collect(Collectors.toList())).join();
+	}
+
+	@Benchmark
+	public List<Programmer> byNamePresized() {
+		return pool.submit(() -> ProgrammerQueries.findTheProgrammersByNamePresizedParallel(name, programmers)).join();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(ParallelCollectorsBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,30 @@
+package domain;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the queries on parallel streams in the common fork-join pool.
+ *
+ * @author Aleksander
+ */
+public class ParallelStreamQueryExecutor implements QueryExecutor {
+
+	@Override
+	public <T> T maxBy(List<T> items, Comparator<? super T> order) {
+		return items.parallelStream().max(order).orElse(null);
+	}
+
+	@Override
+	public <T> List<T> filter(List<T> items, Predicate<? super T> predicate) {
+		return items.parallelStream().filter(predicate).collect(Collectors.toList());
+	}
+
+	@Override
+	public String getName() {
+		return "parallelStream";
+	}
+
+}
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 public class Programmer extends Person {
 	
 	private String primaryLanguage;
+	private ProgrammingLanguages language;
 	private LocalDate programmingStartDate;
 	private BigDecimal salary;
 	
@@ -28,6 +29,7 @@ public class Programmer extends Person {
 			LocalDate programmingStartDate, BigDecimal salary) {
 		super(firstName, lastName, birthDate);
 		this.primaryLanguage = primaryLanguage;
+		this.language = ProgrammingLanguages.parse(primaryLanguage);
 		this.programmingStartDate = programmingStartDate;
 		this.salary = salary;
 	}
@@ -37,6 +39,15 @@ public class Programmer extends Person {
 	}
 	public void setPrimaryLanguage(String primaryLanguage) {
 		this.primaryLanguage = primaryLanguage;
+		this.language = ProgrammingLanguages.parse(primaryLanguage);
+	}
+	/**
+	 * The primary language as an enum constant, parsed once from the free text name.
+	 * 
+	 * @return the language, or null if the name is not one of {@link ProgrammingLanguages}
+	 */
+	public ProgrammingLanguages getLanguage() {
+		return language;
 	}
 	public LocalDate getProgrammingStartDate() {
 		return programmingStartDate;
@@ -50,6 +61,18 @@ public class Programmer extends Person {
 	public void setSalary(BigDecimal salary) {
 		this.salary = salary;
 	}
+	/**
+	 * The salary as a fixed-point number of cents, see {@link Salaries}. It is converted on every
+	 * call, so a query should convert every programmer once rather than per comparison; the
+	 * columnar representations store it instead.
+	 * 
+	 * @return
+	 * @throws NullPointerException if the programmer has no salary, like comparing it would
+	 * @throws ArithmeticException if the salary has fractions of a cent
+	 */
+	public long getSalaryInCents() {
+		return Salaries.toCents(salary);
+	}
 	
 	
 
@@ -0,0 +1,286 @@
+package domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generates random programmers in parallel. The rows are split into fixed chunks and every
+ * chunk draws from its own {@link SplittableRandom} derived from the seed and the chunk
+ * index, so a seed always produces the same dataset regardless of the number of threads.
+ *
+ * {@link #stream(long)} produces the same rows lazily, so datasets larger than the heap can be
+ * scanned without ever holding them.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerGenerator {
+
+	public static final long DEFAULT_SEED = 20161015L;
+
+	static final String CHARACTERS = "ABCDEFGHIJKLMNOPRSTUVWXYZ";
+	static final int STRING_LENGTH = 25;
+	static final int CHUNK_SIZE = 1 << 14;
+
+	private static final long MIN_BIRTH_DAY = LocalDate.of(1950, 1, 1).toEpochDay();
+	private static final long MAX_BIRTH_DAY = LocalDate.of(1998, 12, 31).toEpochDay();
+	private static final long MAX_PROGRAMMING_START_DAY = LocalDate.of(2016, 10, 15).toEpochDay();
+	private static final int MIN_SALARY_CENTS = 500000;
+	private static final int MAX_SALARY_CENTS = 1000000;
+	private static final ProgrammingLanguages[] LANGUAGES = ProgrammingLanguages.values();
+	private static final String[] LANGUAGE_NAMES = Arrays.stream(LANGUAGES)
+			.map(ProgrammingLanguages::toString).toArray(String[]::new);
+
+	private final long seed;
+
+	public ProgrammerGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Generates the given number of programmers on the common pool.
+	 *
+	 * @param size
+	 * @return a fixed-size list backed by the generated array
+	 */
+	public List<Programmer> generate(int size) {
+		return Arrays.asList(generateArray(size, ForkJoinPool.commonPool()));
+	}
+
+	/**
+	 * Generates the given number of programmers on the given pool.
+	 *
+	 * @param size
+	 * @param pool
+	 * @return
+	 */
+	public Programmer[] generateArray(int size, ForkJoinPool pool) {
+		Programmer[] programmers = new Programmer[size];
+		generate(size, pool, ProgrammerGenerator::generateProgrammer, (programmer, row) -> programmers[(int) row] = programmer);
+		return programmers;
+	}
+
+	/**
+	 * Generates the given number of programmers as {@link ImmutableProgrammer}s on the common
+	 * pool, without creating a {@link Programmer} per row. Row {@code i} equals element
+	 * {@code i} of {@link #generate(int)} for the same seed.
+	 *
+	 * @param size
+	 * @return a fixed-size list backed by the generated array
+	 */
+	public List<ImmutableProgrammer> generateImmutable(int size) {
+		ImmutableProgrammer[] programmers = new ImmutableProgrammer[size];
+		generate(size, ForkJoinPool.commonPool(), ProgrammerGenerator::generateImmutableProgrammer,
+				(programmer, row) -> programmers[(int) row] = programmer);
+		return Arrays.asList(programmers);
+	}
+
+	/**
+	 * Generates the rows from 0 to {@code size - 1}, the chunks in parallel on the given pool.
+	 * The factory creates a row from the random generator of its chunk and the sink receives it
+	 * with its row number; the rows of a chunk are passed in order by a single thread.
+	 *
+	 * @param size
+	 * @param pool
+	 * @param factory for example {@link #generateProgrammer(SplittableRandom)}
+	 * @param sink
+	 */
+	<T> void generate(long size, ForkJoinPool pool, Function<SplittableRandom, ? extends T> factory,
+			ObjLongConsumer<? super T> sink) {
+		long chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		if(chunks > 0) {
+			pool.invoke(new GenerateChunks<T>(size, 0, chunks, factory, sink));
+		}
+	}
+
+	/**
+	 * Generates the given number of programmers lazily, chunk by chunk, as they are pulled by
+	 * the stream. Row {@code i} equals element {@code i} of {@link #generate(int)} for the same
+	 * seed, and a parallel stream splits on chunk boundaries.
+	 *
+	 * @param size
+	 * @return an ordered, sized stream
+	 */
+	public Stream<Programmer> stream(long size) {
+		if(size < 0) {
+			throw new IllegalArgumentException("Negative size: " + size);
+		}
+		return StreamSupport.stream(new ChunkSpliterator(0, size), false);
+	}
+
+	/**
+	 * Creates the random generator of the given chunk.
+	 *
+	 * @param chunk
+	 * @return
+	 */
+	SplittableRandom chunkRandom(long chunk) {
+		return new SplittableRandom(mix(seed + chunk * 0x9E3779B97F4A7C15L));
+	}
+
+	/**
+	 * Generates one random programmer.
+	 *
+	 * @param random
+	 * @return
+	 */
+	static Programmer generateProgrammer(SplittableRandom random) {
+		return generateFields(random, (firstName, lastName, birthDay, language, programmingStartDay, salaryInCents) ->
+				new Programmer(firstName, lastName, LocalDate.ofEpochDay(birthDay), LANGUAGE_NAMES[language],
+						LocalDate.ofEpochDay(programmingStartDay), BigDecimal.valueOf(salaryInCents, 2)));
+	}
+
+	/**
+	 * Generates one random programmer as an {@link ImmutableProgrammer}, equal to the one
+	 * {@link #generateProgrammer(SplittableRandom)} generates from the same state.
+	 *
+	 * @param random
+	 * @return
+	 */
+	static ImmutableProgrammer generateImmutableProgrammer(SplittableRandom random) {
+		return generateFields(random, (firstName, lastName, birthDay, language, programmingStartDay, salaryInCents) ->
+				new ImmutableProgrammer(firstName, lastName, LocalDateCache.of(birthDay), LANGUAGES[language],
+						LocalDateCache.of(programmingStartDay), salaryInCents));
+	}
+
+	/**
+	 * Draws the fields of one programmer, always in the same order.
+	 */
+	private static <T> T generateFields(SplittableRandom random, Fields<T> fields) {
+		String firstName = generateString(random);
+		String lastName = generateString(random);
+		long birthDay = random.nextLong(MIN_BIRTH_DAY, MAX_BIRTH_DAY);
+		int language = random.nextInt(LANGUAGES.length);
+		long minStartDay = LocalDateCache.of(birthDay).plusYears(7).toEpochDay();
+		long programmingStartDay = random.nextLong(minStartDay, MAX_PROGRAMMING_START_DAY);
+		long salaryInCents = random.nextInt(MIN_SALARY_CENTS, MAX_SALARY_CENTS);
+		return fields.create(firstName, lastName, birthDay, language, programmingStartDay, salaryInCents);
+	}
+
+	private static String generateString(SplittableRandom random) {
+		char[] text = new char[STRING_LENGTH];
+		for(int i = 0; i < STRING_LENGTH; i++) {
+			text[i] = CHARACTERS.charAt(random.nextInt(CHARACTERS.length()));
+		}
+		return new String(text);
+	}
+
+	/**
+	 * Stafford's variant 13 of the 64-bit finalizer, used to spread the chunk seeds.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Creates a row from the drawn fields of a programmer.
+	 */
+	@FunctionalInterface
+	private interface Fields<T> {
+		T create(String firstName, String lastName, long birthDay, int language, long programmingStartDay, long salaryInCents);
+	}
+
+	/**
+	 * Splits a range of chunks in halves until a single chunk is left, then generates its rows.
+	 * Row {@code chunk * CHUNK_SIZE + i} is the same for a seed no matter how the chunks are
+	 * scheduled.
+	 */
+	private class GenerateChunks<T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long size;
+		private final long from;
+		private final long to;
+		private final Function<SplittableRandom, ? extends T> factory;
+		private final ObjLongConsumer<? super T> sink;
+
+		GenerateChunks(long size, long from, long to, Function<SplittableRandom, ? extends T> factory,
+				ObjLongConsumer<? super T> sink) {
+			this.size = size;
+			this.from = from;
+			this.to = to;
+			this.factory = factory;
+			this.sink = sink;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				SplittableRandom random = chunkRandom(from);
+				long end = Math.min(size, from * CHUNK_SIZE + CHUNK_SIZE);
+				for(long row = from * CHUNK_SIZE; row < end; row++) {
+					sink.accept(factory.apply(random), row);
+				}
+				return;
+			}
+			long middle = (from + to) >>> 1;
+			invokeAll(new GenerateChunks<T>(size, from, middle, factory, sink), new GenerateChunks<T>(size, middle, to, factory, sink));
+		}
+	}
+
+	/**
+	 * Generates the rows of a range that starts on a chunk boundary, creating the random
+	 * generator of every chunk when its first row is pulled.
+	 */
+	private class ChunkSpliterator implements Spliterator<Programmer> {
+
+		private long row;
+		private final long end;
+		private SplittableRandom random;
+
+		ChunkSpliterator(long row, long end) {
+			this.row = row;
+			this.end = end;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Programmer> action) {
+			if(row >= end) {
+				return false;
+			}
+			if(row % CHUNK_SIZE == 0) {
+				random = chunkRandom(row / CHUNK_SIZE);
+			}
+			row++;
+			action.accept(generateProgrammer(random));
+			return true;
+		}
+
+		@Override
+		public Spliterator<Programmer> trySplit() {
+			long firstChunk = (row + CHUNK_SIZE - 1) / CHUNK_SIZE;
+			long lastChunk = (end + CHUNK_SIZE - 1) / CHUNK_SIZE;
+			if(row % CHUNK_SIZE != 0 || lastChunk - firstChunk < 2) {
+				return null;
+			}
+			long middle = ((firstChunk + lastChunk) >>> 1) * CHUNK_SIZE;
+			ChunkSpliterator prefix = new ChunkSpliterator(row, middle);
+			row = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return end - row;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+		}
+	}
+
+}
@@ -0,0 +1,355 @@
+package domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of programmers that many threads can add to at once without locks. The log
+ * is split into stripes and a thread always appends to the stripe picked by its id, so
+ * concurrent producers mostly increment different counters. A stripe reserves a slot with one
+ * atomic increment and stores rows in chunks of {@value #CHUNK_SIZE} that are created on first
+ * use with a compare-and-set, so the log never copies rows to grow.
+ *
+ * {@link #snapshot()} may run while rows are being added. It takes, per stripe, the prefix of
+ * rows that are completely written, and returns them as an immutable list for the existing
+ * queries; later snapshots contain all rows of earlier ones. The rows of a snapshot are ordered
+ * by stripe, not by the time they were added. Its iterator and spliterator walk the chunks
+ * directly, so streams over a snapshot do not search for the stripe of every row.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerLog {
+
+	static final int CHUNK_SHIFT = 14;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final VarHandle ROWS = MethodHandles.arrayElementVarHandle(Programmer[].class);
+
+	private final Stripe[] stripes;
+	private final int stripeMask;
+
+	/**
+	 * Creates a log with a stripe per processor.
+	 */
+	public ProgrammerLog() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a log.
+	 *
+	 * @param stripes the number of stripes, rounded up to a power of two
+	 */
+	public ProgrammerLog(int stripes) {
+		if(stripes <= 0) {
+			throw new IllegalArgumentException("Number of stripes must be positive: " + stripes);
+		}
+		int count = 1;
+		while(count < stripes) {
+			count <<= 1;
+		}
+		//all stripes together hold at most Integer.MAX_VALUE rows, the size of a list
+		int maxChunks = Integer.MAX_VALUE / count >> CHUNK_SHIFT;
+		this.stripes = new Stripe[count];
+		for(int i = 0; i < count; i++) {
+			this.stripes[i] = new Stripe(maxChunks);
+		}
+		this.stripeMask = count - 1;
+	}
+
+	/**
+	 * Appends a programmer.
+	 *
+	 * @param programmer
+	 * @throws IllegalStateException if the stripe of the thread is full
+	 */
+	public void add(Programmer programmer) {
+		if(programmer == null) {
+			throw new NullPointerException("programmer");
+		}
+		stripes[stripeOf(Thread.currentThread())].add(programmer);
+	}
+
+	/**
+	 * Appends all programmers of the list from the calling thread.
+	 *
+	 * @param programmers
+	 */
+	public void addAll(List<Programmer> programmers) {
+		Stripe stripe = stripes[stripeOf(Thread.currentThread())];
+		for(Programmer programmer : programmers) {
+			if(programmer == null) {
+				throw new NullPointerException("programmer");
+			}
+			stripe.add(programmer);
+		}
+	}
+
+	/**
+	 * The number of rows reserved so far, including those that are still being written.
+	 *
+	 * @return
+	 */
+	public long size() {
+		long size = 0;
+		for(Stripe stripe : stripes) {
+			size += Math.min(stripe.reserved.get(), stripe.capacity());
+		}
+		return size;
+	}
+
+	public int getStripes() {
+		return stripes.length;
+	}
+
+	/**
+	 * The rows that are completely written, as an immutable list that does not change when
+	 * rows are added later.
+	 *
+	 * @return
+	 */
+	public List<Programmer> snapshot() {
+		Programmer[][][] chunks = new Programmer[stripes.length][][];
+		int[] offsets = new int[stripes.length + 1];
+		for(int i = 0; i < stripes.length; i++) {
+			Stripe stripe = stripes[i];
+			int published = stripe.published();
+			chunks[i] = stripe.chunks(published);
+			offsets[i + 1] = offsets[i] + published;
+		}
+		return new Snapshot(chunks, offsets);
+	}
+
+	private int stripeOf(Thread thread) {
+		long id = thread.getId();
+		return (int) (id ^ id >>> 16) * 0x9E3779B9 >>> 16 & stripeMask;
+	}
+
+	/**
+	 * One chunked, append-only sequence of rows with its own reservation counter.
+	 */
+	private static final class Stripe {
+
+		private final AtomicInteger reserved = new AtomicInteger();
+		private final AtomicReferenceArray<Programmer[]> chunks;
+		private final AtomicIntegerArray written;
+
+		Stripe(int maxChunks) {
+			this.chunks = new AtomicReferenceArray<>(maxChunks);
+			this.written = new AtomicIntegerArray(maxChunks);
+		}
+
+		int capacity() {
+			return chunks.length() << CHUNK_SHIFT;
+		}
+
+		void add(Programmer programmer) {
+			int row = reserved.getAndIncrement();
+			if(row < 0 || row >= capacity()) {
+				reserved.getAndDecrement();
+				throw new IllegalStateException("Programmer log is full");
+			}
+			int chunk = row >>> CHUNK_SHIFT;
+			ROWS.setRelease(chunk(chunk), row & CHUNK_MASK, programmer);
+			written.incrementAndGet(chunk);
+		}
+
+		private Programmer[] chunk(int chunk) {
+			Programmer[] rows = chunks.get(chunk);
+			if(rows == null) {
+				Programmer[] created = new Programmer[CHUNK_SIZE];
+				rows = chunks.compareAndExchange(chunk, null, created);
+				if(rows == null) {
+					rows = created;
+				}
+			}
+			return rows;
+		}
+
+		/**
+		 * The length of the prefix of rows that are all written. Full chunks are recognized by
+		 * their counters, the chunk after them is scanned up to the first missing row.
+		 */
+		int published() {
+			int published = 0;
+			for(int chunk = 0; chunk < chunks.length(); chunk++) {
+				if(written.get(chunk) == CHUNK_SIZE) {
+					published += CHUNK_SIZE;
+					continue;
+				}
+				Programmer[] rows = chunks.get(chunk);
+				if(rows != null) {
+					int row = 0;
+					while(row < CHUNK_SIZE && ROWS.getAcquire(rows, row) != null) {
+						row++;
+					}
+					published += row;
+				}
+				break;
+			}
+			return published;
+		}
+
+		Programmer[][] chunks(int rows) {
+			Programmer[][] copy = new Programmer[(rows + CHUNK_MASK) >>> CHUNK_SHIFT][];
+			for(int chunk = 0; chunk < copy.length; chunk++) {
+				copy[chunk] = chunks.get(chunk);
+			}
+			return copy;
+		}
+	}
+
+	/**
+	 * The published prefixes of all stripes, one after the other. The rows were read with acquire
+	 * semantics while taking the snapshot, so plain reads see them.
+	 */
+	private static final class Snapshot extends AbstractList<Programmer> implements RandomAccess {
+
+		private final Programmer[][][] chunks;
+		private final int[] offsets;
+
+		Snapshot(Programmer[][][] chunks, int[] offsets) {
+			this.chunks = chunks;
+			this.offsets = offsets;
+		}
+
+		@Override
+		public Programmer get(int index) {
+			if(index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+			}
+			int stripe = stripeOf(index);
+			int row = index - offsets[stripe];
+			return chunks[stripe][row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+		}
+
+		@Override
+		public int size() {
+			return offsets[offsets.length - 1];
+		}
+
+		@Override
+		public Iterator<Programmer> iterator() {
+			return Spliterators.iterator(spliterator());
+		}
+
+		@Override
+		public Spliterator<Programmer> spliterator() {
+			return new RowSpliterator(0, size());
+		}
+
+		@Override
+		public void forEach(Consumer<? super Programmer> action) {
+			spliterator().forEachRemaining(action);
+		}
+
+		/**
+		 * The stripe of the given row of the snapshot.
+		 */
+		private int stripeOf(int index) {
+			int stripe = Arrays.binarySearch(offsets, index);
+			//the last of equal offsets belongs to the stripe that starts there
+			if(stripe < 0) {
+				return -stripe - 2;
+			}
+			while(stripe + 1 < offsets.length - 1 && offsets[stripe + 1] == index) {
+				stripe++;
+			}
+			return stripe;
+		}
+
+		/**
+		 * Walks a range of rows stripe by stripe and chunk by chunk; the stripe is only searched
+		 * when the range starts or is split.
+		 */
+		private final class RowSpliterator implements Spliterator<Programmer> {
+
+			private int index;
+			private final int end;
+			private int stripe;
+			private int row;
+
+			RowSpliterator(int index, int end) {
+				this.index = index;
+				this.end = end;
+				locate();
+			}
+
+			private void locate() {
+				stripe = index < end ? stripeOf(index) : 0;
+				row = index - offsets[stripe];
+			}
+
+			@Override
+			public boolean tryAdvance(Consumer<? super Programmer> action) {
+				if(index >= end) {
+					return false;
+				}
+				while(offsets[stripe] + row == offsets[stripe + 1]) {
+					stripe++;
+					row = 0;
+				}
+				action.accept(chunks[stripe][row >>> CHUNK_SHIFT][row & CHUNK_MASK]);
+				row++;
+				index++;
+				return true;
+			}
+
+			@Override
+			public void forEachRemaining(Consumer<? super Programmer> action) {
+				while(index < end) {
+					int rows = Math.min(offsets[stripe + 1], end) - offsets[stripe];
+					Programmer[][] stripeChunks = chunks[stripe];
+					while(row < rows) {
+						Programmer[] chunk = stripeChunks[row >>> CHUNK_SHIFT];
+						int from = row & CHUNK_MASK;
+						int to = Math.min(CHUNK_SIZE, from + rows - row);
+						for(int i = from; i < to; i++) {
+							action.accept(chunk[i]);
+						}
+						row += to - from;
+						index += to - from;
+					}
+					if(index < end) {
+						stripe++;
+						row = 0;
+					}
+				}
+			}
+
+			@Override
+			public Spliterator<Programmer> trySplit() {
+				int middle = (index + end) >>> 1;
+				if(middle - index < CHUNK_SIZE) {
+					return null;
+				}
+				RowSpliterator prefix = new RowSpliterator(index, middle);
+				index = middle;
+				locate();
+				return prefix;
+			}
+
+			@Override
+			public long estimateSize() {
+				return end - index;
+			}
+
+			@Override
+			public int characteristics() {
+				return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+			}
+		}
+	}
+
+}
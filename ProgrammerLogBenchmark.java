@@ -0,0 +1,112 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Measures ingesting a dataset from several producer threads into a {@link ProgrammerLog},
+ * a synchronized list and a {@link ConcurrentLinkedQueue}; the ingest throughput is the size
+ * divided by the time per operation. The youngest query over a snapshot of the log is measured
+ * next to the same query over an ArrayList.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerLogBenchmark extends AbstractBenchmark {
+
+	@Param({"100000", "1000000"})
+	private int size;
+
+	@Param({"1", "4", "16"})
+	private int producers;
+
+	private List<Programmer> programmers;
+	private List<Programmer> arrayList;
+	private ProgrammerLog log;
+	private ExecutorService executor;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		arrayList = new ArrayList<>(programmers);
+		log = new ProgrammerLog();
+		ingest(log::add);
+		executor = Executors.newFixedThreadPool(producers);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Benchmark
+	public ProgrammerLog ingestLog() {
+		ProgrammerLog log = new ProgrammerLog();
+		ingest(log::add);
+		return log;
+	}
+
+	@Benchmark
+	public List<Programmer> ingestSynchronizedList() {
+		List<Programmer> list = Collections.synchronizedList(new ArrayList<>());
+		ingest(list::add);
+		return list;
+	}
+
+	@Benchmark
+	public Collection<Programmer> ingestConcurrentLinkedQueue() {
+		Collection<Programmer> queue = new ConcurrentLinkedQueue<>();
+		ingest(queue::add);
+		return queue;
+	}
+
+	@Benchmark
+	public Programmer youngestLogSnapshot() {
+		return ProgrammerQueries.findTheYoungestProgrammerPrimitiveParallel(log.snapshot());
+	}
+
+	@Benchmark
+	public Programmer youngestArrayList() {
+		return ProgrammerQueries.findTheYoungestProgrammerPrimitiveParallel(arrayList);
+	}
+
+	/**
+	 * Adds the programmers from the producer threads, each adding its own slice.
+	 */
+	private void ingest(Consumer<Programmer> sink) {
+		if(executor == null) {
+			programmers.forEach(sink);
+			return;
+		}
+		List<Future<?>> futures = new ArrayList<>(producers);
+		for(int producer = 0; producer < producers; producer++) {
+			List<Programmer> slice = programmers.subList(producer * size / producers, (producer + 1) * size / producers);
+			futures.add(executor.submit(() -> slice.forEach(sink)));
+		}
+		for(Future<?> future : futures) {
+			try {
+				future.get();
+			} catch(Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(ProgrammerLogBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,337 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The query variants compared in {@link LambdaTest}, without any printing or timing so they
+ * can be measured by a benchmark harness.
+ *
+ * @author Aleksander
+ */
+public final class ProgrammerQueries {
+
+	/**
+	 * The youngest programmer, for any {@link QueryExecutor}.
+	 */
+	public static final Query<Programmer> YOUNGEST = Query.maxBy(Comparator.comparing(Programmer::getBirthDate));
+
+	/**
+	 * The programmer with the highest salary, for any {@link QueryExecutor}.
+	 */
+	public static final Query<Programmer> HIGHEST_SALARY = Query.maxBy(Comparator.comparing(Programmer::getSalary));
+
+	private ProgrammerQueries() {
+	}
+
+	/**
+	 * The programmers whose last name contains the given name, for any {@link QueryExecutor}.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public static Query<List<Programmer>> lastNameContains(String name) {
+		return Query.filter(p -> p.getLastName().contains(name));
+	}
+
+	/**
+	 * It finds the youngest programmer by using iterator.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheYoungestProgrammerByIterator(List<Programmer> programmers) {
+		Iterator<Programmer> iter = programmers.iterator();
+		Programmer youngestProgrammer = iter.next();
+
+		while(iter.hasNext()) {
+			Programmer newProgrammer = iter.next();
+			if(newProgrammer.getBirthDate().isAfter(youngestProgrammer.getBirthDate())) {
+				youngestProgrammer = newProgrammer;
+			}
+		}
+		return youngestProgrammer;
+	}
+
+	/**
+	 * It finds the youngest programmer with foreach loop.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheYoungestProgrammerForeachLoop(List<Programmer> programmers) {
+		Programmer youngestProgrammer = programmers.get(0);
+
+		for(Programmer newProgrammer : programmers.subList(1, programmers.size())) {
+			if(newProgrammer.getBirthDate().isAfter(youngestProgrammer.getBirthDate())) {
+				youngestProgrammer = newProgrammer;
+			}
+		}
+		return youngestProgrammer;
+	}
+
+	/**
+	 * It finds the youngest programmer with comparator method for sorting. The given list is
+	 * sorted in place.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheYoungestProgrammerSorting(List<Programmer> programmers) {
+		Collections.sort(programmers, new Comparator<Programmer>() {
+			@Override
+			public int compare(Programmer p1, Programmer p2) {
+				return p1.getBirthDate().compareTo(p2.getBirthDate());
+			}
+		});
+		return programmers.get(programmers.size() - 1);
+	}
+
+	/**
+	 * It finds the youngest programmer using sequential stream.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheYoungestProgrammerLambdaSequential(List<Programmer> programmers) {
+		return programmers.stream().max(Comparator.comparing(Programmer::getBirthDate)).get();
+	}
+
+	/**
+	 * It finds the youngest programmer using parallel streams.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheYoungestProgrammerLambdaParallel(List<Programmer> programmers) {
+		return programmers.parallelStream().max(Comparator.comparing(Programmer::getBirthDate)).get();
+	}
+
+	/**
+	 * It finds the programmer with the highest salary by iterator.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheProgrammerWithHighestSalaryByIterator(List<Programmer> programmers) {
+		Iterator<Programmer> iter = programmers.iterator();
+		Programmer programmerWithHighestSalary = iter.next();
+
+		while(iter.hasNext()) {
+			Programmer newProgrammer = iter.next();
+			if(newProgrammer.getSalary().compareTo(programmerWithHighestSalary.getSalary()) > 0) {
+				programmerWithHighestSalary = newProgrammer;
+			}
+		}
+		return programmerWithHighestSalary;
+	}
+
+	/**
+	 * It finds the programmer with the highest salary by for loop.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheProgrammerWithHighestSalaryForLoop(List<Programmer> programmers) {
+		Programmer programmerWithHighestSalary = programmers.get(0);
+
+		for(Programmer newProgrammer : programmers.subList(1, programmers.size())) {
+			if(newProgrammer.getSalary().compareTo(programmerWithHighestSalary.getSalary()) > 0) {
+				programmerWithHighestSalary = newProgrammer;
+			}
+		}
+		return programmerWithHighestSalary;
+	}
+
+	/**
+	 * It finds the programmer with the highest salary by using comparator and sorting. The given
+	 * list is sorted in place.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheProgrammerWithHighestSalarySorting(List<Programmer> programmers) {
+		Collections.sort(programmers, new Comparator<Programmer>() {
+			@Override
+			public int compare(Programmer p1, Programmer p2) {
+				return p1.getSalary().compareTo(p2.getSalary());
+			}
+		});
+		return programmers.get(programmers.size() - 1);
+	}
+
+	/**
+	 * It finds the programmer with the highest salary by sequential lambda.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheProgrammerWithHighestSalaryLambdaSerial(List<Programmer> programmers) {
+		return programmers.stream().max(Comparator.comparing(Programmer::getSalary)).get();
+	}
+
+	/**
+	 * It finds the programmer with the highest salary by parallel streams.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheProgrammerWithHighestSalaryLambdaParallel(List<Programmer> programmers) {
+		return programmers.parallelStream().max(Comparator.comparing(Programmer::getSalary)).get();
+	}
+
+	/**
+	 * It finds the programmers by name with iterator.
+	 *
+	 * @param name
+	 * @param programmers
+	 * @return
+	 */
+	public static List<Programmer> findTheProgrammersByNameAndIterator(String name, List<Programmer> programmers) {
+		List<Programmer> filteredProgrammers = new ArrayList<>();
+		Iterator<Programmer> iter = programmers.iterator();
+
+		while(iter.hasNext()) {
+			Programmer newProgrammer = iter.next();
+			if(newProgrammer.getLastName().contains(name)) {
+				filteredProgrammers.add(newProgrammer);
+			}
+		}
+		return filteredProgrammers;
+	}
+
+	/**
+	 * It finds the programmers by name with for loop.
+	 *
+	 * @param name
+	 * @param programmers
+	 * @return
+	 */
+	public static List<Programmer> findTheProgrammersByNameAndForLoop(String name, List<Programmer> programmers) {
+		List<Programmer> filteredProgrammers = new ArrayList<>();
+
+		for(Programmer newProgrammer : programmers) {
+			if(newProgrammer.getLastName().contains(name)) {
+				filteredProgrammers.add(newProgrammer);
+			}
+		}
+		return filteredProgrammers;
+	}
+
+	/**
+	 * It finds the programmers by name and sequential stream.
+	 *
+	 * @param name
+	 * @param programmers
+	 * @return
+	 */
+	public static List<Programmer> findTheProgrammersByNameAndLambdaSerial(final String name, List<Programmer> programmers) {
+		return programmers.stream().filter(p -> p.getLastName().contains(name)).collect(Collectors.toList());
+	}
+
+	/**
+	 * It finds the programmers by name and parallel stream.
+	 *
+	 * @param name
+	 * @param programmers
+	 * @return
+	 */
+	public static List<Programmer> findTheProgrammersByNameAndLambdaParallel(final String name, List<Programmer> programmers) {
+		return programmers.parallelStream().filter(p -> p.getLastName().contains(name)).collect(Collectors.toList());
+	}
+
+	/**
+	 * It finds the given number of youngest programmers with bounded heaps in parallel,
+	 * leaving the list untouched.
+	 *
+	 * @param count
+	 * @param programmers
+	 * @return the programmers from the youngest on
+	 */
+	public static List<Programmer> findTheYoungestProgrammers(int count, List<Programmer> programmers) {
+		return Aggregations.topParallel(programmers, count, Comparator.comparing(Programmer::getBirthDate));
+	}
+
+	/**
+	 * It finds the given number of programmers with the highest salaries with bounded heaps in
+	 * parallel, leaving the list untouched.
+	 *
+	 * @param count
+	 * @param programmers
+	 * @return the programmers from the highest salary on
+	 */
+	public static List<Programmer> findTheProgrammersWithHighestSalaries(int count, List<Programmer> programmers) {
+		return Aggregations.topParallel(programmers, count, Comparator.comparing(Programmer::getSalary));
+	}
+
+	/**
+	 * It finds the programmer with the highest salary in cents with a loop, without comparing
+	 * BigDecimals.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheProgrammerWithHighestSalaryInCentsForLoop(List<Programmer> programmers) {
+		Programmer programmerWithHighestSalary = programmers.get(0);
+		long highestSalary = programmerWithHighestSalary.getSalaryInCents();
+
+		for(Programmer newProgrammer : programmers.subList(1, programmers.size())) {
+			long salary = newProgrammer.getSalaryInCents();
+			if(salary > highestSalary) {
+				programmerWithHighestSalary = newProgrammer;
+				highestSalary = salary;
+			}
+		}
+		return programmerWithHighestSalary;
+	}
+
+	/**
+	 * It finds the programmer with the highest salary in cents by parallel streams, converting
+	 * every salary once.
+	 *
+	 * @param programmers
+	 * @return the programmer, or null if there are none
+	 */
+	public static Programmer findTheProgrammerWithHighestSalaryInCentsLambdaParallel(List<Programmer> programmers) {
+		return programmers.parallelStream().collect(ParallelCollectors.maxByLong(Salaries.IN_CENTS));
+	}
+
+	/**
+	 * It finds the youngest programmer by a parallel stream with a tuned leaf size, comparing the
+	 * birth days as primitive keys.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheYoungestProgrammerPrimitiveParallel(List<Programmer> programmers) {
+		return ParallelCollectors.parallelStream(programmers)
+				.collect(ParallelCollectors.maxByLong(p -> p.getBirthDate().toEpochDay()));
+	}
+
+	/**
+	 * It finds the programmer with the highest salary by a parallel stream with a tuned leaf
+	 * size, comparing the salaries in cents as primitive keys.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static Programmer findTheProgrammerWithHighestSalaryPrimitiveParallel(List<Programmer> programmers) {
+		return ParallelCollectors.parallelStream(programmers).collect(ParallelCollectors.maxByLong(Salaries.IN_CENTS));
+	}
+
+	/**
+	 * It finds the programmers by name with a parallel filter writing into one presized array.
+	 *
+	 * @param name
+	 * @param programmers
+	 * @return
+	 */
+	public static List<Programmer> findTheProgrammersByNamePresizedParallel(String name, List<Programmer> programmers) {
+		return ParallelCollectors.filter(programmers, p -> p.getLastName().contains(name));
+	}
+
+}
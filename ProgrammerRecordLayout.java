@@ -0,0 +1,179 @@
+package domain;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Fixed-width binary layout of one programmer. The names are stored as ISO-8859-1 bytes padded
+ * with zeros to the name width of the dataset. A language that is not one of the enum constants
+ * is stored as -1 and read back as null.
+ *
+ * <pre>
+ * offset  size   field
+ * 0       4      birth date, epoch day
+ * 4       4      programming start date, epoch day
+ * 8       8      salary in cents
+ * 16      1      ordinal of the primary language, -1 if none
+ * 17      width  first name
+ * 17+w    width  last name
+ * </pre>
+ *
+ * @author Aleksander
+ */
+public final class ProgrammerRecordLayout {
+
+	static final int BIRTH_DATE = 0;
+	static final int PROGRAMMING_START_DATE = 4;
+	static final int SALARY = 8;
+	static final int LANGUAGE = 16;
+	static final int FIRST_NAME = 17;
+
+	private static final ProgrammingLanguages[] LANGUAGES = ProgrammingLanguages.values();
+	private static final byte NO_LANGUAGE = -1;
+
+	private final int nameWidth;
+	private final int recordSize;
+
+	public ProgrammerRecordLayout(int nameWidth) {
+		if(nameWidth < 0) {
+			throw new IllegalArgumentException("Negative name width: " + nameWidth);
+		}
+		this.nameWidth = nameWidth;
+		this.recordSize = FIRST_NAME + 2 * nameWidth;
+	}
+
+	public int getNameWidth() {
+		return nameWidth;
+	}
+
+	public int getRecordSize() {
+		return recordSize;
+	}
+
+	int lastNameOffset() {
+		return FIRST_NAME + nameWidth;
+	}
+
+	/**
+	 * Writes the programmer at the given absolute position.
+	 *
+	 * @param buffer
+	 * @param position
+	 * @param programmer
+	 */
+	void write(ByteBuffer buffer, int position, Programmer programmer) {
+		buffer.putInt(position + BIRTH_DATE, (int) programmer.getBirthDate().toEpochDay());
+		buffer.putInt(position + PROGRAMMING_START_DATE, (int) programmer.getProgrammingStartDate().toEpochDay());
+		buffer.putLong(position + SALARY, programmer.getSalaryInCents());
+		ProgrammingLanguages language = programmer.getLanguage();
+		buffer.put(position + LANGUAGE, language == null ? NO_LANGUAGE : (byte) language.ordinal());
+		writeName(buffer, position + FIRST_NAME, programmer.getFirstName());
+		writeName(buffer, position + lastNameOffset(), programmer.getLastName());
+	}
+
+	private void writeName(ByteBuffer buffer, int position, String name) {
+		byte[] bytes = encode(name);
+		if(bytes.length > nameWidth) {
+			throw new IllegalArgumentException("Name longer than " + nameWidth + " bytes: " + name);
+		}
+		for(int i = 0; i < nameWidth; i++) {
+			buffer.put(position + i, i < bytes.length ? bytes[i] : 0);
+		}
+	}
+
+	/**
+	 * Encodes a name for the layout.
+	 *
+	 * @param name
+	 * @return
+	 */
+	static byte[] encode(String name) {
+		for(int i = 0; i < name.length(); i++) {
+			if(name.charAt(i) == 0 || name.charAt(i) > 0xFF) {
+				throw new IllegalArgumentException("Name is not storable as ISO-8859-1: " + name);
+			}
+		}
+		return name.getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+	int birthDay(ByteBuffer buffer, int position) {
+		return buffer.getInt(position + BIRTH_DATE);
+	}
+
+	int programmingStartDay(ByteBuffer buffer, int position) {
+		return buffer.getInt(position + PROGRAMMING_START_DATE);
+	}
+
+	long salaryInCents(ByteBuffer buffer, int position) {
+		return buffer.getLong(position + SALARY);
+	}
+
+	ProgrammingLanguages language(ByteBuffer buffer, int position) {
+		byte ordinal = buffer.get(position + LANGUAGE);
+		return ordinal == NO_LANGUAGE ? null : LANGUAGES[ordinal];
+	}
+
+	String firstName(ByteBuffer buffer, int position) {
+		return readName(buffer, position + FIRST_NAME);
+	}
+
+	String lastName(ByteBuffer buffer, int position) {
+		return readName(buffer, position + lastNameOffset());
+	}
+
+	private String readName(ByteBuffer buffer, int position) {
+		int length = nameLength(buffer, position);
+		byte[] bytes = new byte[length];
+		for(int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(position + i);
+		}
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+
+	private int nameLength(ByteBuffer buffer, int position) {
+		int length = 0;
+		while(length < nameWidth && buffer.get(position + length) != 0) {
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * Checks if the last name at the given position contains the encoded name.
+	 *
+	 * @param buffer
+	 * @param position
+	 * @param name
+	 * @return
+	 */
+	boolean lastNameContains(ByteBuffer buffer, int position, byte[] name) {
+		int start = position + lastNameOffset();
+		int last = nameLength(buffer, start) - name.length;
+		for(int from = 0; from <= last; from++) {
+			int i = 0;
+			while(i < name.length && buffer.get(start + from + i) == name[i]) {
+				i++;
+			}
+			if(i == name.length) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Builds a programmer object from the record at the given position.
+	 *
+	 * @param buffer
+	 * @param position
+	 * @return
+	 */
+	Programmer read(ByteBuffer buffer, int position) {
+		ProgrammingLanguages language = language(buffer, position);
+		return new Programmer(firstName(buffer, position), lastName(buffer, position),
+				LocalDate.ofEpochDay(birthDay(buffer, position)), language == null ? null : language.toString(),
+				LocalDate.ofEpochDay(programmingStartDay(buffer, position)), Salaries.fromCents(salaryInCents(buffer, position)));
+	}
+
+}
@@ -0,0 +1,111 @@
+package domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flyweight programmer over one row of {@link ProgrammerRecords}. The getters decode the fields
+ * from the record on every call instead of holding them, so views can be created, or moved to
+ * another row, without copying the data onto the heap. The records are read-only: every setter
+ * throws {@link UnsupportedOperationException}.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerRecordView extends Programmer {
+
+	private final ProgrammerRecords records;
+	private long row;
+
+	ProgrammerRecordView(ProgrammerRecords records, long row) {
+		super(null, null, null, null, null, null);
+		this.records = records;
+		this.row = row;
+	}
+
+	public long getRow() {
+		return row;
+	}
+
+	/**
+	 * Points the view to another row, so a scan can reuse one view for all records.
+	 *
+	 * @param row
+	 * @return this view
+	 */
+	public ProgrammerRecordView moveTo(long row) {
+		this.row = row;
+		return this;
+	}
+
+	@Override
+	public String getFirstName() {
+		return records.getFirstName(row);
+	}
+
+	@Override
+	public String getLastName() {
+		return records.getLastName(row);
+	}
+
+	@Override
+	public LocalDate getBirthDate() {
+		return records.getBirthDate(row);
+	}
+
+	@Override
+	public String getPrimaryLanguage() {
+		ProgrammingLanguages language = records.getLanguage(row);
+		return language == null ? null : language.toString();
+	}
+
+	@Override
+	public ProgrammingLanguages getLanguage() {
+		return records.getLanguage(row);
+	}
+
+	@Override
+	public LocalDate getProgrammingStartDate() {
+		return LocalDate.ofEpochDay(records.getProgrammingStartDay(row));
+	}
+
+	@Override
+	public BigDecimal getSalary() {
+		return Salaries.fromCents(records.getSalaryInCents(row));
+	}
+
+	@Override
+	public long getSalaryInCents() {
+		return records.getSalaryInCents(row);
+	}
+
+	@Override
+	public void setFirstName(String firstName) {
+		throw new UnsupportedOperationException("Records are read-only");
+	}
+
+	@Override
+	public void setLastName(String lastName) {
+		throw new UnsupportedOperationException("Records are read-only");
+	}
+
+	@Override
+	public void setBirthDate(LocalDate birthDate) {
+		throw new UnsupportedOperationException("Records are read-only");
+	}
+
+	@Override
+	public void setPrimaryLanguage(String primaryLanguage) {
+		throw new UnsupportedOperationException("Records are read-only");
+	}
+
+	@Override
+	public void setProgrammingStartDate(LocalDate programmingStartDate) {
+		throw new UnsupportedOperationException("Records are read-only");
+	}
+
+	@Override
+	public void setSalary(BigDecimal salary) {
+		throw new UnsupportedOperationException("Records are read-only");
+	}
+
+}
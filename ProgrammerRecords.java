@@ -0,0 +1,282 @@
+package domain;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Programmers stored as fixed-width records in a sequence of byte buffers, for example the
+ * mapped regions of a snapshot file. Every buffer holds the same number of whole records, so a
+ * row never spans two buffers and parallel scans split on record boundaries. The queries read
+ * the fields in place without building programmer objects.
+ *
+ * {@link #close()} releases the direct buffers or unmaps the file right away instead of waiting
+ * for the garbage collector to notice the unreachable buffers, which can take long since they
+ * hardly occupy the heap. The records and their views must not be used after closing, nor closed
+ * while a query runs.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerRecords implements AutoCloseable {
+
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			Class<?> type = Class.forName("sun.misc.Unsafe");
+			Field field = type.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+			invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+		} catch(ReflectiveOperationException | RuntimeException e) {
+			//without the jdk.unsupported module the buffers are released by the garbage collector
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private final ProgrammerRecordLayout layout;
+	private final ByteBuffer[] segments;
+	private final int recordsPerSegment;
+	private final long size;
+
+	ProgrammerRecords(ProgrammerRecordLayout layout, ByteBuffer[] segments, int recordsPerSegment, long size) {
+		this.layout = layout;
+		this.segments = segments;
+		this.recordsPerSegment = recordsPerSegment;
+		this.size = size;
+	}
+
+	/**
+	 * Number of records that fit into one buffer of at most 2 GB.
+	 *
+	 * @param layout
+	 * @return
+	 */
+	static int recordsPerSegment(ProgrammerRecordLayout layout) {
+		return (Integer.MAX_VALUE - 8) / layout.getRecordSize();
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public ProgrammerRecordLayout getLayout() {
+		return layout;
+	}
+
+	ByteBuffer segment(long row) {
+		return segments[(int) (row / recordsPerSegment)];
+	}
+
+	int position(long row) {
+		return (int) (row % recordsPerSegment) * layout.getRecordSize();
+	}
+
+	/**
+	 * Builds a programmer object from the given row.
+	 *
+	 * @param row
+	 * @return
+	 */
+	public Programmer getProgrammer(long row) {
+		return layout.read(segment(row), position(row));
+	}
+
+	/**
+	 * Builds the programmer objects lazily as the stream pulls the rows, so the records can be
+	 * scanned with constant heap no matter how many there are.
+	 *
+	 * @return an ordered, sized stream
+	 */
+	public Stream<Programmer> stream() {
+		return LongStream.range(0, size).mapToObj(this::getProgrammer);
+	}
+
+	/**
+	 * A flyweight programmer whose getters read the given row in place.
+	 *
+	 * @param row
+	 * @return
+	 */
+	public ProgrammerRecordView view(long row) {
+		return new ProgrammerRecordView(this, row);
+	}
+
+	/**
+	 * The records as a read-only list of flyweights, so the list based queries run over them
+	 * without copying. A flyweight is created on every {@link List#get(int)}, so the queries of
+	 * this class, which read the records in place, are much cheaper.
+	 *
+	 * @return
+	 * @throws IllegalStateException if there are more records than a list can hold
+	 */
+	public List<Programmer> asList() {
+		if(size > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Too many records for a list: " + size);
+		}
+		return new RecordList();
+	}
+
+	public int getBirthDay(long row) {
+		return layout.birthDay(segment(row), position(row));
+	}
+
+	public LocalDate getBirthDate(long row) {
+		return LocalDate.ofEpochDay(getBirthDay(row));
+	}
+
+	public int getProgrammingStartDay(long row) {
+		return layout.programmingStartDay(segment(row), position(row));
+	}
+
+	/**
+	 * @param row
+	 * @return the language, or null if it is not one of the enum constants
+	 */
+	public ProgrammingLanguages getLanguage(long row) {
+		return layout.language(segment(row), position(row));
+	}
+
+	public String getFirstName(long row) {
+		return layout.firstName(segment(row), position(row));
+	}
+
+	public long getSalaryInCents(long row) {
+		return layout.salaryInCents(segment(row), position(row));
+	}
+
+	public String getLastName(long row) {
+		return layout.lastName(segment(row), position(row));
+	}
+
+	/**
+	 * It finds the row of the youngest programmer with a loop over the records.
+	 *
+	 * @return the row, or -1 if there are no records
+	 */
+	public long findTheYoungestProgrammerLoop() {
+		long youngest = -1;
+		int youngestDay = Integer.MIN_VALUE;
+		for(long row = 0; row < size; row++) {
+			int day = getBirthDay(row);
+			if(youngest < 0 || day > youngestDay) {
+				youngest = row;
+				youngestDay = day;
+			}
+		}
+		return youngest;
+	}
+
+	/**
+	 * It finds the row of the youngest programmer with a parallel stream over the rows.
+	 *
+	 * @return the row, or -1 if there are no records
+	 */
+	public long findTheYoungestProgrammerLambdaParallel() {
+		return LongStream.range(0, size).parallel()
+				.reduce((a, b) -> getBirthDay(b) > getBirthDay(a) ? b : a)
+				.orElse(-1);
+	}
+
+	/**
+	 * It finds the row of the programmer with the highest salary with a loop over the records.
+	 *
+	 * @return the row, or -1 if there are no records
+	 */
+	public long findTheProgrammerWithHighestSalaryLoop() {
+		long highest = -1;
+		long highestSalary = Long.MIN_VALUE;
+		for(long row = 0; row < size; row++) {
+			long salary = getSalaryInCents(row);
+			if(highest < 0 || salary > highestSalary) {
+				highest = row;
+				highestSalary = salary;
+			}
+		}
+		return highest;
+	}
+
+	/**
+	 * It finds the row of the programmer with the highest salary with a parallel stream over the
+	 * rows.
+	 *
+	 * @return the row, or -1 if there are no records
+	 */
+	public long findTheProgrammerWithHighestSalaryLambdaParallel() {
+		return LongStream.range(0, size).parallel()
+				.reduce((a, b) -> getSalaryInCents(b) > getSalaryInCents(a) ? b : a)
+				.orElse(-1);
+	}
+
+	/**
+	 * It finds the rows whose last name contains the given name, comparing the raw bytes.
+	 *
+	 * @param name
+	 * @return the ascending rows
+	 */
+	public LongStream findTheProgrammersByName(String name) {
+		byte[] encoded = ProgrammerRecordLayout.encode(name);
+		return LongStream.range(0, size).filter(row -> layout.lastNameContains(segment(row), position(row), encoded));
+	}
+
+	/**
+	 * Releases the buffers of the records. Closing again does nothing.
+	 */
+	@Override
+	public synchronized void close() {
+		for(int segment = 0; segment < segments.length; segment++) {
+			if(segments[segment] != null) {
+				free(segments[segment]);
+				segments[segment] = null;
+			}
+		}
+	}
+
+	private static void free(ByteBuffer buffer) {
+		if(INVOKE_CLEANER == null || !buffer.isDirect()) {
+			return;
+		}
+		try {
+			INVOKE_CLEANER.invoke(UNSAFE, buffer);
+		} catch(ReflectiveOperationException e) {
+			//left to the garbage collector
+		}
+	}
+
+	/**
+	 * It finds the rows whose last name contains the given name with a parallel stream.
+	 *
+	 * @param name
+	 * @return the ascending rows
+	 */
+	public long[] findTheProgrammersByNameParallel(String name) {
+		return findTheProgrammersByName(name).parallel().toArray();
+	}
+
+	private final class RecordList extends AbstractList<Programmer> implements RandomAccess {
+
+		@Override
+		public Programmer get(int index) {
+			if(index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+			}
+			return view(index);
+		}
+
+		@Override
+		public int size() {
+			return (int) size;
+		}
+	}
+
+}
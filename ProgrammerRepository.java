@@ -0,0 +1,327 @@
+package domain;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Mutable collection of programmers that keeps the youngest, oldest, highest and lowest salary
+ * and the count per language up to date on every change, instead of scanning on every query.
+ * Additions, removals and updates cost O(log n) and the aggregate queries O(log n) or less.
+ *
+ * Readers share a read lock and writers take the write lock, so the class is safe for any
+ * number of concurrent readers and writers. A programmer must only be changed through
+ * {@link #update(long, Consumer)}; changes made directly through its setters are not seen by
+ * the aggregates. A programmer that cannot be indexed, for example without a birth date or
+ * with fractions of a cent in its salary, is rejected and leaves the repository unchanged.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerRepository {
+
+	/**
+	 * Receives the changes of a repository. The methods are called while the write lock is
+	 * held, in the order of the changes, so they should return quickly.
+	 */
+	public interface Listener {
+
+		void added(long id, Programmer programmer);
+
+		void removed(long id, Programmer programmer);
+
+		void updated(long id, Programmer programmer);
+	}
+
+	private static final Comparator<Entry> BY_BIRTH_DATE =
+			Comparator.comparing((Entry entry) -> entry.birthDate).thenComparingLong(entry -> entry.id);
+	private static final Comparator<Entry> BY_SALARY =
+			Comparator.comparingLong((Entry entry) -> entry.salaryInCents).thenComparingLong(entry -> entry.id);
+	private static final Comparator<String> BY_LANGUAGE = Comparator.nullsLast(Comparator.naturalOrder());
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, Entry> entries = new HashMap<>();
+	private final TreeSet<Entry> byBirthDate = new TreeSet<>(BY_BIRTH_DATE);
+	private final TreeSet<Entry> bySalary = new TreeSet<>(BY_SALARY);
+	private final Map<String, Integer> languageCounts = new HashMap<>();
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private long nextId;
+	private long version;
+
+	/**
+	 * A programmer with the keys it is indexed under, captured when it was last indexed.
+	 */
+	private static final class Entry {
+
+		private final long id;
+		private final Programmer programmer;
+		private LocalDate birthDate;
+		private long salaryInCents;
+		private String language;
+
+		Entry(long id, Programmer programmer) {
+			this.id = id;
+			this.programmer = programmer;
+		}
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Adds a programmer.
+	 *
+	 * @param programmer
+	 * @return the id of the programmer in this repository
+	 * @throws NullPointerException if the programmer has no birth date or salary
+	 * @throws ArithmeticException if the salary has fractions of a cent
+	 */
+	public long add(Programmer programmer) {
+		lock.writeLock().lock();
+		try {
+			Entry entry = new Entry(nextId, programmer);
+			capture(entry);
+			nextId++;
+			index(entry);
+			entries.put(entry.id, entry);
+			version++;
+			for(Listener listener : listeners) {
+				listener.added(entry.id, programmer);
+			}
+			return entry.id;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Adds all given programmers.
+	 *
+	 * @param programmers
+	 */
+	public void addAll(Collection<Programmer> programmers) {
+		for(Programmer programmer : programmers) {
+			add(programmer);
+		}
+	}
+
+	/**
+	 * Removes the programmer with the given id.
+	 *
+	 * @param id
+	 * @return false if there is no such programmer
+	 */
+	public boolean remove(long id) {
+		lock.writeLock().lock();
+		try {
+			Entry entry = entries.remove(id);
+			if(entry == null) {
+				return false;
+			}
+			unindex(entry);
+			version++;
+			for(Listener listener : listeners) {
+				listener.removed(id, entry.programmer);
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Changes the programmer with the given id, for example through its setters, and updates
+	 * the aggregates. If the change throws or leaves the programmer without valid keys, the
+	 * programmer stays indexed under its previous keys, the listeners are not called and the
+	 * exception is rethrown; the version grows anyway, since the programmer may have been
+	 * changed partly.
+	 *
+	 * @param id
+	 * @param change
+	 * @return false if there is no such programmer
+	 * @throws NullPointerException if the programmer has no birth date or salary after the change
+	 * @throws ArithmeticException if the salary has fractions of a cent after the change
+	 */
+	public boolean update(long id, Consumer<Programmer> change) {
+		lock.writeLock().lock();
+		try {
+			Entry entry = entries.get(id);
+			if(entry == null) {
+				return false;
+			}
+			LocalDate birthDate = entry.birthDate;
+			long salaryInCents = entry.salaryInCents;
+			String language = entry.language;
+			unindex(entry);
+			boolean changed = false;
+			try {
+				change.accept(entry.programmer);
+				capture(entry);
+				changed = true;
+			} finally {
+				if(!changed) {
+					entry.birthDate = birthDate;
+					entry.salaryInCents = salaryInCents;
+					entry.language = language;
+				}
+				index(entry);
+				version++;
+			}
+			for(Listener listener : listeners) {
+				listener.updated(id, entry.programmer);
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Reads the keys of the programmer into the entry; the entry is only changed if all of them
+	 * are valid.
+	 */
+	private static void capture(Entry entry) {
+		LocalDate birthDate = Objects.requireNonNull(entry.programmer.getBirthDate(), "birthDate");
+		long salaryInCents = entry.programmer.getSalaryInCents();
+		String language = entry.programmer.getPrimaryLanguage();
+		entry.birthDate = birthDate;
+		entry.salaryInCents = salaryInCents;
+		entry.language = language;
+	}
+
+	/**
+	 * Adds the entry to the aggregates under its captured keys, which cannot fail.
+	 */
+	private void index(Entry entry) {
+		byBirthDate.add(entry);
+		bySalary.add(entry);
+		languageCounts.merge(entry.language, 1, Integer::sum);
+	}
+
+	private void unindex(Entry entry) {
+		byBirthDate.remove(entry);
+		bySalary.remove(entry);
+		languageCounts.computeIfPresent(entry.language, (language, count) -> count == 1 ? null : count - 1);
+	}
+
+	public Programmer get(long id) {
+		lock.readLock().lock();
+		try {
+			Entry entry = entries.get(id);
+			return entry == null ? null : entry.programmer;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Number of changes made so far; it grows with every addition, removal and update.
+	 *
+	 * @return
+	 */
+	public long version() {
+		lock.readLock().lock();
+		try {
+			return version;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * It finds the youngest programmer; the first one added wins on ties, like the list queries.
+	 *
+	 * @return the programmer, or null if the repository is empty
+	 */
+	public Programmer findTheYoungestProgrammer() {
+		return programmer(byBirthDate, true);
+	}
+
+	/**
+	 * It finds the oldest programmer; the first one added wins on ties.
+	 *
+	 * @return the programmer, or null if the repository is empty
+	 */
+	public Programmer findTheOldestProgrammer() {
+		return programmer(byBirthDate, false);
+	}
+
+	/**
+	 * It finds the programmer with the highest salary; the first one added wins on ties.
+	 *
+	 * @return the programmer, or null if the repository is empty
+	 */
+	public Programmer findTheProgrammerWithHighestSalary() {
+		return programmer(bySalary, true);
+	}
+
+	/**
+	 * It finds the programmer with the lowest salary; the first one added wins on ties.
+	 *
+	 * @return the programmer, or null if the repository is empty
+	 */
+	public Programmer findTheProgrammerWithLowestSalary() {
+		return programmer(bySalary, false);
+	}
+
+	private Programmer programmer(TreeSet<Entry> index, boolean last) {
+		lock.readLock().lock();
+		try {
+			if(index.isEmpty()) {
+				return null;
+			}
+			if(!last) {
+				return index.first().programmer;
+			}
+			//the entries are ordered by id within equal keys, so the first added is the lowest
+			Entry highest = index.last();
+			Entry probe = new Entry(-1, null);
+			probe.birthDate = highest.birthDate;
+			probe.salaryInCents = highest.salaryInCents;
+			return index.ceiling(probe).programmer;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Counts the programmers per primary language.
+	 *
+	 * @return a sorted copy of the counts; programmers without a language are counted under a
+	 * null key at the end
+	 */
+	public Map<String, Integer> countByLanguage() {
+		lock.readLock().lock();
+		try {
+			Map<String, Integer> counts = new TreeMap<>(BY_LANGUAGE);
+			counts.putAll(languageCounts);
+			return counts;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package domain;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Single pass over a stream of programmers that answers the youngest programmer, the highest
+ * salary and the last name filter at once. Only the two current winners and a few counters are
+ * kept; the programmers matching the filter are handed to a sink instead of being collected, so
+ * the memory used does not depend on the number of programmers.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerScan implements Consumer<Programmer> {
+
+	private final String name;
+	private final Consumer<? super Programmer> sink;
+
+	private long count;
+	private long matches;
+	private Programmer youngest;
+	private Programmer highestSalary;
+	private long highestSalaryInCents;
+
+	ProgrammerScan(String name, Consumer<? super Programmer> sink) {
+		this.name = name;
+		this.sink = sink;
+	}
+
+	/**
+	 * Scans the given stream once. The first programmer in encounter order wins on ties, as in
+	 * the list based finders. If the stream is parallel the sink is called from several threads
+	 * and has to be thread-safe.
+	 *
+	 * @param programmers
+	 * @param name the last name filter
+	 * @param sink receives every programmer whose last name contains the name
+	 * @return
+	 */
+	public static ProgrammerScan scan(Stream<? extends Programmer> programmers, String name, Consumer<? super Programmer> sink) {
+		return programmers.collect(() -> new ProgrammerScan(name, sink), ProgrammerScan::accept, ProgrammerScan::combine);
+	}
+
+	@Override
+	public void accept(Programmer programmer) {
+		count++;
+		if(youngest == null || programmer.getBirthDate().isAfter(youngest.getBirthDate())) {
+			youngest = programmer;
+		}
+		long salary = programmer.getSalaryInCents();
+		if(highestSalary == null || salary > highestSalaryInCents) {
+			highestSalary = programmer;
+			highestSalaryInCents = salary;
+		}
+		if(programmer.getLastName().contains(name)) {
+			matches++;
+			sink.accept(programmer);
+		}
+	}
+
+	/**
+	 * Merges the scan of the following part of the stream into this one.
+	 *
+	 * @param other
+	 */
+	void combine(ProgrammerScan other) {
+		count += other.count;
+		matches += other.matches;
+		if(youngest == null || other.youngest != null && other.youngest.getBirthDate().isAfter(youngest.getBirthDate())) {
+			youngest = other.youngest;
+		}
+		if(highestSalary == null || other.highestSalary != null && other.highestSalaryInCents > highestSalaryInCents) {
+			highestSalary = other.highestSalary;
+			highestSalaryInCents = other.highestSalaryInCents;
+		}
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMatches() {
+		return matches;
+	}
+
+	/**
+	 * @return the youngest programmer, or null if the stream was empty
+	 */
+	public Programmer getYoungest() {
+		return youngest;
+	}
+
+	/**
+	 * @return the programmer with the highest salary, or null if the stream was empty
+	 */
+	public Programmer getHighestSalary() {
+		return highestSalary;
+	}
+
+}
@@ -0,0 +1,146 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Binary snapshot file of a programmer dataset. The file starts with a 32 byte header followed
+ * by the fixed-width records of {@link ProgrammerRecordLayout}. Opening a snapshot maps the file
+ * instead of reading it, so it is ready for queries right away.
+ *
+ * <pre>
+ * offset  size  field
+ * 0       4     magic "PRGM"
+ * 4       4     format version
+ * 8       8     number of records
+ * 16      4     name width
+ * 20      12    reserved
+ * </pre>
+ *
+ * @author Aleksander
+ */
+public final class ProgrammerSnapshot {
+
+	static final int MAGIC = 0x5052474D;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 32;
+
+	private static final int RECORDS_PER_WRITE = 8192;
+
+	private ProgrammerSnapshot() {
+	}
+
+	/**
+	 * Writes the programmers to the given file, replacing it.
+	 *
+	 * @param programmers
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void write(List<Programmer> programmers, Path file) throws IOException {
+		int nameWidth = 0;
+		for(Programmer programmer : programmers) {
+			nameWidth = Math.max(nameWidth, Math.max(programmer.getFirstName().length(), programmer.getLastName().length()));
+		}
+		write(programmers.iterator(), nameWidth, file);
+	}
+
+	/**
+	 * Writes the programmers to the given file as they are pulled from the iterator, replacing
+	 * the file. The number of records goes into the header at the end, so the programmers do not
+	 * have to be counted or held in memory first.
+	 *
+	 * @param programmers
+	 * @param nameWidth the longest first or last name
+	 * @param file
+	 * @return the number of records written
+	 * @throws IOException
+	 */
+	public static long write(Iterator<? extends Programmer> programmers, int nameWidth, Path file) throws IOException {
+		ProgrammerRecordLayout layout = new ProgrammerRecordLayout(nameWidth);
+
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel.position(HEADER_SIZE);
+
+			ByteBuffer batch = ByteBuffer.allocateDirect(RECORDS_PER_WRITE * layout.getRecordSize()).order(ByteOrder.LITTLE_ENDIAN);
+			long size = 0;
+			int records = 0;
+			while(programmers.hasNext()) {
+				layout.write(batch, records * layout.getRecordSize(), programmers.next());
+				size++;
+				if(++records == RECORDS_PER_WRITE) {
+					batch.limit(records * layout.getRecordSize()).position(0);
+					writeFully(channel, batch);
+					batch.clear();
+					records = 0;
+				}
+			}
+			batch.limit(records * layout.getRecordSize()).position(0);
+			writeFully(channel, batch);
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putLong(size).putInt(nameWidth);
+			header.clear();
+			channel.position(0);
+			writeFully(channel, header);
+			return size;
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Maps the given snapshot file for reading.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException if the file cannot be read or is not a snapshot
+	 */
+	public static ProgrammerRecords map(Path file) throws IOException {
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while(header.hasRemaining()) {
+				if(channel.read(header, header.position()) < 0) {
+					throw new IOException("Truncated snapshot header: " + file);
+				}
+			}
+			header.flip();
+			if(header.getInt() != MAGIC) {
+				throw new IOException("Not a programmer snapshot: " + file);
+			}
+			int version = header.getInt();
+			if(version != VERSION) {
+				throw new IOException("Unsupported snapshot version " + version + ": " + file);
+			}
+			long size = header.getLong();
+			ProgrammerRecordLayout layout = new ProgrammerRecordLayout(header.getInt());
+			if(channel.size() < HEADER_SIZE + size * layout.getRecordSize()) {
+				throw new IOException("Truncated snapshot: " + file);
+			}
+
+			int recordsPerSegment = ProgrammerRecords.recordsPerSegment(layout);
+			int segmentCount = (int) ((size + recordsPerSegment - 1) / recordsPerSegment);
+			ByteBuffer[] segments = new ByteBuffer[segmentCount];
+			for(int segment = 0; segment < segmentCount; segment++) {
+				long firstRow = (long) segment * recordsPerSegment;
+				long rows = Math.min(recordsPerSegment, size - firstRow);
+				segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY,
+						HEADER_SIZE + firstRow * layout.getRecordSize(), rows * layout.getRecordSize())
+						.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			return new ProgrammerRecords(layout, segments, recordsPerSegment, size);
+		}
+	}
+
+}
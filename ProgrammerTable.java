@@ -0,0 +1,246 @@
+package domain;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Column oriented copy of a list of programmers. Every property is kept in a primitive array
+ * indexed by row: dates as epoch days, the salary in cents, the language as the
+ * ordinal of {@link ProgrammingLanguages} and all names in one UTF-8 byte arena. A language
+ * that is not one of the enum constants is kept as null.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerTable {
+
+	private static final ProgrammingLanguages[] LANGUAGES = ProgrammingLanguages.values();
+	private static final byte NO_LANGUAGE = -1;
+
+	private final int size;
+	private final int[] birthDates;
+	private final int[] programmingStartDates;
+	private final long[] salaries;
+	private final byte[] languages;
+	private final byte[] names;
+	private final int[] nameOffsets;
+
+	private ProgrammerTable(int size, int[] birthDates, int[] programmingStartDates, long[] salaries,
+			byte[] languages, byte[] names, int[] nameOffsets) {
+		this.size = size;
+		this.birthDates = birthDates;
+		this.programmingStartDates = programmingStartDates;
+		this.salaries = salaries;
+		this.languages = languages;
+		this.names = names;
+		this.nameOffsets = nameOffsets;
+	}
+
+	/**
+	 * Copies the given programmers into a new table. Salaries are kept in cents.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static ProgrammerTable of(List<Programmer> programmers) {
+		int size = programmers.size();
+		int[] birthDates = new int[size];
+		int[] programmingStartDates = new int[size];
+		long[] salaries = new long[size];
+		byte[] languages = new byte[size];
+		int[] nameOffsets = new int[2 * size + 1];
+
+		NameArena names = new NameArena((int) Math.min(Integer.MAX_VALUE - 8, 32L * size));
+		for(int row = 0; row < size; row++) {
+			Programmer programmer = programmers.get(row);
+			birthDates[row] = (int) programmer.getBirthDate().toEpochDay();
+			programmingStartDates[row] = (int) programmer.getProgrammingStartDate().toEpochDay();
+			salaries[row] = programmer.getSalaryInCents();
+			ProgrammingLanguages language = programmer.getLanguage();
+			languages[row] = language == null ? NO_LANGUAGE : (byte) language.ordinal();
+			nameOffsets[2 * row] = names.append(programmer.getFirstName());
+			nameOffsets[2 * row + 1] = names.append(programmer.getLastName());
+		}
+		nameOffsets[2 * size] = names.length;
+
+		return new ProgrammerTable(size, birthDates, programmingStartDates, salaries, languages, names.toArray(), nameOffsets);
+	}
+
+	/**
+	 * Growable byte buffer the names are appended to while the table is built.
+	 */
+	private static final class NameArena {
+
+		private byte[] bytes;
+		private int length;
+
+		NameArena(int initialCapacity) {
+			bytes = new byte[Math.max(16, initialCapacity)];
+		}
+
+		int append(String name) {
+			byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+			if(length + encoded.length > bytes.length) {
+				long grown = Math.max(2L * bytes.length, (long) length + encoded.length);
+				if(grown > Integer.MAX_VALUE - 8) {
+					throw new IllegalArgumentException("Names do not fit into one arena");
+				}
+				bytes = Arrays.copyOf(bytes, (int) grown);
+			}
+			int offset = length;
+			System.arraycopy(encoded, 0, bytes, offset, encoded.length);
+			length += encoded.length;
+			return offset;
+		}
+
+		byte[] toArray() {
+			return Arrays.copyOf(bytes, length);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public LocalDate getBirthDate(int row) {
+		return LocalDate.ofEpochDay(birthDates[row]);
+	}
+
+	public LocalDate getProgrammingStartDate(int row) {
+		return LocalDate.ofEpochDay(programmingStartDates[row]);
+	}
+
+	public BigDecimal getSalary(int row) {
+		return Salaries.fromCents(salaries[row]);
+	}
+
+	/**
+	 * @param row
+	 * @return the language, or null if it is not one of the enum constants
+	 */
+	public ProgrammingLanguages getPrimaryLanguage(int row) {
+		byte ordinal = languages[row];
+		return ordinal == NO_LANGUAGE ? null : LANGUAGES[ordinal];
+	}
+
+	public String getFirstName(int row) {
+		return name(2 * row);
+	}
+
+	public String getLastName(int row) {
+		return name(2 * row + 1);
+	}
+
+	private String name(int index) {
+		int from = nameOffsets[index];
+		return new String(names, from, nameOffsets[index + 1] - from, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Builds a programmer object from the given row.
+	 *
+	 * @param row
+	 * @return
+	 */
+	public Programmer toProgrammer(int row) {
+		ProgrammingLanguages language = getPrimaryLanguage(row);
+		return new Programmer(getFirstName(row), getLastName(row), getBirthDate(row),
+				language == null ? null : language.toString(), getProgrammingStartDate(row), getSalary(row));
+	}
+
+	/**
+	 * It finds the row of the youngest programmer with a loop over the birth date column. The
+	 * first row wins on ties, like {@link ProgrammerQueries#findTheYoungestProgrammerForeachLoop(List)}.
+	 *
+	 * @return the row, or -1 if the table is empty
+	 */
+	public int findTheYoungestProgrammerLoop() {
+		if(size == 0) {
+			return -1;
+		}
+		int youngest = 0;
+		for(int row = 1; row < size; row++) {
+			if(birthDates[row] > birthDates[youngest]) {
+				youngest = row;
+			}
+		}
+		return youngest;
+	}
+
+	/**
+	 * It finds the row of the youngest programmer using a sequential stream.
+	 *
+	 * @return the row, or -1 if the table is empty
+	 */
+	public int findTheYoungestProgrammerLambdaSequential() {
+		return maxRow(IntStream.range(0, size), birthDates);
+	}
+
+	/**
+	 * It finds the row of the youngest programmer using a parallel stream.
+	 *
+	 * @return the row, or -1 if the table is empty
+	 */
+	public int findTheYoungestProgrammerLambdaParallel() {
+		return maxRow(IntStream.range(0, size).parallel(), birthDates);
+	}
+
+	/**
+	 * It finds the row of the programmer with the highest salary with a loop over the salary
+	 * column.
+	 *
+	 * @return the row, or -1 if the table is empty
+	 */
+	public int findTheProgrammerWithHighestSalaryLoop() {
+		if(size == 0) {
+			return -1;
+		}
+		int highest = 0;
+		for(int row = 1; row < size; row++) {
+			if(salaries[row] > salaries[highest]) {
+				highest = row;
+			}
+		}
+		return highest;
+	}
+
+	/**
+	 * It finds the row of the programmer with the highest salary using a sequential stream.
+	 *
+	 * @return the row, or -1 if the table is empty
+	 */
+	public int findTheProgrammerWithHighestSalaryLambdaSerial() {
+		return maxRow(IntStream.range(0, size), salaries);
+	}
+
+	/**
+	 * It finds the row of the programmer with the highest salary using a parallel stream.
+	 *
+	 * @return the row, or -1 if the table is empty
+	 */
+	public int findTheProgrammerWithHighestSalaryLambdaParallel() {
+		return maxRow(IntStream.range(0, size).parallel(), salaries);
+	}
+
+	private static int maxRow(IntStream rows, int[] column) {
+		return rows.reduce((a, b) -> column[b] > column[a] ? b : a).orElse(-1);
+	}
+
+	private static int maxRow(IntStream rows, long[] column) {
+		return rows.reduce((a, b) -> column[b] > column[a] ? b : a).orElse(-1);
+	}
+
+	/**
+	 * Estimates the heap used by the columns, without object headers.
+	 *
+	 * @return
+	 */
+	public long estimatedBytes() {
+		return 4L * birthDates.length + 4L * programmingStartDates.length + 8L * salaries.length
+				+ languages.length + names.length + 4L * nameOffsets.length;
+	}
+
+}
@@ -0,0 +1,84 @@
+package domain;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares the scans of {@link ProgrammerTable} with the same queries over the object list.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerTableBenchmark extends AbstractBenchmark {
+
+	@Param({"10000", "100000", "1000000", "10000000"})
+	private int size;
+
+	private List<Programmer> programmers;
+	private ProgrammerTable table;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		table = ProgrammerTable.of(programmers);
+	}
+
+	@Benchmark
+	public Programmer youngestObjectsForeachLoop() {
+		return ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers);
+	}
+
+	@Benchmark
+	public Programmer youngestObjectsLambdaParallel() {
+		return ProgrammerQueries.findTheYoungestProgrammerLambdaParallel(programmers);
+	}
+
+	@Benchmark
+	public int youngestColumnLoop() {
+		return table.findTheYoungestProgrammerLoop();
+	}
+
+	@Benchmark
+	public int youngestColumnLambdaSequential() {
+		return table.findTheYoungestProgrammerLambdaSequential();
+	}
+
+	@Benchmark
+	public int youngestColumnLambdaParallel() {
+		return table.findTheYoungestProgrammerLambdaParallel();
+	}
+
+	@Benchmark
+	public Programmer highestSalaryObjectsForLoop() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers);
+	}
+
+	@Benchmark
+	public Programmer highestSalaryObjectsLambdaParallel() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaParallel(programmers);
+	}
+
+	@Benchmark
+	public int highestSalaryColumnLoop() {
+		return table.findTheProgrammerWithHighestSalaryLoop();
+	}
+
+	@Benchmark
+	public int highestSalaryColumnLambdaSerial() {
+		return table.findTheProgrammerWithHighestSalaryLambdaSerial();
+	}
+
+	@Benchmark
+	public int highestSalaryColumnLambdaParallel() {
+		return table.findTheProgrammerWithHighestSalaryLambdaParallel();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(ProgrammerTableBenchmark.class, args);
+	}
+
+}
@@ -11,4 +11,39 @@ public enum ProgrammingLanguages {
 	SWIFT, MATLAB, RUBY, VISUAL_BASIC, VBA, SCALA, PERL, IUA, GO, DELPHI,
 	HASKEL, RUST;
 
+	private static final ProgrammingLanguages[] VALUES = values();
+
+	/**
+	 * Number of languages, the size of arrays indexed by {@link #ordinal()}.
+	 */
+	public static final int COUNT = VALUES.length;
+
+	/**
+	 * The language of the given ordinal without copying the array of {@link #values()}.
+	 *
+	 * @param ordinal
+	 * @return
+	 */
+	public static ProgrammingLanguages of(int ordinal) {
+		return VALUES[ordinal];
+	}
+
+	/**
+	 * The language of the given name, for names stored as free text.
+	 *
+	 * @param name
+	 * @return the language, or null if the name is null or not a known language
+	 */
+	public static ProgrammingLanguages parse(String name) {
+		if(name == null) {
+			return null;
+		}
+		for(ProgrammingLanguages language : VALUES) {
+			if(language.name().equals(name)) {
+				return language;
+			}
+		}
+		return null;
+	}
+
 }
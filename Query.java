@@ -0,0 +1,47 @@
+package domain;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A query over programmers, written once and run by any {@link QueryExecutor}.
+ *
+ * @author Aleksander
+ */
+@FunctionalInterface
+public interface Query<R> {
+
+	R execute(QueryExecutor executor, List<Programmer> programmers);
+
+	/**
+	 * The programmer that is the largest in the given order.
+	 *
+	 * @param order
+	 * @return
+	 */
+	static Query<Programmer> maxBy(Comparator<? super Programmer> order) {
+		return (executor, programmers) -> executor.maxBy(programmers, order);
+	}
+
+	/**
+	 * The programmer that is the smallest in the given order.
+	 *
+	 * @param order
+	 * @return
+	 */
+	static Query<Programmer> minBy(Comparator<? super Programmer> order) {
+		return (executor, programmers) -> executor.minBy(programmers, order);
+	}
+
+	/**
+	 * The programmers matching the predicate.
+	 *
+	 * @param predicate
+	 * @return
+	 */
+	static Query<List<Programmer>> filter(Predicate<? super Programmer> predicate) {
+		return (executor, programmers) -> executor.filter(programmers, predicate);
+	}
+
+}
@@ -0,0 +1,316 @@
+package domain;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache of query results keyed by the query type and its parameters. The entries are evicted in
+ * least recently used order once their estimated size exceeds a bound; a result list weighs a
+ * reference per element, since the programmers themselves belong to the dataset.
+ *
+ * The cache reads a version of the dataset, for example {@link ProgrammerRepository#version()}
+ * or a constant for a list that is never modified, on every lookup and drops all entries when
+ * it has changed, so a result is never served for data it was not computed from. Cached results are shared
+ * between callers and must not be modified.
+ *
+ * Concurrent misses of the same key run the query once: the first caller computes the result
+ * and the others wait for it, so a cold key under load does not start one full scan per
+ * request.
+ *
+ * @author Aleksander
+ */
+public class QueryCache {
+
+	static final int ENTRY_BYTES = 96;
+	static final int REFERENCE_BYTES = 8;
+
+	private final long maxBytes;
+	private final LongSupplier version;
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<Key, CompletableFuture<Object>> loading = new HashMap<>();
+
+	private long currentVersion;
+	private long bytes;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param maxBytes the bound of the estimated size of all entries
+	 * @param version the version of the dataset, which changes with every modification
+	 */
+	public QueryCache(long maxBytes, LongSupplier version) {
+		if(maxBytes <= 0) {
+			throw new IllegalArgumentException("Size bound must be positive: " + maxBytes);
+		}
+		this.maxBytes = maxBytes;
+		this.version = version;
+		this.currentVersion = version.getAsLong();
+	}
+
+	/**
+	 * Returns the cached result of the query, computing and caching it on a miss. The query runs
+	 * outside of the lock; callers that miss the same key while it runs wait for its result and
+	 * count as hits. A result computed while the version changed is returned to the callers that
+	 * waited for it but not cached.
+	 *
+	 * @param type the query type, for example "lastName"
+	 * @param parameter the parameters of the query, with equals and hashCode
+	 * @param query
+	 * @return
+	 */
+	public <R> R get(String type, Object parameter, Supplier<R> query) {
+		Key key = new Key(type, parameter);
+		long startVersion;
+		CompletableFuture<Object> load;
+		boolean computing = false;
+		synchronized(this) {
+			startVersion = validate();
+			Entry entry = entries.get(key);
+			if(entry != null) {
+				hits++;
+				return cast(entry.result);
+			}
+			load = loading.get(key);
+			if(load != null) {
+				hits++;
+			} else {
+				misses++;
+				load = new CompletableFuture<>();
+				loading.put(key, load);
+				computing = true;
+			}
+		}
+		if(!computing) {
+			return await(load);
+		}
+
+		R result;
+		try {
+			result = query.get();
+		} catch(RuntimeException | Error e) {
+			synchronized(this) {
+				loading.remove(key, load);
+			}
+			load.completeExceptionally(e);
+			throw e;
+		}
+		long weight = weigh(result);
+		synchronized(this) {
+			loading.remove(key, load);
+			if(validate() == startVersion && weight <= maxBytes) {
+				Entry previous = entries.put(key, new Entry(result, weight));
+				if(previous != null) {
+					bytes -= previous.weight;
+				}
+				bytes += weight;
+				evict();
+			}
+		}
+		load.complete(result);
+		return result;
+	}
+
+	/**
+	 * Waits for the result another caller is computing.
+	 */
+	private static <R> R await(CompletableFuture<Object> load) {
+		try {
+			return cast(load.join());
+		} catch(CompletionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if(e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <R> R cast(Object result) {
+		return (R) result;
+	}
+
+	/**
+	 * Drops all entries.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * The counters of the cache since it was created.
+	 *
+	 * @return
+	 */
+	public synchronized Stats getStats() {
+		return new Stats(entries.size(), bytes, maxBytes, hits, misses, evictions, invalidations);
+	}
+
+	/**
+	 * Drops all entries if the dataset changed since the last lookup.
+	 *
+	 * @return the current version
+	 */
+	private long validate() {
+		long latest = version.getAsLong();
+		if(latest != currentVersion) {
+			if(!entries.isEmpty()) {
+				invalidations++;
+			}
+			clear();
+			//queries still running compute for the old version, later misses start afresh
+			loading.clear();
+			currentVersion = latest;
+		}
+		return latest;
+	}
+
+	private void evict() {
+		Iterator<Entry> eldest = entries.values().iterator();
+		while(bytes > maxBytes && eldest.hasNext()) {
+			bytes -= eldest.next().weight;
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Estimated bytes held by an entry with the given result.
+	 *
+	 * @param result
+	 * @return
+	 */
+	static long weigh(Object result) {
+		if(result instanceof Collection) {
+			return ENTRY_BYTES + (long) REFERENCE_BYTES * ((Collection<?>) result).size();
+		}
+		if(result instanceof long[]) {
+			return ENTRY_BYTES + 8L * ((long[]) result).length;
+		}
+		if(result instanceof int[]) {
+			return ENTRY_BYTES + 4L * ((int[]) result).length;
+		}
+		if(result instanceof Map) {
+			return ENTRY_BYTES + 4L * REFERENCE_BYTES * ((Map<?, ?>) result).size();
+		}
+		return ENTRY_BYTES;
+	}
+
+	private static final class Key {
+
+		private final String type;
+		private final Object parameter;
+
+		Key(String type, Object parameter) {
+			this.type = type;
+			this.parameter = parameter;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return type.equals(other.type) && Objects.equals(parameter, other.parameter);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * type.hashCode() + Objects.hashCode(parameter);
+		}
+	}
+
+	private static final class Entry {
+
+		private final Object result;
+		private final long weight;
+
+		Entry(Object result, long weight) {
+			this.result = result;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Snapshot of the counters of a cache.
+	 */
+	public static final class Stats {
+
+		private final int entries;
+		private final long bytes;
+		private final long maxBytes;
+		private final long hits;
+		private final long misses;
+		private final long evictions;
+		private final long invalidations;
+
+		Stats(int entries, long bytes, long maxBytes, long hits, long misses, long evictions, long invalidations) {
+			this.entries = entries;
+			this.bytes = bytes;
+			this.maxBytes = maxBytes;
+			this.hits = hits;
+			this.misses = misses;
+			this.evictions = evictions;
+			this.invalidations = invalidations;
+		}
+
+		public int getEntries() {
+			return entries;
+		}
+
+		public long getBytes() {
+			return bytes;
+		}
+
+		public long getMaxBytes() {
+			return maxBytes;
+		}
+
+		public long getHits() {
+			return hits;
+		}
+
+		public long getMisses() {
+			return misses;
+		}
+
+		public long getEvictions() {
+			return evictions;
+		}
+
+		public long getInvalidations() {
+			return invalidations;
+		}
+
+		/**
+		 * @return the share of lookups answered from the cache, or 0 before the first lookup
+		 */
+		public double getHitRate() {
+			long lookups = hits + misses;
+			return lookups == 0 ? 0 : (double) hits / lookups;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("ENTRIES: %d, SIZE: %d of %d bytes, HITS: %d, MISSES: %d, HIT RATE: %.1f%%, EVICTIONS: %d, INVALIDATIONS: %d",
+					entries, bytes, maxBytes, hits, misses, 100 * getHitRate(), evictions, invalidations);
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+package domain;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Execution strategy for the basic queries. A query is written once against this interface and
+ * can then run sequentially, on streams, on a dedicated pool or in manual chunks.
+ *
+ * @author Aleksander
+ */
+public interface QueryExecutor extends AutoCloseable {
+
+	/**
+	 * It finds the largest element; the first one wins on ties.
+	 *
+	 * @param items
+	 * @param order
+	 * @return the element, or null if the list is empty
+	 */
+	<T> T maxBy(List<T> items, Comparator<? super T> order);
+
+	/**
+	 * It finds the smallest element; the first one wins on ties.
+	 *
+	 * @param items
+	 * @param order
+	 * @return the element, or null if the list is empty
+	 */
+	default <T> T minBy(List<T> items, Comparator<? super T> order) {
+		return maxBy(items, Collections.reverseOrder(order));
+	}
+
+	/**
+	 * It finds the elements matching the predicate, in list order.
+	 *
+	 * @param items
+	 * @param predicate
+	 * @return
+	 */
+	<T> List<T> filter(List<T> items, Predicate<? super T> predicate);
+
+	/**
+	 * Short name of the strategy for reports.
+	 *
+	 * @return
+	 */
+	String getName();
+
+	/**
+	 * Releases the threads owned by the executor.
+	 */
+	@Override
+	default void close() {
+	}
+
+	/**
+	 * Creates an executor by its name.
+	 *
+	 * @param name one of loop, stream, parallelStream, forkJoin, chunked or adaptive
+	 * @param parallelism number of threads of the forkJoin, chunked and adaptive executors
+	 * @return
+	 */
+	static QueryExecutor named(String name, int parallelism) {
+		switch(name) {
+		case "loop":
+			return new LoopQueryExecutor();
+		case "stream":
+			return new StreamQueryExecutor();
+		case "parallelStream":
+			return new ParallelStreamQueryExecutor();
+		case "forkJoin":
+			return new ForkJoinQueryExecutor(parallelism);
+		case "chunked":
+			return new ChunkedQueryExecutor(parallelism);
+		case "adaptive":
+			return new AdaptiveQueryExecutor(parallelism);
+		default:
+			throw new IllegalArgumentException("Unknown executor: " + name);
+		}
+	}
+
+}
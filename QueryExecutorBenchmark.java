@@ -0,0 +1,66 @@
+package domain;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Runs the same three queries under every {@link QueryExecutor} and thread count.
+ *
+ * @author Aleksander
+ */
+public class QueryExecutorBenchmark extends AbstractBenchmark {
+
+	@Param({"100000", "1000000", "10000000"})
+	private int size;
+
+	@Param({"loop", "stream", "parallelStream", "forkJoin", "chunked", "adaptive"})
+	private String executorName;
+
+	@Param({"4"})
+	private int parallelism;
+
+	private List<Programmer> programmers;
+	private QueryExecutor executor;
+	private Query<List<Programmer>> byName;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		executor = QueryExecutor.named(executorName, parallelism);
+		if(executor instanceof AdaptiveQueryExecutor) {
+			((AdaptiveQueryExecutor) executor).calibrate(programmers);
+		}
+		byName = ProgrammerQueries.lastNameContains(programmers.get(0).getLastName().substring(0, 2));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.close();
+	}
+
+	@Benchmark
+	public Programmer youngest() {
+		return ProgrammerQueries.YOUNGEST.execute(executor, programmers);
+	}
+
+	@Benchmark
+	public Programmer highestSalary() {
+		return ProgrammerQueries.HIGHEST_SALARY.execute(executor, programmers);
+	}
+
+	@Benchmark
+	public List<Programmer> byName() {
+		return byName.execute(executor, programmers);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(QueryExecutorBenchmark.class, args);
+	}
+
+}
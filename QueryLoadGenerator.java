@@ -0,0 +1,147 @@
+package domain;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends a fixed number of requests to a {@link QueryServer} with a bounded number in flight and
+ * reports the throughput and the latency percentiles.
+ *
+ * @author Aleksander
+ */
+public class QueryLoadGenerator {
+
+	private final HttpClient client;
+	private final ExecutorService executor;
+
+	public QueryLoadGenerator() {
+		this.executor = QueryServer.newThreadPerTaskExecutor("load-generator-");
+		this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+	}
+
+	/**
+	 * Sends the requests round robin over the given paths, keeping at most {@code concurrency}
+	 * of them in flight, and waits for all responses.
+	 *
+	 * @param base the address of the server
+	 * @param paths
+	 * @param concurrency
+	 * @param requests
+	 * @return
+	 */
+	public Report run(URI base, List<String> paths, int concurrency, int requests) {
+		Semaphore inFlight = new Semaphore(concurrency);
+		LatencyHistogram latencies = new LatencyHistogram();
+		AtomicLong errors = new AtomicLong();
+		CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+
+		long start = System.nanoTime();
+		for(int i = 0; i < requests; i++) {
+			HttpRequest request = HttpRequest.newBuilder(base.resolve(paths.get(i % paths.size()))).GET().build();
+			inFlight.acquireUninterruptibly();
+			long sent = System.nanoTime();
+			responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, failure) -> {
+						long latency = System.nanoTime() - sent;
+						synchronized(latencies) {
+							latencies.record(latency);
+						}
+						if(failure != null || response.statusCode() != 200) {
+							errors.incrementAndGet();
+						}
+						inFlight.release();
+					});
+		}
+		CompletableFuture.allOf(responses).exceptionally(failure -> null).join();
+		return new Report(requests, errors.get(), System.nanoTime() - start, latencies);
+	}
+
+	public void close() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Outcome of one load run.
+	 */
+	public static final class Report {
+
+		private final long requests;
+		private final long errors;
+		private final long nanos;
+		private final LatencyHistogram latencies;
+
+		Report(long requests, long errors, long nanos, LatencyHistogram latencies) {
+			this.requests = requests;
+			this.errors = errors;
+			this.nanos = nanos;
+			this.latencies = latencies;
+		}
+
+		public long getRequests() {
+			return requests;
+		}
+
+		public long getErrors() {
+			return errors;
+		}
+
+		public double getThroughput() {
+			return requests * 1e9 / nanos;
+		}
+
+		public LatencyHistogram getLatencies() {
+			return latencies;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("REQUESTS: %d, ERRORS: %d, THROUGHPUT: %.0f req/s, P50: %.2f ms, P99: %.2f ms, MAX: %.2f ms",
+					requests, errors, getThroughput(), latencies.getValueAtPercentile(50) / 1e6,
+					latencies.getValueAtPercentile(99) / 1e6, latencies.getMax() / 1e6);
+		}
+	}
+
+	/**
+	 * Starts a server over a generated dataset on a free port and loads it. Arguments: number of
+	 * programmers (default 1000000), concurrent requests (default 1000), total requests (default
+	 * 20000).
+	 *
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+		int processors = Runtime.getRuntime().availableProcessors();
+
+		List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		String name = programmers.get(size / 2).getLastName().substring(0, 3);
+		List<String> paths = List.of("/youngest", "/highest-salary", "/last-name?contains=" + name);
+
+		try(QueryServer server = new QueryServer(programmers, new InetSocketAddress("localhost", 0), processors, 2)) {
+			server.start();
+			QueryLoadGenerator generator = new QueryLoadGenerator();
+			try {
+				URI base = URI.create("http://localhost:" + server.getPort());
+				System.out.println("WARMUP: " + generator.run(base, paths, concurrency, Math.max(1, requests / 10)));
+				System.out.println("LOAD: " + generator.run(base, paths, concurrency, requests));
+				System.out.println("CACHE: " + server.getCacheStats());
+			} finally {
+				generator.close();
+			}
+		}
+		System.exit(0);
+	}
+
+}
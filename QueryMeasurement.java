@@ -0,0 +1,76 @@
+package domain;
+
+/**
+ * What one run of a query cost: wall time, bytes allocated by all threads, garbage collections
+ * and the CPU time of all threads, from which the parallelism actually used follows.
+ *
+ * @author Aleksander
+ */
+public class QueryMeasurement {
+
+	private final String query;
+	private final long nanos;
+	private final long allocatedBytes;
+	private final long gcCount;
+	private final long gcMillis;
+	private final long cpuNanos;
+
+	QueryMeasurement(String query, long nanos, long allocatedBytes, long gcCount, long gcMillis, long cpuNanos) {
+		this.query = query;
+		this.nanos = nanos;
+		this.allocatedBytes = allocatedBytes;
+		this.gcCount = gcCount;
+		this.gcMillis = gcMillis;
+		this.cpuNanos = cpuNanos;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Bytes allocated by all threads during the query, or -1 if the JVM cannot tell.
+	 *
+	 * @return
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public long getGcCount() {
+		return gcCount;
+	}
+
+	public long getGcMillis() {
+		return gcMillis;
+	}
+
+	/**
+	 * CPU time of all threads during the query, or -1 if the JVM cannot tell.
+	 *
+	 * @return
+	 */
+	public long getCpuNanos() {
+		return cpuNanos;
+	}
+
+	/**
+	 * Average number of busy threads while the query ran.
+	 *
+	 * @return
+	 */
+	public double getParallelism() {
+		return cpuNanos < 0 || nanos == 0 ? 0 : (double) cpuNanos / nanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("TIME: %d ms, ALLOCATED: %d MB, GC: %d (%d ms), PARALLELISM: %.1f",
+				nanos / 1000000, allocatedBytes >> 20, gcCount, gcMillis, getParallelism());
+	}
+
+}
@@ -0,0 +1,224 @@
+package domain;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Records the latency histogram, allocations, garbage collections and parallelism of every
+ * query run through it, and exports them as CSV or JSON so runs can be compared.
+ *
+ * Allocations and CPU time are the growth of the per-thread totals of the threads alive when the
+ * query ends, so work done by pool threads is included and threads started during the query
+ * count from zero. Threads that end during the query are missing from the second reading and
+ * their share is left out; other activity in the JVM during a query is counted as well.
+ *
+ * @author Aleksander
+ */
+public class QueryMetrics {
+
+	private static final String[] COLUMNS = {"query", "runs", "minNanos", "p50Nanos", "p90Nanos", "p99Nanos",
+			"maxNanos", "meanNanos", "allocatedBytesPerRun", "gcCount", "gcMillis", "parallelism"};
+
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+	private final Map<String, Statistics> statistics = new LinkedHashMap<>();
+	private QueryMeasurement last;
+
+	/**
+	 * Totals of one query over all of its runs.
+	 */
+	private static final class Statistics {
+
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private long allocatedBytes;
+		private long gcCount;
+		private long gcMillis;
+		private long cpuNanos;
+		private long nanos;
+	}
+
+	/**
+	 * Runs the query and records what it cost.
+	 *
+	 * @param query name the run is recorded under
+	 * @param run
+	 * @return the result of the query
+	 */
+	public <T> T record(String query, Supplier<T> run) {
+		long[] threadIdsBefore = threads.getAllThreadIds();
+		long[] allocatedBefore = allocatedBytes(threadIdsBefore);
+		long[] cpuBefore = cpuNanos(threadIdsBefore);
+		long gcCountBefore = gcCount();
+		long gcMillisBefore = gcMillis();
+		long start = System.nanoTime();
+
+		T result = run.get();
+
+		long nanos = System.nanoTime() - start;
+		long[] threadIds = threads.getAllThreadIds();
+		long allocated = allocatedBefore == null ? -1 : growth(threadIdsBefore, allocatedBefore, threadIds, allocatedBytes(threadIds));
+		long cpu = cpuBefore == null ? -1 : growth(threadIdsBefore, cpuBefore, threadIds, cpuNanos(threadIds));
+		add(new QueryMeasurement(query, nanos, allocated, gcCount() - gcCountBefore, gcMillis() - gcMillisBefore, cpu));
+		return result;
+	}
+
+	private synchronized void add(QueryMeasurement measurement) {
+		Statistics totals = statistics.computeIfAbsent(measurement.getQuery(), query -> new Statistics());
+		totals.latencies.record(measurement.getNanos());
+		totals.allocatedBytes += Math.max(0, measurement.getAllocatedBytes());
+		totals.gcCount += measurement.getGcCount();
+		totals.gcMillis += measurement.getGcMillis();
+		totals.cpuNanos += Math.max(0, measurement.getCpuNanos());
+		totals.nanos += measurement.getNanos();
+		last = measurement;
+	}
+
+	/**
+	 * The measurement recorded last.
+	 *
+	 * @return
+	 */
+	public synchronized QueryMeasurement last() {
+		return last;
+	}
+
+	/**
+	 * The bytes allocated by each of the given threads, -1 for a thread that has ended.
+	 *
+	 * @param threadIds
+	 * @return null if the JVM does not measure allocations
+	 */
+	private long[] allocatedBytes(long[] threadIds) {
+		if(!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadIds);
+	}
+
+	/**
+	 * The CPU time of each of the given threads, -1 for a thread that has ended.
+	 *
+	 * @param threadIds
+	 * @return null if the JVM does not measure CPU time
+	 */
+	private long[] cpuNanos(long[] threadIds) {
+		if(!threads.isThreadCpuTimeSupported() || !threads.isThreadCpuTimeEnabled()) {
+			return null;
+		}
+		long[] nanos = new long[threadIds.length];
+		for(int i = 0; i < threadIds.length; i++) {
+			nanos[i] = threads.getThreadCpuTime(threadIds[i]);
+		}
+		return nanos;
+	}
+
+	/**
+	 * Sums the growth of per-thread totals between two readings. A thread missing from the
+	 * first reading started in between and counts from zero; a thread missing from the second
+	 * reading or ended at it is left out.
+	 *
+	 * @param threadIdsBefore
+	 * @param before
+	 * @param threadIdsAfter
+	 * @param after
+	 * @return
+	 */
+	static long growth(long[] threadIdsBefore, long[] before, long[] threadIdsAfter, long[] after) {
+		Map<Long, Long> start = new HashMap<>();
+		for(int i = 0; i < threadIdsBefore.length; i++) {
+			if(before[i] >= 0) {
+				start.put(threadIdsBefore[i], before[i]);
+			}
+		}
+		long total = 0;
+		for(int i = 0; i < threadIdsAfter.length; i++) {
+			if(after[i] >= 0) {
+				total += Math.max(0, after[i] - start.getOrDefault(threadIdsAfter[i], 0L));
+			}
+		}
+		return total;
+	}
+
+	private long gcCount() {
+		long count = 0;
+		for(GarbageCollectorMXBean collector : collectors) {
+			count += Math.max(0, collector.getCollectionCount());
+		}
+		return count;
+	}
+
+	private long gcMillis() {
+		long millis = 0;
+		for(GarbageCollectorMXBean collector : collectors) {
+			millis += Math.max(0, collector.getCollectionTime());
+		}
+		return millis;
+	}
+
+	/**
+	 * Writes one line per query with its latency percentiles and totals.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public synchronized void writeCsv(Path file) throws IOException {
+		try(Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(String.join(",", COLUMNS));
+			writer.write('\n');
+			for(Map.Entry<String, Statistics> entry : statistics.entrySet()) {
+				Object[] row = row(entry.getKey(), entry.getValue());
+				row[0] = '"' + entry.getKey().replace("\"", "\"\"") + '"';
+				for(int i = 0; i < row.length; i++) {
+					writer.write((i == 0 ? "" : ",") + row[i]);
+				}
+				writer.write('\n');
+			}
+		}
+	}
+
+	/**
+	 * Writes an array with one object per query, using the same fields as the CSV file.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public synchronized void writeJson(Path file) throws IOException {
+		try(Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write("[");
+			String separator = "\n";
+			for(Map.Entry<String, Statistics> entry : statistics.entrySet()) {
+				Object[] row = row(entry.getKey(), entry.getValue());
+				row[0] = '"' + entry.getKey().replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+				writer.write(separator + "  {");
+				for(int i = 0; i < row.length; i++) {
+					writer.write((i == 0 ? "" : ", ") + '"' + COLUMNS[i] + "\": " + row[i]);
+				}
+				writer.write("}");
+				separator = ",\n";
+			}
+			writer.write("\n]\n");
+		}
+	}
+
+	private static Object[] row(String query, Statistics totals) {
+		LatencyHistogram latencies = totals.latencies;
+		long runs = latencies.getCount();
+		return new Object[] {query, runs, latencies.getMin(), latencies.getValueAtPercentile(50),
+				latencies.getValueAtPercentile(90), latencies.getValueAtPercentile(99), latencies.getMax(),
+				Math.round(latencies.getMean()), runs == 0 ? 0 : totals.allocatedBytes / runs, totals.gcCount,
+				totals.gcMillis, totals.nanos == 0 ? 0 : String.format(Locale.ROOT, "%.2f", (double) totals.cpuNanos / totals.nanos)};
+	}
+
+}
@@ -0,0 +1,272 @@
+package domain;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP service answering the youngest, highest salary and last name queries over a
+ * shared list of programmers that is not modified while the server runs.
+ *
+ * <pre>
+ * GET /youngest
+ * GET /highest-salary
+ * GET /last-name?contains=AB&amp;limit=10
+ * GET /cache
+ * </pre>
+ *
+ * Every request gets its own thread: a virtual thread when the runtime has them, a cached
+ * platform thread otherwise. The scans themselves run on a dedicated {@link ForkJoinQueryExecutor},
+ * and a semaphore bounds how many of them run at once, so a burst of requests queues up
+ * instead of oversubscribing the CPUs or starving the common pool. Results are kept in a
+ * {@link QueryCache} with a constant version, so the list of programmers and the programmers in
+ * it must not change while the server runs.
+ *
+ * @author Aleksander
+ */
+public class QueryServer implements AutoCloseable {
+
+	private static final int BACKLOG = 4096;
+	private static final int DEFAULT_LIMIT = 10;
+	private static final long CACHE_BYTES = 64L * 1024 * 1024;
+
+	private final List<Programmer> programmers;
+	private final HttpServer server;
+	private final ExecutorService requests;
+	private final ForkJoinQueryExecutor scans;
+	private final Semaphore scanPermits;
+	private final QueryCache cache;
+
+	/**
+	 * Creates a server bound to the given address; it does not accept requests before
+	 * {@link #start()}.
+	 *
+	 * @param programmers
+	 * @param address port 0 picks a free port
+	 * @param scanParallelism the parallelism of the scan pool
+	 * @param maxConcurrentScans how many scans may run at once
+	 * @throws IOException if the address cannot be bound
+	 */
+	public QueryServer(List<Programmer> programmers, InetSocketAddress address, int scanParallelism,
+			int maxConcurrentScans) throws IOException {
+		this.programmers = programmers;
+		this.scans = new ForkJoinQueryExecutor(scanParallelism);
+		this.scanPermits = new Semaphore(maxConcurrentScans, true);
+		//the list is not modified while the server runs, so its version never changes
+		this.cache = new QueryCache(CACHE_BYTES, () -> 0);
+		this.requests = newThreadPerTaskExecutor("query-server-");
+		this.server = HttpServer.create(address, BACKLOG);
+		server.setExecutor(requests);
+		server.createContext("/youngest", get(parameters -> json(scan("youngest", null, ProgrammerQueries.YOUNGEST))));
+		server.createContext("/highest-salary", get(parameters -> json(scan("highestSalary", null, ProgrammerQueries.HIGHEST_SALARY))));
+		server.createContext("/last-name", get(this::lastName));
+		server.createContext("/cache", get(parameters -> json(cache.getStats())));
+	}
+
+	/**
+	 * Executor starting one thread per task, virtual if the runtime supports them.
+	 *
+	 * @param prefix the name prefix of platform threads
+	 * @return
+	 */
+	static ExecutorService newThreadPerTaskExecutor(String prefix) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch(ReflectiveOperationException e) {
+			AtomicInteger threads = new AtomicInteger();
+			ThreadFactory factory = task -> {
+				Thread thread = new Thread(task, prefix + threads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			};
+			return Executors.newCachedThreadPool(factory);
+		}
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		requests.shutdown();
+		scans.close();
+	}
+
+	private String lastName(Map<String, String> parameters) throws BadRequestException {
+		String name = parameters.get("contains");
+		if(name == null || name.isEmpty()) {
+			throw new BadRequestException("Missing parameter: contains");
+		}
+		int limit = DEFAULT_LIMIT;
+		if(parameters.containsKey("limit")) {
+			try {
+				limit = Integer.parseInt(parameters.get("limit"));
+			} catch(NumberFormatException e) {
+				throw new BadRequestException("Invalid limit: " + parameters.get("limit"));
+			}
+		}
+		List<Programmer> matches = scan("lastName", name, ProgrammerQueries.lastNameContains(name));
+		StringBuilder json = new StringBuilder("{\"count\":").append(matches.size()).append(",\"programmers\":[");
+		for(int i = 0; i < Math.min(limit, matches.size()); i++) {
+			json.append(i > 0 ? "," : "").append(json(matches.get(i)));
+		}
+		return json.append("]}").toString();
+	}
+
+	public QueryCache.Stats getCacheStats() {
+		return cache.getStats();
+	}
+
+	/**
+	 * Answers the query from the cache, or runs it on the scan pool once a permit is free.
+	 *
+	 * @param type
+	 * @param parameter
+	 * @param query
+	 * @return
+	 */
+	private <R> R scan(String type, Object parameter, Query<R> query) {
+		return cache.get(type, parameter, () -> {
+			scanPermits.acquireUninterruptibly();
+			try {
+				return query.execute(scans, programmers);
+			} finally {
+				scanPermits.release();
+			}
+		});
+	}
+
+	private static String json(Programmer programmer) {
+		if(programmer == null) {
+			return "null";
+		}
+		return "{\"firstName\":" + quote(programmer.getFirstName())
+				+ ",\"lastName\":" + quote(programmer.getLastName())
+				+ ",\"birthDate\":" + quote(String.valueOf(programmer.getBirthDate()))
+				+ ",\"primaryLanguage\":" + quote(programmer.getPrimaryLanguage())
+				+ ",\"programmingStartDate\":" + quote(String.valueOf(programmer.getProgrammingStartDate()))
+				+ ",\"salary\":" + programmer.getSalary() + "}";
+	}
+
+	private static String json(QueryCache.Stats stats) {
+		return "{\"entries\":" + stats.getEntries() + ",\"bytes\":" + stats.getBytes() + ",\"maxBytes\":" + stats.getMaxBytes()
+				+ ",\"hits\":" + stats.getHits() + ",\"misses\":" + stats.getMisses() + ",\"hitRate\":" + stats.getHitRate()
+				+ ",\"evictions\":" + stats.getEvictions() + ",\"invalidations\":" + stats.getInvalidations() + "}";
+	}
+
+	private static String quote(String text) {
+		if(text == null) {
+			return "null";
+		}
+		StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(c == '"' || c == '\\') {
+				quoted.append('\\').append(c);
+			} else if(c < 0x20) {
+				quoted.append(String.format("\\u%04x", (int) c));
+			} else {
+				quoted.append(c);
+			}
+		}
+		return quoted.append('"').toString();
+	}
+
+	private static HttpHandler get(Endpoint endpoint) {
+		return exchange -> {
+			try {
+				if(!"GET".equals(exchange.getRequestMethod())) {
+					respond(exchange, 405, "{\"error\":\"Only GET is supported\"}");
+				} else {
+					respond(exchange, 200, endpoint.handle(parameters(exchange.getRequestURI().getRawQuery())));
+				}
+			} catch(BadRequestException e) {
+				respond(exchange, 400, "{\"error\":" + quote(e.getMessage()) + "}");
+			} catch(RuntimeException e) {
+				respond(exchange, 500, "{\"error\":" + quote(String.valueOf(e)) + "}");
+			} finally {
+				exchange.close();
+			}
+		};
+	}
+
+	private static Map<String, String> parameters(String query) {
+		Map<String, String> parameters = new HashMap<>();
+		if(query == null) {
+			return parameters;
+		}
+		for(String parameter : query.split("&")) {
+			int separator = parameter.indexOf('=');
+			if(separator > 0) {
+				parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+						URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return parameters;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try(OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Answers a request from its query parameters with a JSON body.
+	 */
+	@FunctionalInterface
+	private interface Endpoint {
+		String handle(Map<String, String> parameters) throws BadRequestException;
+	}
+
+	private static final class BadRequestException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		BadRequestException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * Serves a generated dataset. Arguments: number of programmers (default 1000000), port
+	 * (default 8080).
+	 *
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+		int processors = Runtime.getRuntime().availableProcessors();
+
+		List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		QueryServer server = new QueryServer(programmers, new InetSocketAddress(port), processors, 2);
+		server.start();
+		System.out.println("SERVING " + size + " PROGRAMMERS ON PORT " + server.getPort());
+	}
+
+}
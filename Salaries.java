@@ -0,0 +1,144 @@
+package domain;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fixed-point salary arithmetic. Salaries are converted exactly to a long number of cents, so
+ * comparisons and aggregations can run on primitives and order like the {@link BigDecimal}
+ * values. A {@link Programmer} converts its salary on every call, which allocates, so queries
+ * over programmers convert every element once and keep the cents next to it; comparing
+ * converted salaries per comparison is slower than {@link BigDecimal#compareTo(BigDecimal)}.
+ * {@link ProgrammerTable}, {@link ImmutableProgrammer} and the record formats store the cents
+ * instead.
+ *
+ * @author Aleksander
+ */
+public final class Salaries {
+
+	/**
+	 * Number of decimal places of the fixed-point salary.
+	 */
+	public static final int SCALE = 2;
+
+	/**
+	 * The salary of a programmer in cents.
+	 */
+	public static final ToLongFunction<Programmer> IN_CENTS = Programmer::getSalaryInCents;
+
+	/**
+	 * Orders immutable programmers by their stored salary in cents.
+	 */
+	public static final Comparator<ImmutableProgrammer> BY_SALARY = Comparator.comparingLong(ImmutableProgrammer::getSalaryInCents);
+
+	private Salaries() {
+	}
+
+	/**
+	 * Converts a salary to cents exactly. A salary of at most {@value #SCALE} decimal places
+	 * that fits into a long converts without allocating a BigInteger.
+	 *
+	 * @param salary
+	 * @return
+	 * @throws ArithmeticException if the salary has fractions of a cent or is out of range
+	 */
+	public static long toCents(BigDecimal salary) {
+		return salary.movePointRight(SCALE).longValueExact();
+	}
+
+	/**
+	 * Converts cents back to a salary.
+	 *
+	 * @param cents
+	 * @return
+	 */
+	public static BigDecimal fromCents(long cents) {
+		return BigDecimal.valueOf(cents, SCALE);
+	}
+
+	/**
+	 * Computes the count, sum, minimum, average and maximum of the salaries in cents.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static LongSummaryStatistics statistics(List<Programmer> programmers) {
+		return statistics(programmers, IN_CENTS);
+	}
+
+	/**
+	 * Computes the count, sum, minimum, average and maximum of the salaries in cents.
+	 *
+	 * @param items
+	 * @param inCents the salary of an item in cents
+	 * @return
+	 */
+	public static <T> LongSummaryStatistics statistics(List<T> items, ToLongFunction<? super T> inCents) {
+		return items.stream().mapToLong(inCents).summaryStatistics();
+	}
+
+	/**
+	 * Computes the statistics of the salaries with a parallel stream.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static LongSummaryStatistics statisticsParallel(List<Programmer> programmers) {
+		return statisticsParallel(programmers, IN_CENTS);
+	}
+
+	/**
+	 * Computes the statistics of the salaries with a parallel stream.
+	 *
+	 * @param items
+	 * @param inCents the salary of an item in cents
+	 * @return
+	 */
+	public static <T> LongSummaryStatistics statisticsParallel(List<T> items, ToLongFunction<? super T> inCents) {
+		return items.parallelStream().mapToLong(inCents).summaryStatistics();
+	}
+
+	/**
+	 * Counts the salaries per bucket with a parallel stream. Bucket {@code i} covers
+	 * {@code [fromCents + i * bucketWidthCents, fromCents + (i + 1) * bucketWidthCents)}; salaries
+	 * outside of all buckets are counted in the first or last bucket.
+	 *
+	 * @param programmers
+	 * @param fromCents
+	 * @param bucketWidthCents
+	 * @param buckets
+	 * @return the count per bucket
+	 */
+	public static long[] histogram(List<Programmer> programmers, long fromCents, long bucketWidthCents, int buckets) {
+		return histogram(programmers, IN_CENTS, fromCents, bucketWidthCents, buckets);
+	}
+
+	/**
+	 * Counts the salaries per bucket with a parallel stream, see
+	 * {@link #histogram(List, long, long, int)}.
+	 *
+	 * @param items
+	 * @param inCents the salary of an item in cents
+	 * @param fromCents
+	 * @param bucketWidthCents
+	 * @param buckets
+	 * @return the count per bucket
+	 */
+	public static <T> long[] histogram(List<T> items, ToLongFunction<? super T> inCents, long fromCents, long bucketWidthCents,
+			int buckets) {
+		if(bucketWidthCents <= 0 || buckets <= 0) {
+			throw new IllegalArgumentException("Invalid buckets: " + buckets + " of " + bucketWidthCents + " cents");
+		}
+		return items.parallelStream().mapToLong(inCents).collect(() -> new long[buckets],
+				(counts, cents) -> counts[(int) Math.max(0, Math.min(buckets - 1, Math.floorDiv(cents - fromCents, bucketWidthCents)))]++,
+				(counts, other) -> {
+					for(int i = 0; i < buckets; i++) {
+						counts[i] += other[i];
+					}
+				});
+	}
+
+}
@@ -0,0 +1,101 @@
+package domain;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares the BigDecimal salary path with the fixed-point cents of {@link Salaries}. The cents
+ * cases run over representations that store the cents, {@link ImmutableProgrammer} and
+ * {@link ProgrammerTable}; the converted cases convert the salary of every programmer once.
+ *
+ * @author Aleksander
+ */
+public class SalaryBenchmark extends AbstractBenchmark {
+
+	@Param({"100000", "1000000", "10000000"})
+	private int size;
+
+	private List<Programmer> programmers;
+	private List<ImmutableProgrammer> records;
+	private ProgrammerTable table;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		records = ImmutableProgrammer.of(programmers);
+		table = ProgrammerTable.of(programmers);
+	}
+
+	@Benchmark
+	public Programmer maxBigDecimalForLoop() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers);
+	}
+
+	@Benchmark
+	public Programmer maxConvertedCentsForLoop() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryInCentsForLoop(programmers);
+	}
+
+	@Benchmark
+	public int maxCentsForLoop() {
+		return table.findTheProgrammerWithHighestSalaryLoop();
+	}
+
+	@Benchmark
+	public Programmer maxBigDecimalLambdaSerial() {
+		return programmers.stream().max(Comparator.comparing(Programmer::getSalary)).get();
+	}
+
+	@Benchmark
+	public ImmutableProgrammer maxCentsLambdaSerial() {
+		return records.stream().max(Salaries.BY_SALARY).get();
+	}
+
+	@Benchmark
+	public Programmer maxBigDecimalLambdaParallel() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaParallel(programmers);
+	}
+
+	@Benchmark
+	public Programmer maxConvertedCentsLambdaParallel() {
+		return ProgrammerQueries.findTheProgrammerWithHighestSalaryInCentsLambdaParallel(programmers);
+	}
+
+	@Benchmark
+	public ImmutableProgrammer maxCentsLambdaParallel() {
+		return records.parallelStream().collect(ParallelCollectors.maxByLong(ImmutableProgrammer::getSalaryInCents));
+	}
+
+	@Benchmark
+	public int maxCentsTableLambdaParallel() {
+		return table.findTheProgrammerWithHighestSalaryLambdaParallel();
+	}
+
+	@Benchmark
+	public BigDecimal sumBigDecimalLambdaParallel() {
+		return programmers.parallelStream().map(Programmer::getSalary).reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	@Benchmark
+	public LongSummaryStatistics statisticsCentsLambdaParallel() {
+		return Salaries.statisticsParallel(records, ImmutableProgrammer::getSalaryInCents);
+	}
+
+	@Benchmark
+	public long[] histogramCents() {
+		return Salaries.histogram(records, ImmutableProgrammer::getSalaryInCents, 500000, 10000, 50);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(SalaryBenchmark.class, args);
+	}
+
+}
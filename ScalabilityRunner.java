@@ -0,0 +1,410 @@
+package domain;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs JMH benchmarks over a grid of dataset sizes, thread counts and JVM settings (heap and
+ * garbage collector), stores the scores as a CSV baseline and derives the speedup and efficiency
+ * of every benchmark over the thread count. Compared with a stored baseline, it fails when a
+ * benchmark got slower than a threshold allows and the confidence intervals of the two scores
+ * do not overlap. The measurements are keyed by all parameters of a benchmark, so benchmarks
+ * with other parameters than the size are kept apart, and those without a size run as well.
+ *
+ * The forked JVMs of a run with t threads see t processors through
+ * {@code -XX:ActiveProcessorCount}, so pools sized by the processors use t threads, and the
+ * common pool gets a parallelism of t - 1, since the thread that starts a parallel stream works
+ * on it as well. The speedup at t threads is the score at the lowest thread count divided by
+ * the score at t, the efficiency is the speedup divided by the ratio of the thread counts.
+ *
+ * Configured with system properties:
+ *
+ * <pre>
+ * -Dbenchmarks=FinderBenchmark                 regular expression of the benchmarks to run
+ * -Dsizes=1000,10000,100000,1000000,10000000   dataset sizes, up to 100000000 with a large heap,
+ *                                              empty for the sizes of the benchmarks
+ * -Dthreads=1,2,4,...                          default powers of two up to the processors
+ * -Djvm="-Xmx8g -XX:+UseG1GC;-Xmx8g -XX:+UseParallelGC"   JVM settings, separated by ;
+ * -Dout=scalability                            prefix of the result and curve files
+ * -Dbaseline=baseline.csv                      results to compare with
+ * -Dthreshold=0.1                              allowed slowdown against the baseline
+ * -Dquick=true                                 1 fork and short iterations
+ * </pre>
+ *
+ * @author Aleksander
+ */
+public class ScalabilityRunner {
+
+	private static final String PARALLELISM_PROPERTY = "java.util.concurrent.ForkJoinPool.common.parallelism";
+	private static final String HEADER = "benchmark,params,threads,jvm,score,error,unit";
+	private static final String CURVE_HEADER = "benchmark,params,jvm,threads,score,speedup,efficiency";
+
+	private ScalabilityRunner() {
+	}
+
+	/**
+	 * Runs the benchmarks once per thread count and JVM setting.
+	 *
+	 * @param benchmarks regular expression of the benchmarks
+	 * @param sizes values of the size parameter of the benchmarks that have one, or empty to
+	 *        keep their own values
+	 * @param threads the thread counts
+	 * @param jvmSettings JVM options per setting, separated by spaces
+	 * @param quick whether to run 1 fork with short iterations
+	 * @return the score of every benchmark, parameter combination, thread count and JVM setting
+	 * @throws RunnerException
+	 */
+	public static List<Measurement> run(String benchmarks, List<String> sizes, List<Integer> threads, List<String> jvmSettings,
+			boolean quick) throws RunnerException {
+		List<Measurement> measurements = new ArrayList<>();
+		for(String jvm : jvmSettings) {
+			for(int count : threads) {
+				List<String> jvmArgs = new ArrayList<>(Arrays.asList(jvm.trim().split("\\s+")));
+				jvmArgs.removeIf(String::isEmpty);
+				jvmArgs.add("-XX:ActiveProcessorCount=" + count);
+				jvmArgs.add("-D" + PARALLELISM_PROPERTY + "=" + (count - 1));
+				ChainedOptionsBuilder options = new OptionsBuilder()
+						.include(benchmarks)
+						.jvmArgsAppend(jvmArgs.toArray(new String[0]))
+						.shouldFailOnError(true);
+				if(!sizes.isEmpty()) {
+					//benchmarks without a size parameter ignore it
+					options.param("size", sizes.toArray(new String[0]));
+				}
+				if(quick) {
+					options.forks(1)
+						.warmupIterations(2)
+						.warmupTime(TimeValue.seconds(1))
+						.measurementIterations(3)
+						.measurementTime(TimeValue.seconds(1));
+				}
+				for(RunResult result : new Runner(options.build()).run()) {
+					measurements.add(new Measurement(result.getParams().getBenchmark(), params(result.getParams()), count, jvm.trim(),
+							result.getPrimaryResult().getScore(), result.getPrimaryResult().getScoreError(),
+							result.getPrimaryResult().getScoreUnit()));
+				}
+			}
+		}
+		return measurements;
+	}
+
+	/**
+	 * All parameters of a benchmark run, sorted by name.
+	 */
+	private static SortedMap<String, String> params(BenchmarkParams benchmark) {
+		SortedMap<String, String> params = new TreeMap<>();
+		for(String name : benchmark.getParamsKeys()) {
+			params.put(name, benchmark.getParam(name));
+		}
+		return params;
+	}
+
+	/**
+	 * The speedup and efficiency of every benchmark, parameter combination and JVM setting over
+	 * the thread count, relative to the lowest thread count measured.
+	 *
+	 * @param measurements
+	 * @return one CSV line per measurement, without the header
+	 */
+	public static List<String> curves(List<Measurement> measurements) {
+		Map<String, Measurement> baselines = new LinkedHashMap<>();
+		for(Measurement measurement : measurements) {
+			String series = measurement.series();
+			Measurement lowest = baselines.get(series);
+			if(lowest == null || measurement.threads < lowest.threads) {
+				baselines.put(series, measurement);
+			}
+		}
+		List<String> lines = new ArrayList<>();
+		for(Measurement measurement : measurements) {
+			Measurement lowest = baselines.get(measurement.series());
+			double speedup = lowest.score / measurement.score;
+			double efficiency = speedup * lowest.threads / measurement.threads;
+			lines.add(String.format(Locale.ROOT, "%s,%s,%s,%d,%.3f,%.3f,%.3f", measurement.benchmark,
+					quote(measurement.getParamsText()), quote(measurement.jvm), measurement.threads, measurement.score, speedup,
+					efficiency));
+		}
+		return lines;
+	}
+
+	/**
+	 * The measurements that are slower than their baseline by more than the threshold, with a
+	 * confidence interval (score plus or minus error) above the one of the baseline, so noise
+	 * within the error of either score is not reported. Scores are times per operation, so
+	 * larger is slower; measurements without a baseline are skipped, and a missing error counts
+	 * as zero.
+	 *
+	 * @param measurements
+	 * @param baseline
+	 * @param threshold allowed relative slowdown, for example 0.1 for 10%
+	 * @return a description of every regression
+	 */
+	public static List<String> regressions(List<Measurement> measurements, List<Measurement> baseline, double threshold) {
+		Map<String, Measurement> expected = new LinkedHashMap<>();
+		for(Measurement measurement : baseline) {
+			expected.put(measurement.key(), measurement);
+		}
+		List<String> regressions = new ArrayList<>();
+		for(Measurement measurement : measurements) {
+			Measurement before = expected.get(measurement.key());
+			if(before != null && measurement.score > before.score * (1 + threshold)
+					&& measurement.score - measurement.errorOrZero() > before.score + before.errorOrZero()) {
+				regressions.add(String.format(Locale.ROOT, "%s: %.3f +- %.3f -> %.3f +- %.3f %s (%+.1f%%)", measurement.key(),
+						before.score, before.errorOrZero(), measurement.score, measurement.errorOrZero(), measurement.unit,
+						100 * (measurement.score / before.score - 1)));
+			}
+		}
+		return regressions;
+	}
+
+	/**
+	 * Writes the measurements as CSV.
+	 *
+	 * @param file
+	 * @param measurements
+	 * @throws IOException
+	 */
+	public static void writeCsv(Path file, List<Measurement> measurements) throws IOException {
+		try(Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(HEADER);
+			writer.write('\n');
+			for(Measurement measurement : measurements) {
+				writer.write(String.format(Locale.ROOT, "%s,%s,%d,%s,%s,%s,%s%n", measurement.benchmark, quote(measurement.getParamsText()),
+						measurement.threads, quote(measurement.jvm), measurement.score, measurement.error, measurement.unit));
+			}
+		}
+	}
+
+	/**
+	 * Reads measurements written by {@link #writeCsv(Path, List)}.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<Measurement> readCsv(Path file) throws IOException {
+		List<Measurement> measurements = new ArrayList<>();
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		for(String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+			if(line.isEmpty()) {
+				continue;
+			}
+			List<String> fields = split(line);
+			if(fields.size() != 7) {
+				throw new IOException("Malformed line in " + file + ": " + line);
+			}
+			measurements.add(new Measurement(fields.get(0), parseParams(fields.get(1)), Integer.parseInt(fields.get(2)), fields.get(3),
+					Double.parseDouble(fields.get(4)), Double.parseDouble(fields.get(5)), fields.get(6)));
+		}
+		return measurements;
+	}
+
+	/**
+	 * Parses parameters written by {@link Measurement#getParamsText()}.
+	 */
+	private static SortedMap<String, String> parseParams(String text) {
+		SortedMap<String, String> params = new TreeMap<>();
+		if(!text.isEmpty()) {
+			for(String param : text.split(";")) {
+				int equals = param.indexOf('=');
+				params.put(param.substring(0, equals), param.substring(equals + 1));
+			}
+		}
+		return params;
+	}
+
+	private static String quote(String field) {
+		return '"' + field.replace("\"", "\"\"") + '"';
+	}
+
+	/**
+	 * Splits a CSV line, honoring quoted fields.
+	 */
+	private static List<String> split(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for(int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if(quoted) {
+				if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if(c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if(c == '"') {
+				quoted = true;
+			} else if(c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	/**
+	 * The score of one benchmark with one combination of parameters at one thread count and JVM
+	 * setting.
+	 */
+	public static final class Measurement {
+
+		private final String benchmark;
+		private final SortedMap<String, String> params;
+		private final int threads;
+		private final String jvm;
+		private final double score;
+		private final double error;
+		private final String unit;
+
+		Measurement(String benchmark, SortedMap<String, String> params, int threads, String jvm, double score, double error,
+				String unit) {
+			this.benchmark = benchmark;
+			this.params = params;
+			this.threads = threads;
+			this.jvm = jvm;
+			this.score = score;
+			this.error = error;
+			this.unit = unit;
+		}
+
+		public String getBenchmark() {
+			return benchmark;
+		}
+
+		/**
+		 * The value of a parameter.
+		 *
+		 * @param name
+		 * @return null if the benchmark has no such parameter
+		 */
+		public String getParam(String name) {
+			return params.get(name);
+		}
+
+		/**
+		 * The parameters as {@code name=value} pairs sorted by name and separated by
+		 * semicolons.
+		 *
+		 * @return
+		 */
+		public String getParamsText() {
+			StringBuilder text = new StringBuilder();
+			for(Map.Entry<String, String> param : params.entrySet()) {
+				if(text.length() > 0) {
+					text.append(';');
+				}
+				text.append(param.getKey()).append('=').append(param.getValue());
+			}
+			return text.toString();
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public String getJvm() {
+			return jvm;
+		}
+
+		public double getScore() {
+			return score;
+		}
+
+		public double getError() {
+			return error;
+		}
+
+		public String getUnit() {
+			return unit;
+		}
+
+		double errorOrZero() {
+			return Double.isNaN(error) ? 0 : error;
+		}
+
+		String series() {
+			return benchmark + " " + params + " jvm=[" + jvm + "]";
+		}
+
+		String key() {
+			return benchmark + " " + params + " threads=" + threads + " jvm=[" + jvm + "]";
+		}
+	}
+
+	/**
+	 * Runs the sweep, writes {@code <out>.csv} and {@code <out>-curves.csv}, and exits with 1 if a
+	 * benchmark regressed against the baseline.
+	 *
+	 * @param args
+	 * @throws RunnerException
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws RunnerException, IOException {
+		String benchmarks = System.getProperty("benchmarks", FinderBenchmark.class.getSimpleName());
+		List<String> sizes = new ArrayList<>(Arrays.asList(System.getProperty("sizes", "1000,10000,100000,1000000,10000000").split(",")));
+		sizes.removeIf(String::isBlank);
+		List<Integer> threads = new ArrayList<>();
+		String threadCounts = System.getProperty("threads");
+		if(threadCounts != null) {
+			for(String value : threadCounts.split(",")) {
+				threads.add(Integer.parseInt(value.trim()));
+			}
+		} else {
+			int processors = Runtime.getRuntime().availableProcessors();
+			for(int t = 1; t < processors; t *= 2) {
+				threads.add(t);
+			}
+			threads.add(processors);
+		}
+		List<String> jvmSettings = Arrays.asList(System.getProperty("jvm", "-Xms8g -Xmx8g -XX:+UseG1GC;-Xms8g -Xmx8g -XX:+UseParallelGC").split(";"));
+		String out = System.getProperty("out", "scalability");
+		boolean quick = Boolean.getBoolean("quick");
+
+		List<Measurement> measurements = run(benchmarks, sizes, threads, jvmSettings, quick);
+		writeCsv(Paths.get(out + ".csv"), measurements);
+		List<String> curves = curves(measurements);
+		curves.add(0, CURVE_HEADER);
+		Files.write(Paths.get(out + "-curves.csv"), curves, StandardCharsets.UTF_8);
+		System.out.println("RESULTS: " + out + ".csv, CURVES: " + out + "-curves.csv");
+
+		String baseline = System.getProperty("baseline");
+		if(baseline != null) {
+			double threshold = Double.parseDouble(System.getProperty("threshold", "0.1"));
+			List<String> regressions = regressions(measurements, readCsv(Paths.get(baseline)), threshold);
+			for(String regression : regressions) {
+				System.out.println("REGRESSION " + regression);
+			}
+			if(!regressions.isEmpty()) {
+				System.exit(1);
+			}
+			System.out.println("NO REGRESSIONS AGAINST " + baseline);
+		}
+	}
+
+}
@@ -0,0 +1,359 @@
+package domain;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the finder queries over a dataset sharded across {@link ShardWorker} processes by the
+ * hash of the last name, so the dataset is spread over several heaps and garbage collectors.
+ *
+ * A query is scattered by writing it to every worker before reading any answer, so the workers
+ * compute in parallel without threads in the coordinator. The top queries ask every worker for
+ * its own top K and merge them with {@link Aggregations#top(List, int, Comparator)}; the filter
+ * results are concatenated and put back into row order. The results equal those of the single
+ * list queries over the whole dataset, ties included.
+ *
+ * The class is not thread-safe.
+ *
+ * @author Aleksander
+ */
+public class ShardCoordinator implements AutoCloseable {
+
+	private static final long QUIT_TIMEOUT_SECONDS = 10;
+
+	private final List<Worker> workers;
+	private final long size;
+
+	private ShardCoordinator(List<Worker> workers, long size) {
+		this.workers = workers;
+		this.size = size;
+	}
+
+	/**
+	 * Starts one worker JVM per shard with the class path of this JVM and waits until all of
+	 * them have generated their shard of the dataset.
+	 *
+	 * @param shards
+	 * @param seed the seed of the {@link ProgrammerGenerator}
+	 * @param size the number of programmers in the whole dataset
+	 * @param jvmOptions options of the worker JVMs, for example the heap size
+	 * @return
+	 * @throws IOException if a worker cannot be started or fails while loading
+	 */
+	public static ShardCoordinator launch(int shards, long seed, long size, List<String> jvmOptions) throws IOException {
+		if(shards <= 0) {
+			throw new IllegalArgumentException("Number of shards must be positive: " + shards);
+		}
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		List<Worker> workers = new ArrayList<>();
+		try {
+			for(int shard = 0; shard < shards; shard++) {
+				List<String> command = new ArrayList<>();
+				command.add(java);
+				command.addAll(jvmOptions);
+				command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), ShardWorker.class.getName(),
+						Long.toString(seed), Long.toString(size), Integer.toString(shard), Integer.toString(shards)));
+				Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+				workers.add(new Worker(shard, process));
+			}
+			long loaded = 0;
+			for(Worker worker : workers) {
+				loaded += worker.awaitReady();
+			}
+			if(loaded != size) {
+				throw new IOException("Workers loaded " + loaded + " of " + size + " programmers");
+			}
+			return new ShardCoordinator(workers, size);
+		} catch(IOException | RuntimeException e) {
+			workers.forEach(Worker::kill);
+			throw e;
+		}
+	}
+
+	public int getShards() {
+		return workers.size();
+	}
+
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * It finds the youngest programmer of all shards.
+	 *
+	 * @return the programmer, or null if the dataset is empty
+	 * @throws IOException
+	 */
+	public Programmer findTheYoungestProgrammer() throws IOException {
+		return first(top(ShardWorker.BIRTH_DATE, 1));
+	}
+
+	/**
+	 * It finds the programmer with the highest salary of all shards.
+	 *
+	 * @return the programmer, or null if the dataset is empty
+	 * @throws IOException
+	 */
+	public Programmer findTheProgrammerWithHighestSalary() throws IOException {
+		return first(top(ShardWorker.SALARY, 1));
+	}
+
+	/**
+	 * It finds the given number of youngest programmers of all shards.
+	 *
+	 * @param count
+	 * @return the programmers from the youngest on
+	 * @throws IOException
+	 */
+	public List<Programmer> findTheYoungestProgrammers(int count) throws IOException {
+		return top(ShardWorker.BIRTH_DATE, count);
+	}
+
+	/**
+	 * It finds the given number of programmers with the highest salaries of all shards.
+	 *
+	 * @param count
+	 * @return the programmers from the highest salary on
+	 * @throws IOException
+	 */
+	public List<Programmer> findTheProgrammersWithHighestSalaries(int count) throws IOException {
+		return top(ShardWorker.SALARY, count);
+	}
+
+	/**
+	 * It finds the programmers whose last name contains the given name in all shards.
+	 *
+	 * @param name
+	 * @return the programmers in the order of the whole dataset
+	 * @throws IOException
+	 */
+	public List<Programmer> findTheProgrammersByName(String name) throws IOException {
+		if(name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+			throw new IllegalArgumentException("Name must be a single line: " + name);
+		}
+		List<ShardWorker.Row> rows = new ArrayList<>();
+		for(List<ShardWorker.Row> shard : scatter(ShardWorker.FILTER + " " + name)) {
+			rows.addAll(shard);
+		}
+		rows.sort(Comparator.comparingLong(row -> row.row));
+		return programmers(rows);
+	}
+
+	private List<Programmer> top(String key, int count) throws IOException {
+		if(count <= 0) {
+			throw new IllegalArgumentException("Count must be positive: " + count);
+		}
+		List<ShardWorker.Row> candidates = new ArrayList<>();
+		for(List<ShardWorker.Row> shard : scatter(ShardWorker.TOP + " " + key + " " + count)) {
+			candidates.addAll(shard);
+		}
+		return programmers(Aggregations.top(candidates, count, ShardWorker.order(key)));
+	}
+
+	/**
+	 * Sends the command to all workers, then gathers their answers. A rejected command is
+	 * reported only after every worker has answered, so the pipes stay in step.
+	 */
+	private List<List<ShardWorker.Row>> scatter(String command) throws IOException {
+		for(Worker worker : workers) {
+			worker.send(command);
+		}
+		List<List<ShardWorker.Row>> answers = new ArrayList<>(workers.size());
+		IllegalArgumentException rejected = null;
+		for(Worker worker : workers) {
+			try {
+				answers.add(worker.receive());
+			} catch(IllegalArgumentException e) {
+				rejected = e;
+			}
+		}
+		if(rejected != null) {
+			throw rejected;
+		}
+		return answers;
+	}
+
+	private static Programmer first(List<Programmer> programmers) {
+		return programmers.isEmpty() ? null : programmers.get(0);
+	}
+
+	private static List<Programmer> programmers(List<ShardWorker.Row> rows) {
+		List<Programmer> programmers = new ArrayList<>(rows.size());
+		for(ShardWorker.Row row : rows) {
+			programmers.add(row.programmer);
+		}
+		return programmers;
+	}
+
+	/**
+	 * Asks the workers to quit and kills those that do not exit in time.
+	 */
+	@Override
+	public void close() {
+		for(Worker worker : workers) {
+			worker.quit();
+		}
+		for(Worker worker : workers) {
+			worker.awaitExit();
+		}
+	}
+
+	/**
+	 * The pipes to one worker process.
+	 */
+	private static final class Worker {
+
+		private final int shard;
+		private final Process process;
+		private final Writer in;
+		private final BufferedReader out;
+
+		Worker(int shard, Process process) {
+			this.shard = shard;
+			this.process = process;
+			this.in = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+			this.out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8), 1 << 16);
+		}
+
+		long awaitReady() throws IOException {
+			String line = readLine();
+			if(!line.startsWith(ShardWorker.READY + " ")) {
+				throw new IOException("Shard " + shard + " failed to start: " + line);
+			}
+			return Long.parseLong(line.substring(ShardWorker.READY.length() + 1));
+		}
+
+		void send(String command) throws IOException {
+			in.write(command + "\n");
+			in.flush();
+		}
+
+		List<ShardWorker.Row> receive() throws IOException {
+			String line = readLine();
+			if(line.startsWith(ShardWorker.ERROR)) {
+				throw new IllegalArgumentException("Shard " + shard + ": " + line.substring(ShardWorker.ERROR.length()).trim());
+			}
+			int count = Integer.parseInt(line);
+			List<ShardWorker.Row> rows = new ArrayList<>(count);
+			for(int i = 0; i < count; i++) {
+				rows.add(ShardWorker.parse(readLine()));
+			}
+			return rows;
+		}
+
+		private String readLine() throws IOException {
+			String line = out.readLine();
+			if(line == null) {
+				throw new IOException("Shard " + shard + " exited");
+			}
+			return line;
+		}
+
+		void quit() {
+			try {
+				send(ShardWorker.QUIT);
+				in.close();
+			} catch(IOException e) {
+				//the worker is gone already
+			}
+		}
+
+		void awaitExit() {
+			try {
+				if(!process.waitFor(QUIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					kill();
+				}
+			} catch(InterruptedException e) {
+				kill();
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		void kill() {
+			process.destroyForcibly();
+		}
+	}
+
+	/**
+	 * Test harness: for 1, 2, 4 ... up to the given number of shards, launches the workers,
+	 * checks the sharded results against each other and prints the load time and the best query
+	 * times. Arguments: number of programmers (default 10000000), maximum number of shards
+	 * (default the number of processors), heap of each worker (default 4g).
+	 *
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		long size = args.length > 0 ? Long.parseLong(args[0]) : 10000000;
+		int maxShards = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		String heap = args.length > 2 ? args[2] : "4g";
+		List<String> jvmOptions = Arrays.asList("-Xms" + heap, "-Xmx" + heap);
+		int runs = 5;
+
+		List<Programmer> expected = null;
+		for(int shards = 1; shards <= maxShards; shards *= 2) {
+			long start = System.nanoTime();
+			try(ShardCoordinator coordinator = launch(shards, ProgrammerGenerator.DEFAULT_SEED, size, jvmOptions)) {
+				System.out.printf("%d SHARDS: LOADED %d PROGRAMMERS IN %d ms%n", shards, size,
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				Programmer highestSalary = coordinator.findTheProgrammerWithHighestSalary();
+				String name = highestSalary == null ? "AB" : highestSalary.getLastName().substring(0, 2);
+				List<Programmer> answers = new ArrayList<>();
+				answers.add(coordinator.findTheYoungestProgrammer());
+				answers.add(highestSalary);
+				answers.addAll(coordinator.findTheProgrammersByName(name));
+				if(expected != null && !sameProgrammers(expected, answers)) {
+					throw new IllegalStateException(shards + " shards returned different results than 1 shard");
+				}
+				expected = answers;
+
+				long youngest = Long.MAX_VALUE;
+				long salary = Long.MAX_VALUE;
+				long byName = Long.MAX_VALUE;
+				long topTen = Long.MAX_VALUE;
+				for(int run = 0; run < runs; run++) {
+					long time = System.nanoTime();
+					coordinator.findTheYoungestProgrammer();
+					youngest = Math.min(youngest, System.nanoTime() - time);
+					time = System.nanoTime();
+					coordinator.findTheProgrammerWithHighestSalary();
+					salary = Math.min(salary, System.nanoTime() - time);
+					time = System.nanoTime();
+					coordinator.findTheProgrammersByName(name);
+					byName = Math.min(byName, System.nanoTime() - time);
+					time = System.nanoTime();
+					coordinator.findTheYoungestProgrammers(10);
+					topTen = Math.min(topTen, System.nanoTime() - time);
+				}
+				System.out.printf("\tYOUNGEST: %.3f ms, HIGHEST SALARY: %.3f ms, BY NAME: %.3f ms (%d), YOUNGEST 10: %.3f ms%n",
+						youngest / 1e6, salary / 1e6, byName / 1e6, answers.size() - 2, topTen / 1e6);
+			}
+		}
+	}
+
+	private static boolean sameProgrammers(List<Programmer> expected, List<Programmer> actual) {
+		if(expected.size() != actual.size()) {
+			return false;
+		}
+		for(int i = 0; i < expected.size(); i++) {
+			Programmer e = expected.get(i);
+			Programmer a = actual.get(i);
+			if(e == null || a == null ? e != a : !(e.getFirstName().equals(a.getFirstName()) && e.getLastName().equals(a.getLastName()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,220 @@
+package domain;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Worker process holding one shard of a generated dataset: the programmers whose last name
+ * hashes to its shard. It regenerates the dataset from the seed, so no data is transferred to
+ * it, and answers the queries of a {@link ShardCoordinator} over its standard input and output,
+ * one command per line:
+ *
+ * <pre>
+ * TOP birthDate|salary &lt;k&gt;
+ * FILTER &lt;name&gt;
+ * QUIT
+ * </pre>
+ *
+ * After loading the shard the worker prints {@code READY <rows>}. Every query is answered with
+ * the number of matches followed by one line per match: the row in the whole dataset and the
+ * fields of the programmer, separated by tabs. Top queries return the matches from the largest
+ * on, filters in row order; an invalid command is answered with {@code ERROR <message>}.
+ *
+ * @author Aleksander
+ */
+public class ShardWorker {
+
+	static final String READY = "READY";
+	static final String ERROR = "ERROR";
+	static final String QUIT = "QUIT";
+	static final String TOP = "TOP";
+	static final String FILTER = "FILTER";
+	static final String BIRTH_DATE = "birthDate";
+	static final String SALARY = "salary";
+
+	/**
+	 * The larger key first; on ties the smaller row, like the finders that keep the first
+	 * programmer they see.
+	 */
+	static final Comparator<Row> BY_BIRTH_DATE = Comparator.comparing((Row row) -> row.programmer.getBirthDate())
+			.thenComparing(Comparator.comparingLong((Row row) -> row.row).reversed());
+	static final Comparator<Row> BY_SALARY = Comparator.comparing((Row row) -> row.programmer.getSalary())
+			.thenComparing(Comparator.comparingLong((Row row) -> row.row).reversed());
+
+	private final List<Row> rows;
+
+	ShardWorker(List<Row> rows) {
+		this.rows = rows;
+	}
+
+	/**
+	 * The shard of a programmer.
+	 *
+	 * @param programmer
+	 * @param shards
+	 * @return
+	 */
+	static int shardOf(Programmer programmer, int shards) {
+		return Math.floorMod(programmer.getLastName().hashCode(), shards);
+	}
+
+	/**
+	 * Generates the dataset chunk by chunk in parallel and keeps the rows of the given shard.
+	 *
+	 * @param seed
+	 * @param size
+	 * @param shard
+	 * @param shards
+	 * @return the rows in ascending order
+	 */
+	static List<Row> load(long seed, long size, int shard, int shards) {
+		long chunks = (size + ProgrammerGenerator.CHUNK_SIZE - 1) / ProgrammerGenerator.CHUNK_SIZE;
+		//every chunk is generated by one thread, which owns its list
+		List<List<Row>> loaded = new ArrayList<>((int) chunks);
+		for(long chunk = 0; chunk < chunks; chunk++) {
+			loaded.add(new ArrayList<>());
+		}
+		new ProgrammerGenerator(seed).generate(size, ForkJoinPool.commonPool(), ProgrammerGenerator::generateProgrammer,
+				(programmer, row) -> {
+					if(shardOf(programmer, shards) == shard) {
+						loaded.get((int) (row / ProgrammerGenerator.CHUNK_SIZE)).add(new Row(row, programmer));
+					}
+				});
+		List<Row> rows = new ArrayList<>(loaded.stream().mapToInt(List::size).sum());
+		loaded.forEach(rows::addAll);
+		return rows;
+	}
+
+	/**
+	 * Answers commands until QUIT or the end of the input.
+	 *
+	 * @param in
+	 * @param out
+	 * @throws IOException
+	 */
+	void serve(BufferedReader in, Writer out) throws IOException {
+		out.write(READY + " " + rows.size() + "\n");
+		out.flush();
+		for(String line = in.readLine(); line != null && !QUIT.equals(line); line = in.readLine()) {
+			try {
+				write(out, execute(line));
+			} catch(IllegalArgumentException e) {
+				out.write(ERROR + " " + e.getMessage() + "\n");
+			}
+			out.flush();
+		}
+	}
+
+	private List<Row> execute(String command) {
+		String[] parts = command.split(" ", 2);
+		String argument = parts.length > 1 ? parts[1] : "";
+		switch(parts[0]) {
+		case TOP:
+			String[] top = argument.split(" ");
+			if(top.length != 2) {
+				throw new IllegalArgumentException("Expected TOP <key> <k>: " + command);
+			}
+			return Aggregations.topParallel(rows, parseCount(top[1]), order(top[0]));
+		case FILTER:
+			return ParallelCollectors.filter(rows, row -> row.programmer.getLastName().contains(argument));
+		default:
+			throw new IllegalArgumentException("Unknown command: " + command);
+		}
+	}
+
+	static Comparator<Row> order(String key) {
+		switch(key) {
+		case BIRTH_DATE:
+			return BY_BIRTH_DATE;
+		case SALARY:
+			return BY_SALARY;
+		default:
+			throw new IllegalArgumentException("Unknown key: " + key);
+		}
+	}
+
+	private static int parseCount(String count) {
+		try {
+			int k = Integer.parseInt(count);
+			if(k > 0) {
+				return k;
+			}
+		} catch(NumberFormatException e) {
+			//reported below
+		}
+		throw new IllegalArgumentException("Invalid count: " + count);
+	}
+
+	private static void write(Writer out, List<Row> rows) throws IOException {
+		out.write(rows.size() + "\n");
+		for(Row row : rows) {
+			Programmer programmer = row.programmer;
+			out.write(row.row + "\t" + programmer.getFirstName() + "\t" + programmer.getLastName() + "\t" + programmer.getBirthDate()
+					+ "\t" + programmer.getPrimaryLanguage() + "\t" + programmer.getProgrammingStartDate() + "\t"
+					+ programmer.getSalary().toPlainString() + "\n");
+		}
+	}
+
+	/**
+	 * Parses a line written for one match.
+	 *
+	 * @param line
+	 * @return
+	 */
+	static Row parse(String line) {
+		String[] fields = line.split("\t");
+		if(fields.length != 7) {
+			throw new IllegalArgumentException("Malformed row: " + line);
+		}
+		return new Row(Long.parseLong(fields[0]), new Programmer(fields[1], fields[2], LocalDate.parse(fields[3]), fields[4],
+				LocalDate.parse(fields[5]), new BigDecimal(fields[6])));
+	}
+
+	/**
+	 * A programmer with its row in the whole dataset.
+	 */
+	static final class Row {
+
+		final long row;
+		final Programmer programmer;
+
+		Row(long row, Programmer programmer) {
+			this.row = row;
+			this.programmer = programmer;
+		}
+	}
+
+	/**
+	 * Arguments: seed, number of programmers in the whole dataset, shard, number of shards.
+	 *
+	 * @param args
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length != 4) {
+			System.err.println("Usage: ShardWorker <seed> <size> <shard> <shards>");
+			System.exit(2);
+		}
+		long seed = Long.parseLong(args[0]);
+		long size = Long.parseLong(args[1]);
+		int shard = Integer.parseInt(args[2]);
+		int shards = Integer.parseInt(args[3]);
+
+		ShardWorker worker = new ShardWorker(load(seed, size, shard, shards));
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+		worker.serve(in, out);
+	}
+
+}
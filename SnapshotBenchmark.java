@@ -0,0 +1,84 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Measures opening a snapshot file and the queries over the mapped records, next to generating
+ * the same dataset.
+ *
+ * @author Aleksander
+ */
+public class SnapshotBenchmark extends AbstractBenchmark {
+
+	@Param({"100000", "1000000", "10000000"})
+	private int size;
+
+	private Path file;
+	private ProgrammerRecords records;
+	private String name;
+
+	@Setup(Level.Trial)
+	public void writeSnapshot() throws IOException {
+		List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		name = programmers.get(0).getLastName().substring(0, 2);
+		file = Files.createTempFile("programmers", ".snapshot");
+		ProgrammerSnapshot.write(programmers, file);
+		records = ProgrammerSnapshot.map(file);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteSnapshot() throws IOException {
+		records = null;
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public ProgrammerRecords map() throws IOException {
+		return ProgrammerSnapshot.map(file);
+	}
+
+	@Benchmark
+	public List<Programmer> generate() {
+		return new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+	}
+
+	@Benchmark
+	public long youngestLoop() {
+		return records.findTheYoungestProgrammerLoop();
+	}
+
+	@Benchmark
+	public long youngestLambdaParallel() {
+		return records.findTheYoungestProgrammerLambdaParallel();
+	}
+
+	@Benchmark
+	public long highestSalaryLoop() {
+		return records.findTheProgrammerWithHighestSalaryLoop();
+	}
+
+	@Benchmark
+	public long highestSalaryLambdaParallel() {
+		return records.findTheProgrammerWithHighestSalaryLambdaParallel();
+	}
+
+	@Benchmark
+	public long[] byNameLambdaParallel() {
+		return records.findTheProgrammersByNameParallel(name);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(SnapshotBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,466 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Secondary index of the rows of a list of programmers sorted by a primitive key, such as the
+ * birth day or the salary in cents. The keys and the row ids are kept in two parallel primitive
+ * arrays sorted by key and then by row, so the minimum, the maximum and the bounds of a key
+ * range are found by binary search.
+ *
+ * A bulk build sorts with a parallel merge sort whose merges are split in parallel as well, by
+ * binary search of the middle of one run in the other. Single rows inserted afterwards are
+ * inserted into a small delta buffer kept sorted in the same order, which is merged into the
+ * main arrays once it holds about the square root of the index size. An insert costs
+ * amortized O(sqrt n) and a query never sorts, so it stays O(log n) between inserts.
+ *
+ * Like {@link LastNameIndex}, the index does not notice changes of the programmers; the rows of
+ * changed programmers have to be rebuilt. Inserting a row again under the same key is ignored,
+ * but a row inserted again under another key, for example after its programmer changed, is
+ * kept under both keys.
+ *
+ * The class is not thread-safe.
+ *
+ * @author Aleksander
+ */
+public class SortedIndex {
+
+	private static final int SEQUENTIAL_THRESHOLD = 8192;
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+	private static final int MIN_DELTA = 1024;
+
+	private final ToLongFunction<? super Programmer> key;
+	private long[] keys;
+	private int[] rows;
+	private long[] deltaKeys = new long[16];
+	private int[] deltaRows = new int[16];
+	private int deltaSize;
+
+	private SortedIndex(ToLongFunction<? super Programmer> key) {
+		this.key = key;
+	}
+
+	/**
+	 * Builds an index over the given key of the programmers.
+	 *
+	 * @param programmers
+	 * @param key
+	 * @return
+	 */
+	public static SortedIndex of(List<Programmer> programmers, ToLongFunction<? super Programmer> key) {
+		SortedIndex index = new SortedIndex(key);
+		index.rebuild(programmers);
+		return index;
+	}
+
+	/**
+	 * Builds an index over the birth days of the programmers.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static SortedIndex byBirthDay(List<Programmer> programmers) {
+		return of(programmers, programmer -> programmer.getBirthDate().toEpochDay());
+	}
+
+	/**
+	 * Builds an index over the salaries of the programmers in cents.
+	 *
+	 * @param programmers
+	 * @return
+	 */
+	public static SortedIndex bySalaryInCents(List<Programmer> programmers) {
+		return of(programmers, Salaries.IN_CENTS);
+	}
+
+	/**
+	 * Replaces the content of the index with all rows of the given list.
+	 *
+	 * @param programmers
+	 */
+	public void rebuild(List<Programmer> programmers) {
+		Programmer[] array = programmers.toArray(new Programmer[0]);
+		long[] keys = new long[array.length];
+		int[] rows = new int[array.length];
+		Arrays.parallelSetAll(rows, row -> row);
+		Arrays.parallelSetAll(keys, row -> key.applyAsLong(array[row]));
+		ForkJoinPool.commonPool().invoke(new SortTask(keys, rows, new long[keys.length], new int[rows.length], 0, keys.length));
+		this.keys = keys;
+		this.rows = rows;
+		deltaSize = 0;
+	}
+
+	/**
+	 * Adds the row of a programmer that is not in the index yet, usually one appended to the
+	 * indexed list. A row that is already indexed under the same key is ignored.
+	 *
+	 * @param row
+	 * @param programmer
+	 */
+	public void insert(int row, Programmer programmer) {
+		long value = key.applyAsLong(programmer);
+		if(search(keys, rows, 0, keys.length, value, row) >= 0) {
+			return;
+		}
+		int position = search(deltaKeys, deltaRows, 0, deltaSize, value, row);
+		if(position >= 0) {
+			return;
+		}
+		position = -(position + 1);
+		if(deltaSize == deltaKeys.length) {
+			deltaKeys = Arrays.copyOf(deltaKeys, 2 * deltaSize);
+			deltaRows = Arrays.copyOf(deltaRows, 2 * deltaSize);
+		}
+		System.arraycopy(deltaKeys, position, deltaKeys, position + 1, deltaSize - position);
+		System.arraycopy(deltaRows, position, deltaRows, position + 1, deltaSize - position);
+		deltaKeys[position] = value;
+		deltaRows[position] = row;
+		deltaSize++;
+		if(deltaSize >= Math.max(MIN_DELTA, (int) Math.sqrt(keys.length))) {
+			mergeDelta();
+		}
+	}
+
+	public int size() {
+		return keys.length + deltaSize;
+	}
+
+	/**
+	 * The row with the smallest key, the smallest row on ties.
+	 *
+	 * @return the row, or -1 if the index is empty
+	 */
+	public int minRow() {
+		if(keys.length == 0) {
+			return deltaSize == 0 ? -1 : deltaRows[0];
+		}
+		if(deltaSize == 0) {
+			return rows[0];
+		}
+		return compare(deltaKeys[0], deltaRows[0], keys[0], rows[0]) < 0 ? deltaRows[0] : rows[0];
+	}
+
+	/**
+	 * The row with the largest key, the smallest row on ties like the finders that keep the
+	 * first programmer they see.
+	 *
+	 * @return the row, or -1 if the index is empty
+	 */
+	public int maxRow() {
+		int main = keys.length == 0 ? -1 : lowerBound(keys, 0, keys.length, keys[keys.length - 1]);
+		int delta = deltaSize == 0 ? -1 : lowerBound(deltaKeys, 0, deltaSize, deltaKeys[deltaSize - 1]);
+		if(delta < 0) {
+			return main < 0 ? -1 : rows[main];
+		}
+		if(main < 0) {
+			return deltaRows[delta];
+		}
+		if(keys[main] != deltaKeys[delta]) {
+			return keys[main] > deltaKeys[delta] ? rows[main] : deltaRows[delta];
+		}
+		return Math.min(rows[main], deltaRows[delta]);
+	}
+
+	/**
+	 * Counts the rows whose key is in the given range.
+	 *
+	 * @param from inclusive
+	 * @param to exclusive
+	 * @return
+	 */
+	public int count(long from, long to) {
+		if(from >= to) {
+			return 0;
+		}
+		return lowerBound(keys, 0, keys.length, to) - lowerBound(keys, 0, keys.length, from)
+				+ lowerBound(deltaKeys, 0, deltaSize, to) - lowerBound(deltaKeys, 0, deltaSize, from);
+	}
+
+	/**
+	 * Passes the rows whose key is in the given range to the action, in ascending key order.
+	 *
+	 * @param from inclusive
+	 * @param to exclusive
+	 * @param action
+	 */
+	public void forEachInRange(long from, long to, IntConsumer action) {
+		if(from >= to) {
+			return;
+		}
+		int main = lowerBound(keys, 0, keys.length, from);
+		int mainEnd = lowerBound(keys, 0, keys.length, to);
+		int delta = lowerBound(deltaKeys, 0, deltaSize, from);
+		int deltaEnd = lowerBound(deltaKeys, 0, deltaSize, to);
+		while(main < mainEnd || delta < deltaEnd) {
+			if(delta == deltaEnd || main < mainEnd && compare(keys[main], rows[main], deltaKeys[delta], deltaRows[delta]) < 0) {
+				action.accept(rows[main++]);
+			} else {
+				action.accept(deltaRows[delta++]);
+			}
+		}
+	}
+
+	/**
+	 * The rows whose key is in the given range, in ascending key order.
+	 *
+	 * @param from inclusive
+	 * @param to exclusive
+	 * @return
+	 */
+	public int[] rowsInRange(long from, long to) {
+		int[] result = new int[count(from, to)];
+		int[] position = new int[1];
+		forEachInRange(from, to, row -> result[position[0]++] = row);
+		return result;
+	}
+
+	/**
+	 * Merges the delta buffer into the main arrays.
+	 */
+	private void mergeDelta() {
+		long[] mergedKeys = new long[keys.length + deltaSize];
+		int[] mergedRows = new int[mergedKeys.length];
+		ForkJoinPool.commonPool().invoke(new MergeTask(keys, rows, 0, keys.length, deltaKeys, deltaRows, 0, deltaSize,
+				mergedKeys, mergedRows, 0));
+		keys = mergedKeys;
+		rows = mergedRows;
+		deltaSize = 0;
+	}
+
+	private static int compare(long key, int row, long otherKey, int otherRow) {
+		int order = Long.compare(key, otherKey);
+		return order != 0 ? order : Integer.compare(row, otherRow);
+	}
+
+	/**
+	 * The first position whose key is not less than the given key.
+	 */
+	private static int lowerBound(long[] keys, int from, int to, long key) {
+		while(from < to) {
+			int middle = (from + to) >>> 1;
+			if(keys[middle] < key) {
+				from = middle + 1;
+			} else {
+				to = middle;
+			}
+		}
+		return from;
+	}
+
+	/**
+	 * Binary search for a key and row, in the style of {@link Arrays#binarySearch(long[], long)}.
+	 *
+	 * @return the position, or {@code -(insertion point) - 1} if not present
+	 */
+	private static int search(long[] keys, int[] rows, int from, int to, long key, int row) {
+		while(from < to) {
+			int middle = (from + to) >>> 1;
+			int order = compare(keys[middle], rows[middle], key, row);
+			if(order < 0) {
+				from = middle + 1;
+			} else if(order > 0) {
+				to = middle;
+			} else {
+				return middle;
+			}
+		}
+		return -(from + 1);
+	}
+
+	/**
+	 * Merge sort of the keys and then the rows that moves the rows along, forking the halves of
+	 * large ranges and their merge.
+	 */
+	private static final class SortTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] keys;
+		private final int[] rows;
+		private final long[] keyBuffer;
+		private final int[] rowBuffer;
+		private final int from;
+		private final int to;
+
+		SortTask(long[] keys, int[] rows, long[] keyBuffer, int[] rowBuffer, int from, int to) {
+			this.keys = keys;
+			this.rows = rows;
+			this.keyBuffer = keyBuffer;
+			this.rowBuffer = rowBuffer;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= SEQUENTIAL_THRESHOLD) {
+				sort(from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new SortTask(keys, rows, keyBuffer, rowBuffer, from, middle),
+					new SortTask(keys, rows, keyBuffer, rowBuffer, middle, to));
+			if(compare(keys[middle - 1], rows[middle - 1], keys[middle], rows[middle]) <= 0) {
+				return;
+			}
+			new MergeTask(keys, rows, from, middle, keys, rows, middle, to, keyBuffer, rowBuffer, from).invoke();
+			new CopyTask(keyBuffer, rowBuffer, keys, rows, from, to).invoke();
+		}
+
+		private void sort(int from, int to) {
+			if(to - from <= INSERTION_SORT_THRESHOLD) {
+				for(int i = from + 1; i < to; i++) {
+					long key = keys[i];
+					int row = rows[i];
+					int j = i - 1;
+					for(; j >= from && compare(keys[j], rows[j], key, row) > 0; j--) {
+						keys[j + 1] = keys[j];
+						rows[j + 1] = rows[j];
+					}
+					keys[j + 1] = key;
+					rows[j + 1] = row;
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			sort(from, middle);
+			sort(middle, to);
+			merge(from, middle, to);
+		}
+
+		private void merge(int from, int middle, int to) {
+			if(compare(keys[middle - 1], rows[middle - 1], keys[middle], rows[middle]) <= 0) {
+				return;
+			}
+			MergeTask.merge(keys, rows, from, middle, keys, rows, middle, to, keyBuffer, rowBuffer, from);
+			System.arraycopy(keyBuffer, from, keys, from, to - from);
+			System.arraycopy(rowBuffer, from, rows, from, to - from);
+		}
+	}
+
+	/**
+	 * Merges two sorted runs into the output at the given position. Large merges are split at
+	 * the middle of the longer run and at the position of that key and row in the other run,
+	 * and the two halves are merged in parallel.
+	 */
+	private static final class MergeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] leftKeys;
+		private final int[] leftRows;
+		private final int leftFrom;
+		private final int leftTo;
+		private final long[] rightKeys;
+		private final int[] rightRows;
+		private final int rightFrom;
+		private final int rightTo;
+		private final long[] outKeys;
+		private final int[] outRows;
+		private final int at;
+
+		MergeTask(long[] leftKeys, int[] leftRows, int leftFrom, int leftTo, long[] rightKeys, int[] rightRows,
+				int rightFrom, int rightTo, long[] outKeys, int[] outRows, int at) {
+			this.leftKeys = leftKeys;
+			this.leftRows = leftRows;
+			this.leftFrom = leftFrom;
+			this.leftTo = leftTo;
+			this.rightKeys = rightKeys;
+			this.rightRows = rightRows;
+			this.rightFrom = rightFrom;
+			this.rightTo = rightTo;
+			this.outKeys = outKeys;
+			this.outRows = outRows;
+			this.at = at;
+		}
+
+		@Override
+		protected void compute() {
+			int leftSize = leftTo - leftFrom;
+			int rightSize = rightTo - rightFrom;
+			if(leftSize + rightSize <= SEQUENTIAL_THRESHOLD) {
+				merge(leftKeys, leftRows, leftFrom, leftTo, rightKeys, rightRows, rightFrom, rightTo, outKeys, outRows, at);
+				return;
+			}
+			int leftMiddle;
+			int rightMiddle;
+			if(leftSize >= rightSize) {
+				leftMiddle = (leftFrom + leftTo) >>> 1;
+				rightMiddle = insertionPoint(rightKeys, rightRows, rightFrom, rightTo, leftKeys[leftMiddle], leftRows[leftMiddle]);
+			} else {
+				rightMiddle = (rightFrom + rightTo) >>> 1;
+				leftMiddle = insertionPoint(leftKeys, leftRows, leftFrom, leftTo, rightKeys[rightMiddle], rightRows[rightMiddle]);
+			}
+			invokeAll(new MergeTask(leftKeys, leftRows, leftFrom, leftMiddle, rightKeys, rightRows, rightFrom, rightMiddle,
+					outKeys, outRows, at),
+					new MergeTask(leftKeys, leftRows, leftMiddle, leftTo, rightKeys, rightRows, rightMiddle, rightTo,
+							outKeys, outRows, at + (leftMiddle - leftFrom) + (rightMiddle - rightFrom)));
+		}
+
+		private static int insertionPoint(long[] keys, int[] rows, int from, int to, long key, int row) {
+			int position = search(keys, rows, from, to, key, row);
+			return position < 0 ? -(position + 1) : position;
+		}
+
+		static void merge(long[] leftKeys, int[] leftRows, int left, int leftTo, long[] rightKeys, int[] rightRows,
+				int right, int rightTo, long[] outKeys, int[] outRows, int at) {
+			while(left < leftTo && right < rightTo) {
+				if(compare(leftKeys[left], leftRows[left], rightKeys[right], rightRows[right]) <= 0) {
+					outKeys[at] = leftKeys[left];
+					outRows[at++] = leftRows[left++];
+				} else {
+					outKeys[at] = rightKeys[right];
+					outRows[at++] = rightRows[right++];
+				}
+			}
+			System.arraycopy(leftKeys, left, outKeys, at, leftTo - left);
+			System.arraycopy(leftRows, left, outRows, at, leftTo - left);
+			at += leftTo - left;
+			System.arraycopy(rightKeys, right, outKeys, at, rightTo - right);
+			System.arraycopy(rightRows, right, outRows, at, rightTo - right);
+		}
+	}
+
+	/**
+	 * Copies a range of the keys and rows back from the merge buffers, forking the halves of
+	 * large ranges.
+	 */
+	private static final class CopyTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] fromKeys;
+		private final int[] fromRows;
+		private final long[] toKeys;
+		private final int[] toRows;
+		private final int from;
+		private final int to;
+
+		CopyTask(long[] fromKeys, int[] fromRows, long[] toKeys, int[] toRows, int from, int to) {
+			this.fromKeys = fromKeys;
+			this.fromRows = fromRows;
+			this.toKeys = toKeys;
+			this.toRows = toRows;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= 8 * SEQUENTIAL_THRESHOLD) {
+				System.arraycopy(fromKeys, from, toKeys, from, to - from);
+				System.arraycopy(fromRows, from, toRows, from, to - from);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new CopyTask(fromKeys, fromRows, toKeys, toRows, from, middle),
+					new CopyTask(fromKeys, fromRows, toKeys, toRows, middle, to));
+		}
+	}
+
+}
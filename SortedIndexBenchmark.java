@@ -0,0 +1,64 @@
+package domain;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Compares the youngest programmer and a birth date range count answered by a
+ * {@link SortedIndex} with full scans, and measures building the index.
+ *
+ * @author Aleksander
+ */
+public class SortedIndexBenchmark extends AbstractBenchmark {
+
+	private static final long FROM = LocalDate.of(1990, 1, 1).toEpochDay();
+	private static final long TO = LocalDate.of(1996, 1, 1).toEpochDay();
+
+	@Param({"100000", "1000000", "10000000"})
+	private int size;
+
+	private List<Programmer> programmers;
+	private SortedIndex index;
+
+	@Setup(Level.Trial)
+	public void generateProgrammers() {
+		programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(size);
+		index = SortedIndex.byBirthDay(programmers);
+	}
+
+	@Benchmark
+	public Programmer youngestIndex() {
+		return programmers.get(index.maxRow());
+	}
+
+	@Benchmark
+	public Programmer youngestLoop() {
+		return ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers);
+	}
+
+	@Benchmark
+	public int bornBetweenIndex() {
+		return index.count(FROM, TO);
+	}
+
+	@Benchmark
+	public long bornBetweenParallelStream() {
+		return programmers.parallelStream().mapToLong(p -> p.getBirthDate().toEpochDay()).filter(day -> day >= FROM && day < TO).count();
+	}
+
+	@Benchmark
+	public SortedIndex build() {
+		return SortedIndex.byBirthDay(programmers);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		run(SortedIndexBenchmark.class, args);
+	}
+
+}
@@ -0,0 +1,30 @@
+package domain;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the queries on sequential streams.
+ *
+ * @author Aleksander
+ */
+public class StreamQueryExecutor implements QueryExecutor {
+
+	@Override
+	public <T> T maxBy(List<T> items, Comparator<? super T> order) {
+		return items.stream().max(order).orElse(null);
+	}
+
+	@Override
+	public <T> List<T> filter(List<T> items, Predicate<? super T> predicate) {
+		return items.stream().filter(predicate).collect(Collectors.toList());
+	}
+
+	@Override
+	public String getName() {
+		return "stream";
+	}
+
+}
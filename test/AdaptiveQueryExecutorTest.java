@@ -0,0 +1,68 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link AdaptiveQueryExecutor} answers from the indexes only while they describe the list.
+ *
+ * @author Aleksander
+ */
+public class AdaptiveQueryExecutorTest {
+
+	@Test
+	public void indexedRouteMatchesTheScan() {
+		List<Programmer> programmers = new ProgrammerGenerator(31).generate(2000);
+		try(AdaptiveQueryExecutor executor = new AdaptiveQueryExecutor(2, () -> 0)) {
+			executor.useIndexes(programmers, () -> 0, LastNameIndex.of(programmers), SortedIndex.byBirthDay(programmers));
+			String name = programmers.get(0).getLastName().substring(0, 2);
+			assertSame(ProgrammerQueries.YOUNGEST.execute(new LoopQueryExecutor(), programmers), executor.findTheYoungestProgrammer(programmers));
+			assertEquals(ProgrammerQueries.lastNameContains(name).execute(new LoopQueryExecutor(), programmers),
+					executor.findTheProgrammersByName(programmers, name));
+			assertEquals(2, executor.getRouteCount(AdaptiveQueryExecutor.Route.INDEXED));
+			assertEquals(AdaptiveQueryExecutor.Route.INDEXED, executor.getDecisions().get(0).getRoute());
+		}
+	}
+
+	@Test
+	public void versionChangeDropsIndexes() {
+		List<Programmer> programmers = new ProgrammerGenerator(32).generate(2000);
+		AtomicLong version = new AtomicLong();
+		try(AdaptiveQueryExecutor executor = new AdaptiveQueryExecutor(2, () -> 0)) {
+			executor.useIndexes(programmers, version::get, null, SortedIndex.byBirthDay(programmers));
+			executor.findTheYoungestProgrammer(programmers);
+			version.incrementAndGet();
+			executor.findTheYoungestProgrammer(programmers);
+			assertEquals(1, executor.getRouteCount(AdaptiveQueryExecutor.Route.INDEXED));
+		}
+	}
+
+	@Test
+	public void sizeChangeDropsIndexes() {
+		List<Programmer> programmers = new ArrayList<>(new ProgrammerGenerator(33).generate(2000));
+		try(AdaptiveQueryExecutor executor = new AdaptiveQueryExecutor(2, () -> 0)) {
+			executor.useIndexes(programmers, () -> 0, null, SortedIndex.byBirthDay(programmers));
+			Programmer removed = programmers.remove(programmers.size() - 1);
+			assertSame(ProgrammerQueries.YOUNGEST.execute(new LoopQueryExecutor(), programmers), executor.findTheYoungestProgrammer(programmers));
+			programmers.add(removed);
+			executor.findTheYoungestProgrammer(programmers);
+			assertEquals(0, executor.getRouteCount(AdaptiveQueryExecutor.Route.INDEXED));
+		}
+	}
+
+	@Test
+	public void rejectsIndexOfAnotherSize() {
+		List<Programmer> programmers = new ProgrammerGenerator(34).generate(100);
+		try(AdaptiveQueryExecutor executor = new AdaptiveQueryExecutor(2, () -> 0)) {
+			assertThrows(IllegalArgumentException.class,
+					() -> executor.useIndexes(programmers, () -> 0, null, SortedIndex.byBirthDay(programmers.subList(0, 50))));
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The bounded heaps of {@link Aggregations} agree with sorting the whole list.
+ *
+ * @author Aleksander
+ */
+public class AggregationsTest {
+
+	private final List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(20000);
+
+	@Test
+	public void topEqualsSortedPrefix() {
+		Comparator<Programmer> bySalary = Comparator.comparing(Programmer::getSalary);
+		List<Programmer> sorted = new ArrayList<>(programmers);
+		sorted.sort(bySalary.reversed());
+		for(int k : new int[] {1, 10, 1000}) {
+			assertEquals(salaries(sorted.subList(0, k)), salaries(Aggregations.top(programmers, k, bySalary)));
+			assertEquals(salaries(sorted.subList(0, k)), salaries(Aggregations.topParallel(programmers, k, bySalary)));
+		}
+		List<Programmer> reversed = new ArrayList<>(sorted);
+		Collections.reverse(reversed);
+		assertEquals(salaries(reversed.subList(0, 10)), salaries(Aggregations.bottom(programmers, 10, bySalary)));
+		assertEquals(salaries(reversed.subList(0, 10)), salaries(Aggregations.bottomParallel(programmers, 10, bySalary)));
+	}
+
+	@Test
+	public void kLargerThanList() {
+		List<Integer> items = Arrays.asList(3, 1, 2);
+		assertEquals(Arrays.asList(3, 2, 1), Aggregations.top(items, 10, Comparator.naturalOrder()));
+		assertEquals(Arrays.asList(1, 2, 3), Aggregations.bottomParallel(items, 10, Comparator.naturalOrder()));
+	}
+
+	@Test
+	public void firstWinsOnTies() {
+		List<String> items = Arrays.asList("b", "a", "b", "b", "a");
+		Comparator<String> order = Comparator.naturalOrder();
+		assertEquals(0, Aggregations.argMax(items, order));
+		assertEquals(0, Aggregations.argMaxParallel(items, order));
+		assertEquals(0, Aggregations.argMax(new LinkedList<>(items), order));
+		assertSame(items.get(1), Aggregations.min(items, order));
+		assertNull(Aggregations.max(new ArrayList<String>(), order));
+		assertEquals(-1, Aggregations.argMaxParallel(new ArrayList<String>(), order));
+	}
+
+	private static List<Object> salaries(List<Programmer> programmers) {
+		List<Object> salaries = new ArrayList<>();
+		for(Programmer programmer : programmers) {
+			salaries.add(programmer.getSalary());
+		}
+		return salaries;
+	}
+
+}
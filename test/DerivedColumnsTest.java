@@ -0,0 +1,83 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The packed date arithmetic of {@link DerivedColumns} agrees with {@link ChronoUnit#YEARS}.
+ *
+ * @author Aleksander
+ */
+public class DerivedColumnsTest {
+
+	@Test
+	public void yearsBetweenMatchesChronoUnit() {
+		SplittableRandom random = new SplittableRandom(51);
+		long min = LocalDate.of(1900, 1, 1).toEpochDay();
+		long max = LocalDate.of(2100, 12, 31).toEpochDay();
+		for(int i = 0; i < 200_000; i++) {
+			LocalDate from = LocalDate.ofEpochDay(random.nextLong(min, max));
+			LocalDate to = LocalDate.ofEpochDay(random.nextLong(min, max));
+			assertEquals(ChronoUnit.YEARS.between(from, to), DerivedColumns.yearsBetween(DerivedColumns.pack(from), DerivedColumns.pack(to)),
+					from + " to " + to);
+		}
+	}
+
+	@Test
+	public void yearsBetweenAroundAnniversaries() {
+		LocalDate[][] cases = {
+				{LocalDate.of(2000, 2, 29), LocalDate.of(2001, 2, 28)},
+				{LocalDate.of(2000, 2, 29), LocalDate.of(2001, 3, 1)},
+				{LocalDate.of(1990, 12, 31), LocalDate.of(2000, 1, 1)},
+				{LocalDate.of(1990, 6, 15), LocalDate.of(2000, 6, 15)},
+				{LocalDate.of(1990, 6, 15), LocalDate.of(2000, 6, 14)},
+				{LocalDate.of(2000, 6, 14), LocalDate.of(1990, 6, 15)},
+				{LocalDate.of(2000, 6, 15), LocalDate.of(2000, 6, 15)}};
+		for(LocalDate[] dates : cases) {
+			assertEquals(ChronoUnit.YEARS.between(dates[0], dates[1]),
+					DerivedColumns.yearsBetween(DerivedColumns.pack(dates[0]), DerivedColumns.pack(dates[1])), dates[0] + " to " + dates[1]);
+		}
+	}
+
+	@Test
+	public void columnsFollowTheReferenceDate() {
+		List<Programmer> programmers = new ProgrammerGenerator(52).generate(20_000);
+		AtomicReference<LocalDate> today = new AtomicReference<>(LocalDate.of(2016, 10, 15));
+		DerivedColumns columns = DerivedColumns.of(programmers, today::get);
+		DerivedColumns.Values values = columns.current();
+		assertSame(values, columns.current());
+		assertMatches(programmers, columns, today.get());
+
+		today.set(LocalDate.of(2030, 1, 1));
+		assertNotSame(values, columns.current());
+		assertMatches(programmers, columns, today.get());
+	}
+
+	private static void assertMatches(List<Programmer> programmers, DerivedColumns columns, LocalDate today) {
+		DerivedColumns.Values values = columns.current();
+		for(int row = 0; row < programmers.size(); row++) {
+			Programmer programmer = programmers.get(row);
+			assertEquals(ChronoUnit.YEARS.between(programmer.getBirthDate(), today), values.age(row));
+			assertEquals(ChronoUnit.YEARS.between(programmer.getProgrammingStartDate(), today), values.experience(row));
+			assertEquals(ChronoUnit.YEARS.between(programmer.getBirthDate(), programmer.getProgrammingStartDate()), values.startAge(row));
+		}
+		int[] expected = IntStream.range(0, programmers.size())
+				.filter(row -> programmers.get(row).getLanguage() == ProgrammingLanguages.JAVA
+						&& ChronoUnit.YEARS.between(programmers.get(row).getProgrammingStartDate(), today) > 10)
+				.toArray();
+		assertTrue(expected.length > 0);
+		assertArrayEquals(expected, columns.findExperienced(ProgrammingLanguages.JAVA, 10));
+	}
+}
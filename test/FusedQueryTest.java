@@ -0,0 +1,53 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * One pass of {@link FusedQuery} answers like the separate queries.
+ *
+ * @author Aleksander
+ */
+public class FusedQueryTest {
+
+	private final List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(30000);
+
+	@Test
+	public void sequentialAndParallelPassesEqualSeparateQueries() {
+		String name = programmers.get(0).getLastName().substring(0, 2);
+		FusedQuery query = new FusedQuery();
+		FusedQuery.Handle<Programmer> youngest = query.maxBy(Comparator.comparing(Programmer::getBirthDate));
+		FusedQuery.Handle<Programmer> lowestSalary = query.minBy(Comparator.comparing(Programmer::getSalary));
+		FusedQuery.Handle<List<Programmer>> byName = query.filter(programmer -> programmer.getLastName().contains(name));
+		FusedQuery.Handle<Map<ProgrammingLanguages, Long>> languages = query.countBy(Programmer::getLanguage);
+
+		Map<ProgrammingLanguages, Long> expectedLanguages = programmers.stream()
+				.collect(Collectors.groupingBy(Programmer::getLanguage, Collectors.counting()));
+		for(FusedQuery.Results results : List.of(query.run(programmers), query.runParallel(programmers))) {
+			assertSame(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers), results.get(youngest));
+			assertSame(Aggregations.min(programmers, Comparator.comparing(Programmer::getSalary)), results.get(lowestSalary));
+			assertEquals(ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers), results.get(byName));
+			assertEquals(expectedLanguages, results.get(languages));
+		}
+	}
+
+	@Test
+	public void rejectsForeignHandles() {
+		FusedQuery query = new FusedQuery();
+		FusedQuery other = new FusedQuery();
+		FusedQuery.Handle<Map<String, Long>> handle = other.countBy(Programmer::getLastName);
+		FusedQuery.Results results = query.run(programmers);
+		assertThrows(IllegalArgumentException.class, () -> results.get(handle));
+		FusedQuery.Handle<Programmer> late = query.maxBy(Comparator.comparing(Programmer::getBirthDate));
+		assertThrows(IllegalArgumentException.class, () -> results.get(late));
+	}
+
+}
@@ -0,0 +1,60 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link LanguageStatistics} equals the statistics computed per language by grouping.
+ *
+ * @author Aleksander
+ */
+public class LanguageStatisticsTest {
+
+	private static final LocalDate AS_OF = LocalDate.of(2016, 10, 15);
+
+	@Test
+	public void equalsGroupedStatistics() {
+		List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(30000);
+		LanguageStatistics sequential = LanguageStatistics.of(programmers, AS_OF);
+		LanguageStatistics parallel = LanguageStatistics.ofParallel(programmers, AS_OF);
+		for(ProgrammingLanguages language : ProgrammingLanguages.values()) {
+			List<Programmer> group = programmers.stream().filter(programmer -> programmer.getLanguage() == language)
+					.collect(Collectors.toList());
+			for(LanguageStatistics statistics : Arrays.asList(sequential, parallel)) {
+				LanguageStatistics.Summary summary = statistics.get(language);
+				assertEquals(group.size(), summary.getCount());
+				if(group.isEmpty()) {
+					continue;
+				}
+				assertEquals(group.stream().mapToLong(Programmer::getSalaryInCents).average().getAsDouble(),
+						summary.getAverageSalaryInCents(), 1e-6);
+				assertSame(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(group), summary.getYoungest());
+			}
+		}
+	}
+
+	@Test
+	public void exactMedian() {
+		List<Programmer> programmers = Arrays.asList(programmer("JAVA", "1.00"), programmer("JAVA", "4.00"), programmer("JAVA", "2.00"),
+				programmer("JAVA", "10.00"), programmer("C", "3.00"), programmer("COBOL", "3.00"));
+		LanguageStatistics statistics = LanguageStatistics.of(programmers, AS_OF);
+		assertEquals(300, statistics.get(ProgrammingLanguages.JAVA).getMedianSalaryInCents(), 0);
+		assertEquals(300, statistics.get(ProgrammingLanguages.C).getMedianSalaryInCents(), 0);
+		assertEquals(0, statistics.get(ProgrammingLanguages.PYTHON).getCount());
+		assertTrue(statistics.getSummaries().stream().allMatch(summary -> summary.getCount() > 0));
+	}
+
+	private static Programmer programmer(String language, String salary) {
+		return new Programmer("A", "B", LocalDate.of(1980, 1, 1), language, LocalDate.of(2000, 1, 1), new BigDecimal(salary));
+	}
+
+}
@@ -0,0 +1,60 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link LastNameIndex} answers like the scan it replaces, from the postings or the fallback.
+ *
+ * @author Aleksander
+ */
+public class LastNameIndexTest {
+
+	private final List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(20000);
+	private final LastNameIndex index = LastNameIndex.of(programmers);
+
+	@Test
+	public void indexedNamesEqualScan() {
+		String lastName = programmers.get(123).getLastName();
+		for(String name : new String[] {"AB", "ZZ", "XYZ", lastName.substring(3, 6), lastName.substring(0, 10), lastName}) {
+			assertEquals(ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers), index.contains(name), name);
+		}
+	}
+
+	@Test
+	public void otherNamesFallBackToScan() {
+		for(String name : new String[] {"", "A", "ab", "A1B", "Q"}) {
+			assertEquals(ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers), index.contains(name), name);
+		}
+	}
+
+	@Test
+	public void largeGapsRoundTrip() {
+		List<Programmer> sparse = new ArrayList<>();
+		int[] rows = {0, 1, 127, 128, 16511, 16512, 2100000};
+		int next = 0;
+		for(int row = 0; row <= rows[rows.length - 1]; row++) {
+			boolean match = row == rows[next];
+			if(match) {
+				next++;
+			}
+			sparse.add(new Programmer("A", match ? "BQXJ" : "AAAA", LocalDate.of(1980, 1, 1), "Java", LocalDate.of(2000, 1, 1),
+					BigDecimal.ONE));
+		}
+		LastNameIndex sparseIndex = LastNameIndex.of(sparse);
+		for(String name : new String[] {"QX", "QXJ", "BQXJ"}) {
+			List<Programmer> found = sparseIndex.contains(name);
+			assertEquals(rows.length, found.size(), name);
+			for(int i = 0; i < rows.length; i++) {
+				assertEquals(sparse.get(rows[i]), found.get(i), name);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The counters of {@link LatencyHistogram} invert each other and keep the documented precision.
+ *
+ * @author Aleksander
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void valuesRoundTripWithinOnePercent() {
+		for(int power = 0; power < 63; power++) {
+			long base = 1L << power;
+			for(long value : new long[] {base - 1, base, base + 1, base + base / 3, base + base / 2, 2 * base - 1}) {
+				if(value < 0) {
+					continue;
+				}
+				int index = LatencyHistogram.index(value);
+				long highest = LatencyHistogram.highestValue(index);
+				assertTrue(highest >= value, value + " -> " + highest);
+				assertEquals(index, LatencyHistogram.index(highest), "value " + value);
+				assertTrue(highest - value <= value / 128, value + " -> " + highest);
+			}
+		}
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.index(Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void countersAreContiguous() {
+		for(int index = 0; index < 4096; index++) {
+			assertEquals(index + 1, LatencyHistogram.index(LatencyHistogram.highestValue(index) + 1));
+		}
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		for(long value = 0; value < 256; value++) {
+			assertEquals(value, LatencyHistogram.highestValue(LatencyHistogram.index(value)));
+		}
+	}
+
+	@Test
+	public void percentilesWithinOnePercent() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for(long value = 1; value <= 100000; value++) {
+			histogram.record(value * 128);
+		}
+		assertPercentile(50000 * 128, histogram.getValueAtPercentile(50));
+		assertPercentile(99000 * 128, histogram.getValueAtPercentile(99));
+		assertEquals(100000 * 128, histogram.getValueAtPercentile(100));
+		assertEquals(128, histogram.getMin());
+
+		LatencyHistogram single = new LatencyHistogram();
+		for(long value : new long[] {200, 256, 6400, 12800000}) {
+			single.record(value);
+		}
+		assertEquals(200, single.getValueAtPercentile(25));
+		assertPercentile(256, single.getValueAtPercentile(50));
+		assertPercentile(6400, single.getValueAtPercentile(75));
+		assertEquals(12800000, single.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void addMergesCounts() {
+		LatencyHistogram first = new LatencyHistogram();
+		LatencyHistogram second = new LatencyHistogram();
+		first.record(1000);
+		second.record(3000);
+		first.add(second);
+		assertEquals(2, first.getCount());
+		assertEquals(2000, first.getMean());
+		assertPercentile(3000, first.getValueAtPercentile(100));
+	}
+
+	private static void assertPercentile(long expected, long actual) {
+		assertTrue(actual >= expected && actual - expected <= expected / 100, expected + " -> " + actual);
+	}
+
+}
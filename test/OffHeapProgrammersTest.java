@@ -0,0 +1,73 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The queries over {@link OffHeapProgrammers} agree with the list queries, and closing the
+ * records releases their direct memory.
+ *
+ * @author Aleksander
+ */
+public class OffHeapProgrammersTest {
+
+	@Test
+	public void queriesMatchTheList() {
+		List<Programmer> programmers = new ProgrammerGenerator(21).generate(5000);
+		try(ProgrammerRecords records = OffHeapProgrammers.of(programmers)) {
+			assertEquals(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers).getBirthDate(),
+					records.getBirthDate(records.findTheYoungestProgrammerLambdaParallel()));
+			assertEquals(ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers).getSalaryInCents(),
+					records.getSalaryInCents(records.findTheProgrammerWithHighestSalaryLambdaParallel()));
+			String name = programmers.get(0).getLastName().substring(0, 2);
+			long[] expected = IntStream.range(0, programmers.size())
+					.filter(row -> programmers.get(row).getLastName().contains(name)).asLongStream().toArray();
+			assertArrayEquals(expected, records.findTheProgrammersByNameParallel(name));
+			ProgrammerRecordView view = records.view(7);
+			assertEquals(programmers.get(7).getLastName(), view.getLastName());
+			assertEquals(programmers.get(7).getSalaryInCents(), view.getSalaryInCents());
+		}
+	}
+
+	@Test
+	public void unknownLanguagesAreNull() {
+		List<Programmer> programmers = Arrays.asList(programmer(null), programmer("Brainfuck"), programmer("JAVA"));
+		try(ProgrammerRecords records = OffHeapProgrammers.of(programmers)) {
+			assertNull(records.getLanguage(0));
+			assertNull(records.view(1).getPrimaryLanguage());
+			assertEquals(ProgrammingLanguages.JAVA, records.view(2).getLanguage());
+		}
+	}
+
+	@Test
+	public void closeReleasesDirectMemory() {
+		List<Programmer> programmers = new ProgrammerGenerator(22).generate(100_000);
+		long before = directMemoryUsed();
+		ProgrammerRecords records = OffHeapProgrammers.of(programmers);
+		long allocated = records.size() * records.getLayout().getRecordSize();
+		assertEquals(before + allocated, directMemoryUsed());
+		records.close();
+		records.close();
+		assertEquals(before, directMemoryUsed());
+	}
+
+	private static Programmer programmer(String language) {
+		return new Programmer("A", "B", LocalDate.of(1980, 1, 1), language, LocalDate.of(2000, 1, 1), new BigDecimal("1.00"));
+	}
+
+	private static long directMemoryUsed() {
+		return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+				.filter(pool -> pool.getName().equals("direct")).mapToLong(BufferPoolMXBean::getMemoryUsed).sum();
+	}
+}
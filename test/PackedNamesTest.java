@@ -0,0 +1,69 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The word-at-a-time search of {@link PackedNames} agrees with {@link String#contains}.
+ *
+ * @author Aleksander
+ */
+public class PackedNamesTest {
+
+	private static final String ALPHABET = "ABCéÿ";
+
+	@Test
+	public void searchesMatchStringContains() {
+		SplittableRandom random = new SplittableRandom(11);
+		List<Programmer> programmers = new ArrayList<>();
+		for(int i = 0; i < 20_000; i++) {
+			programmers.add(programmer(randomName(random, 1 + random.nextInt(12))));
+		}
+		PackedNames names = PackedNames.lastNames(programmers);
+		for(String name : new String[] {"A", "é", "AB", "BAÿ", "CCC", "ABCAB", "ÿÿÿÿ", ""}) {
+			int[] expected = IntStream.range(0, programmers.size())
+					.filter(row -> programmers.get(row).getLastName().contains(name)).toArray();
+			assertArrayEquals(expected, names.findContaining(name), name);
+			assertArrayEquals(expected, names.findContainingParallel(name), name);
+			assertArrayEquals(expected, names.findContainingScalar(name), name);
+		}
+	}
+
+	@Test
+	public void matchesDoNotSpanNames() {
+		//full names touch the next one, so "BC" appears across the boundary of the first two
+		PackedNames names = PackedNames.lastNames(Arrays.asList(programmer("AB"), programmer("CA"), programmer("B")));
+		assertEquals(2, names.getStride());
+		assertArrayEquals(new int[0], names.findContaining("BC"));
+		assertArrayEquals(new int[] {0, 1}, names.findContaining("A"));
+		assertArrayEquals(new int[0], names.findContaining("ABC"));
+		assertEquals("B", names.get(2));
+	}
+
+	@Test
+	public void rejectsNamesOutsideLatin1() {
+		assertThrows(IllegalArgumentException.class, () -> PackedNames.lastNames(Arrays.asList(programmer("Łukasz"))));
+	}
+
+	private static String randomName(SplittableRandom random, int length) {
+		return random.ints(length, 0, ALPHABET.length()).mapToObj(i -> String.valueOf(ALPHABET.charAt(i)))
+				.collect(Collectors.joining());
+	}
+
+	private static Programmer programmer(String lastName) {
+		return new Programmer("First", lastName, LocalDate.of(1990, 1, 1), "JAVA", LocalDate.of(2010, 1, 1),
+				new BigDecimal("1000.00"));
+	}
+}
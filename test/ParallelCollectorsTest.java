@@ -0,0 +1,71 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link IndexedSpliterator} covers every element once in order, and {@link ParallelCollectors}
+ * answers like the sequential queries.
+ *
+ * @author Aleksander
+ */
+public class ParallelCollectorsTest {
+
+	private final List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(30000);
+
+	@Test
+	public void splitsCoverAllElementsInOrder() {
+		Integer[] items = new Integer[1000];
+		for(int i = 0; i < items.length; i++) {
+			items[i] = i;
+		}
+		List<Spliterator<Integer>> leaves = new ArrayList<>();
+		split(IndexedSpliterator.of(items, 16), leaves);
+		List<Integer> seen = new ArrayList<>();
+		for(Spliterator<Integer> leaf : leaves) {
+			leaf.forEachRemaining(seen::add);
+		}
+		assertEquals(Arrays.asList(items), seen);
+		assertEquals(Arrays.asList(items), ParallelCollectors.parallelStream(Arrays.asList(items), 7).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void filterKeepsListOrder() {
+		String name = programmers.get(0).getLastName().substring(0, 2);
+		List<Programmer> expected = ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers);
+		assertEquals(expected, ParallelCollectors.filter(programmers, programmer -> programmer.getLastName().contains(name)));
+		assertEquals(expected, ParallelCollectors.filter(programmers, programmer -> programmer.getLastName().contains(name), 100));
+		assertEquals(List.of(), ParallelCollectors.filter(List.<Programmer>of(), programmer -> true));
+	}
+
+	@Test
+	public void maxAndMinByLongLetTheFirstWin() {
+		assertSame(ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers),
+				ParallelCollectors.parallelStream(programmers).collect(ParallelCollectors.maxByLong(Programmer::getSalaryInCents)));
+		List<String> ties = Arrays.asList(new String("b"), new String("a"), new String("b"), new String("a"));
+		assertSame(ties.get(0), ParallelCollectors.parallelStream(ties, 1).collect(ParallelCollectors.maxByLong(s -> s.charAt(0))));
+		assertSame(ties.get(1), ParallelCollectors.parallelStream(ties, 1).collect(ParallelCollectors.minByLong(s -> s.charAt(0))));
+		assertNull(Stream.<String>empty().collect(ParallelCollectors.maxByLong(String::length)));
+	}
+
+	private static <T> void split(Spliterator<T> spliterator, List<Spliterator<T>> leaves) {
+		Spliterator<T> prefix = spliterator.trySplit();
+		if(prefix == null) {
+			leaves.add(spliterator);
+			return;
+		}
+		split(prefix, leaves);
+		split(spliterator, leaves);
+	}
+
+}
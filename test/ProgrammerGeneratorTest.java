@@ -0,0 +1,71 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * A seed produces the same dataset on any number of threads and as a stream.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerGeneratorTest {
+
+	private static final int SIZE = 2 * ProgrammerGenerator.CHUNK_SIZE + 123;
+
+	private final ProgrammerGenerator generator = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED);
+
+	@Test
+	public void sameRowsOnAnyPool() {
+		List<Programmer> expected = generator.generate(SIZE);
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool quad = new ForkJoinPool(4);
+		try {
+			assertSameRows(expected, List.of(generator.generateArray(SIZE, single)));
+			assertSameRows(expected, List.of(generator.generateArray(SIZE, quad)));
+		} finally {
+			single.shutdown();
+			quad.shutdown();
+		}
+	}
+
+	@Test
+	public void streamEqualsList() {
+		List<Programmer> expected = generator.generate(SIZE);
+		assertSameRows(expected, generator.stream(SIZE).collect(Collectors.toList()));
+		assertSameRows(expected, generator.stream(SIZE).parallel().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void seedsDiffer() {
+		Programmer first = generator.generate(1).get(0);
+		Programmer other = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED + 1).generate(1).get(0);
+		assertNotEquals(first.getLastName(), other.getLastName());
+	}
+
+	@Test
+	public void immutableEqualsCopies() {
+		ProgrammerGenerator generator = new ProgrammerGenerator(7);
+		assertEquals(ImmutableProgrammer.of(generator.generate(40_000)), generator.generateImmutable(40_000));
+	}
+
+	static void assertSameRows(List<Programmer> expected, List<Programmer> actual) {
+		assertEquals(expected.size(), actual.size());
+		for(int row = 0; row < expected.size(); row++) {
+			Programmer e = expected.get(row);
+			Programmer a = actual.get(row);
+			assertEquals(e.getFirstName(), a.getFirstName(), "row " + row);
+			assertEquals(e.getLastName(), a.getLastName(), "row " + row);
+			assertEquals(e.getBirthDate(), a.getBirthDate(), "row " + row);
+			assertEquals(e.getProgrammingStartDate(), a.getProgrammingStartDate(), "row " + row);
+			assertEquals(e.getPrimaryLanguage(), a.getPrimaryLanguage(), "row " + row);
+			assertEquals(e.getSalary(), a.getSalary(), "row " + row);
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Snapshots of a {@link ProgrammerLog} taken while rows are added only ever grow, and their
+ * iterators and streams agree with {@link List#get(int)}.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerLogTest {
+
+	@Test
+	public void snapshotsGrowWhileProducersAdd() throws Exception {
+		List<Programmer> programmers = new ProgrammerGenerator(61).generate(200_000);
+		ProgrammerLog log = new ProgrammerLog(4);
+		int producers = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		try {
+			List<Future<?>> added = new ArrayList<>();
+			int share = programmers.size() / producers;
+			for(int producer = 0; producer < producers; producer++) {
+				List<Programmer> rows = programmers.subList(producer * share, (producer + 1) * share);
+				added.add(executor.submit(() -> rows.forEach(log::add)));
+			}
+			Set<Programmer> previous = Collections.newSetFromMap(new IdentityHashMap<>());
+			boolean done = false;
+			while(!done) {
+				done = added.stream().allMatch(Future::isDone);
+				List<Programmer> snapshot = log.snapshot();
+				Set<Programmer> current = identitySet(snapshot);
+				assertEquals(snapshot.size(), current.size());
+				assertTrue(current.containsAll(previous));
+				previous = current;
+			}
+			for(Future<?> future : added) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		List<Programmer> snapshot = log.snapshot();
+		assertEquals(programmers.size(), snapshot.size());
+		assertEquals(identitySet(programmers), identitySet(snapshot));
+	}
+
+	@Test
+	public void iterationMatchesGet() {
+		List<Programmer> programmers = new ProgrammerGenerator(62).generate(3 * ProgrammerLog.CHUNK_SIZE + 17);
+		ProgrammerLog log = new ProgrammerLog(8);
+		//uneven stripes, some of them empty
+		log.addAll(programmers.subList(0, 5));
+		Thread other = new Thread(() -> log.addAll(programmers.subList(5, programmers.size())));
+		other.start();
+		try {
+			other.join();
+		} catch(InterruptedException e) {
+			throw new AssertionError(e);
+		}
+		List<Programmer> snapshot = log.snapshot();
+		List<Programmer> byIndex = new ArrayList<>();
+		for(int i = 0; i < snapshot.size(); i++) {
+			byIndex.add(snapshot.get(i));
+		}
+		assertSameElements(byIndex, snapshot.stream().collect(Collectors.toList()));
+		assertSameElements(byIndex, snapshot.parallelStream().collect(Collectors.toList()));
+		List<Programmer> iterated = new ArrayList<>();
+		Iterator<Programmer> iterator = snapshot.iterator();
+		while(iterator.hasNext()) {
+			iterated.add(iterator.next());
+		}
+		assertSameElements(byIndex, iterated);
+		List<Programmer> stepped = new ArrayList<>();
+		Spliterator<Programmer> suffix = snapshot.spliterator();
+		Spliterator<Programmer> prefix = suffix.trySplit();
+		while(prefix.tryAdvance(stepped::add)) {
+			//one row at a time
+		}
+		while(suffix.tryAdvance(stepped::add)) {
+			//one row at a time
+		}
+		assertSameElements(byIndex, stepped);
+		assertEquals(identitySet(programmers), identitySet(byIndex));
+	}
+
+	private static void assertSameElements(List<Programmer> expected, List<Programmer> actual) {
+		assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			assertSame(expected.get(i), actual.get(i));
+		}
+	}
+
+	private static Set<Programmer> identitySet(List<Programmer> programmers) {
+		Set<Programmer> set = Collections.newSetFromMap(new IdentityHashMap<>());
+		set.addAll(programmers);
+		return set;
+	}
+}
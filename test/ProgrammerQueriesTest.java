@@ -0,0 +1,49 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The query variants of {@link FinderBenchmark} answer alike, so their timings are comparable.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerQueriesTest {
+
+	private final List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(20000);
+
+	@Test
+	public void youngestVariantsAgree() {
+		Programmer expected = ProgrammerQueries.findTheYoungestProgrammerByIterator(programmers);
+		assertEquals(expected.getBirthDate(), ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers).getBirthDate());
+		assertEquals(expected.getBirthDate(), ProgrammerQueries.findTheYoungestProgrammerLambdaSequential(programmers).getBirthDate());
+		assertEquals(expected.getBirthDate(), ProgrammerQueries.findTheYoungestProgrammerLambdaParallel(programmers).getBirthDate());
+		assertEquals(expected.getBirthDate(), ProgrammerQueries.findTheYoungestProgrammerSorting(new ArrayList<>(programmers)).getBirthDate());
+	}
+
+	@Test
+	public void highestSalaryVariantsAgree() {
+		Programmer expected = ProgrammerQueries.findTheProgrammerWithHighestSalaryByIterator(programmers);
+		assertEquals(expected.getSalary(), ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers).getSalary());
+		assertEquals(expected.getSalary(), ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaSerial(programmers).getSalary());
+		assertEquals(expected.getSalary(), ProgrammerQueries.findTheProgrammerWithHighestSalaryLambdaParallel(programmers).getSalary());
+		assertEquals(expected.getSalary(),
+				ProgrammerQueries.findTheProgrammerWithHighestSalarySorting(new ArrayList<>(programmers)).getSalary());
+	}
+
+	@Test
+	public void byNameVariantsAgree() {
+		String name = programmers.get(0).getLastName().substring(0, 2);
+		List<Programmer> expected = ProgrammerQueries.findTheProgrammersByNameAndIterator(name, programmers);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers));
+		assertEquals(expected, ProgrammerQueries.findTheProgrammersByNameAndLambdaSerial(name, programmers));
+		assertEquals(expected, ProgrammerQueries.findTheProgrammersByNameAndLambdaParallel(name, programmers));
+	}
+
+}
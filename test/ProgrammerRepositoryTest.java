@@ -0,0 +1,120 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The aggregates of {@link ProgrammerRepository} equal the list queries after every change.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerRepositoryTest {
+
+	@Test
+	public void aggregatesFollowChanges() {
+		List<Programmer> programmers = new ArrayList<>(new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(5000));
+		ProgrammerRepository repository = new ProgrammerRepository();
+		repository.addAll(programmers);
+		assertAggregates(programmers, repository);
+
+		Programmer youngest = ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers);
+		repository.remove(programmers.indexOf(youngest));
+		programmers.set(programmers.indexOf(youngest), null);
+		repository.update(7, programmer -> programmer.setSalary(new BigDecimal("99999.99")));
+		programmers.removeIf(programmer -> programmer == null);
+		assertAggregates(programmers, repository);
+		assertEquals(programmers.size(), repository.size());
+	}
+
+	@Test
+	public void firstAddedWinsOnTies() {
+		Programmer first = programmer("Java", "5000.00");
+		Programmer second = programmer("Java", "5000.00");
+		ProgrammerRepository repository = new ProgrammerRepository();
+		repository.addAll(Arrays.asList(first, second));
+		List<Programmer> programmers = Arrays.asList(first, second);
+		assertSame(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers), repository.findTheYoungestProgrammer());
+		assertSame(ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers), repository.findTheProgrammerWithHighestSalary());
+		assertSame(first, repository.findTheOldestProgrammer());
+		assertSame(first, repository.findTheProgrammerWithLowestSalary());
+	}
+
+	@Test
+	public void countsProgrammersWithoutLanguage() {
+		ProgrammerRepository repository = new ProgrammerRepository();
+		repository.add(programmer(null, "1.00"));
+		repository.add(programmer("Java", "1.00"));
+		repository.add(programmer("C", "1.00"));
+		Map<String, Integer> counts = repository.countByLanguage();
+		assertEquals(Arrays.asList("C", "Java", null), new ArrayList<>(counts.keySet()));
+		assertEquals(1, counts.get(null));
+	}
+
+	@Test
+	public void rejectedAdditionsLeaveNoTrace() {
+		ProgrammerRepository repository = new ProgrammerRepository();
+		Programmer java = programmer("Java", "10.00");
+		repository.add(java);
+		Programmer noBirthDate = programmer("C", "1.00");
+		noBirthDate.setBirthDate(null);
+		assertThrows(ArithmeticException.class, () -> repository.add(programmer("C", "20.005")));
+		assertThrows(NullPointerException.class, () -> repository.add(noBirthDate));
+		assertEquals(1, repository.size());
+		assertEquals(1, repository.version());
+		assertSame(java, repository.findTheProgrammerWithHighestSalary());
+		assertEquals(Map.of("Java", 1), repository.countByLanguage());
+		assertEquals(1, repository.add(programmer("C", "1.00")));
+	}
+
+	@Test
+	public void failedUpdatesKeepThePreviousKeys() {
+		ProgrammerRepository repository = new ProgrammerRepository();
+		Programmer low = programmer("Java", "10.00");
+		Programmer high = programmer("C", "20.00");
+		repository.addAll(Arrays.asList(low, high));
+		long version = repository.version();
+		assertThrows(ArithmeticException.class, () -> repository.update(0, programmer -> programmer.setSalary(new BigDecimal("30.005"))));
+		assertThrows(IllegalStateException.class, () -> repository.update(1, programmer -> {
+			programmer.setPrimaryLanguage("Go");
+			throw new IllegalStateException();
+		}));
+		assertEquals(version + 2, repository.version());
+		assertSame(high, repository.findTheProgrammerWithHighestSalary());
+		assertSame(low, repository.findTheProgrammerWithLowestSalary());
+		assertEquals(Map.of("C", 1, "Java", 1), repository.countByLanguage());
+		assertEquals(2, repository.size());
+
+		repository.update(0, programmer -> programmer.setSalary(new BigDecimal("30.00")));
+		assertSame(low, repository.findTheProgrammerWithHighestSalary());
+		repository.remove(1);
+		assertEquals(Map.of("Java", 1), repository.countByLanguage());
+	}
+
+	@Test
+	public void emptyRepository() {
+		ProgrammerRepository repository = new ProgrammerRepository();
+		assertNull(repository.findTheYoungestProgrammer());
+		assertNull(repository.findTheProgrammerWithLowestSalary());
+	}
+
+	private static void assertAggregates(List<Programmer> programmers, ProgrammerRepository repository) {
+		assertSame(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers), repository.findTheYoungestProgrammer());
+		assertSame(ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers), repository.findTheProgrammerWithHighestSalary());
+	}
+
+	private static Programmer programmer(String language, String salary) {
+		return new Programmer("A", "B", LocalDate.of(1980, 1, 1), language, LocalDate.of(2000, 1, 1), new BigDecimal(salary));
+	}
+
+}
@@ -0,0 +1,67 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The single pass of {@link ProgrammerScan} answers like the list queries, sequential or not.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerScanTest {
+
+	private static final int SIZE = 3 * ProgrammerGenerator.CHUNK_SIZE + 7;
+
+	private final ProgrammerGenerator generator = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED);
+	private final List<Programmer> programmers = generator.generate(SIZE);
+	private final String name = programmers.get(0).getLastName().substring(0, 2);
+
+	@Test
+	public void sequentialScanEqualsListQueries() {
+		List<Programmer> matches = new ArrayList<>();
+		ProgrammerScan scan = ProgrammerScan.scan(generator.stream(SIZE), name, matches::add);
+		assertAnswers(scan);
+		assertEquals(names(ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers)), names(matches));
+	}
+
+	@Test
+	public void parallelScanEqualsListQueries() {
+		List<Programmer> matches = Collections.synchronizedList(new ArrayList<>());
+		ProgrammerScan scan = ProgrammerScan.scan(generator.stream(SIZE).parallel(), name, matches::add);
+		assertAnswers(scan);
+		assertEquals(ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers).size(), matches.size());
+	}
+
+	@Test
+	public void emptyStream() {
+		ProgrammerScan scan = ProgrammerScan.scan(generator.stream(0), name, programmer -> {
+		});
+		assertEquals(0, scan.getCount());
+		assertNull(scan.getYoungest());
+		assertNull(scan.getHighestSalary());
+	}
+
+	private void assertAnswers(ProgrammerScan scan) {
+		assertEquals(SIZE, scan.getCount());
+		Programmer youngest = ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers);
+		Programmer highest = ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers);
+		assertEquals(youngest.getLastName(), scan.getYoungest().getLastName());
+		assertEquals(highest.getLastName(), scan.getHighestSalary().getLastName());
+		assertEquals(ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers).size(), scan.getMatches());
+	}
+
+	private static List<String> names(List<Programmer> programmers) {
+		List<String> names = new ArrayList<>();
+		for(Programmer programmer : programmers) {
+			names.add(programmer.getLastName());
+		}
+		return names;
+	}
+
+}
@@ -0,0 +1,57 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * A snapshot file maps back to the programmers it was written from.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerSnapshotTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void roundTrip() throws IOException {
+		List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(20000);
+		Path file = directory.resolve("programmers.snapshot");
+		ProgrammerSnapshot.write(programmers, file);
+		try(ProgrammerRecords records = ProgrammerSnapshot.map(file)) {
+			assertEquals(programmers.size(), records.size());
+			for(int row = 0; row < programmers.size(); row += 101) {
+				Programmer expected = programmers.get(row);
+				Programmer actual = records.getProgrammer(row);
+				assertEquals(expected.getFirstName(), actual.getFirstName());
+				assertEquals(expected.getLastName(), actual.getLastName());
+				assertEquals(expected.getBirthDate(), actual.getBirthDate());
+				assertEquals(expected.getProgrammingStartDate(), actual.getProgrammingStartDate());
+				assertEquals(expected.getPrimaryLanguage(), actual.getPrimaryLanguage());
+				assertEquals(0, expected.getSalary().compareTo(actual.getSalary()));
+			}
+			assertEquals(programmers.indexOf(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers)),
+					records.findTheYoungestProgrammerLambdaParallel());
+			assertEquals(programmers.indexOf(ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers)),
+					records.findTheProgrammerWithHighestSalaryLoop());
+		}
+	}
+
+	@Test
+	public void rejectsOtherFiles() throws IOException {
+		Path file = directory.resolve("other");
+		Files.write(file, new byte[ProgrammerSnapshot.HEADER_SIZE]);
+		assertThrows(IOException.class, () -> ProgrammerSnapshot.map(file));
+		Files.write(file, new byte[3]);
+		assertThrows(IOException.class, () -> ProgrammerSnapshot.map(file));
+	}
+
+}
@@ -0,0 +1,71 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The columns of {@link ProgrammerTable} hold the same values as the programmers and its scans
+ * return the rows the list queries return.
+ *
+ * @author Aleksander
+ */
+public class ProgrammerTableTest {
+
+	private final List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(20000);
+	private final ProgrammerTable table = ProgrammerTable.of(programmers);
+
+	@Test
+	public void rowsEqualProgrammers() {
+		assertEquals(programmers.size(), table.size());
+		for(int row = 0; row < programmers.size(); row += 97) {
+			Programmer programmer = programmers.get(row);
+			assertEquals(programmer.getFirstName(), table.getFirstName(row));
+			assertEquals(programmer.getLastName(), table.getLastName(row));
+			assertEquals(programmer.getBirthDate(), table.getBirthDate(row));
+			assertEquals(programmer.getProgrammingStartDate(), table.getProgrammingStartDate(row));
+			assertEquals(programmer.getLanguage(), table.getPrimaryLanguage(row));
+			assertEquals(0, programmer.getSalary().compareTo(table.getSalary(row)));
+		}
+	}
+
+	@Test
+	public void scansReturnTheFirstOfEqualRows() {
+		int youngest = programmers.indexOf(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers));
+		assertEquals(youngest, table.findTheYoungestProgrammerLoop());
+		assertEquals(youngest, table.findTheYoungestProgrammerLambdaSequential());
+		assertEquals(youngest, table.findTheYoungestProgrammerLambdaParallel());
+		int highest = programmers.indexOf(ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers));
+		assertEquals(highest, table.findTheProgrammerWithHighestSalaryLoop());
+		assertEquals(highest, table.findTheProgrammerWithHighestSalaryLambdaSerial());
+		assertEquals(highest, table.findTheProgrammerWithHighestSalaryLambdaParallel());
+	}
+
+	@Test
+	public void unknownLanguagesAreNull() {
+		ProgrammerTable languages = ProgrammerTable.of(Arrays.asList(programmer(null), programmer("Brainfuck"), programmer("JAVA")));
+		assertNull(languages.getPrimaryLanguage(0));
+		assertNull(languages.getPrimaryLanguage(1));
+		assertNull(languages.toProgrammer(1).getPrimaryLanguage());
+		assertEquals(ProgrammingLanguages.JAVA, languages.getPrimaryLanguage(2));
+		assertEquals(ProgrammingLanguages.JAVA, languages.toProgrammer(2).getLanguage());
+	}
+
+	@Test
+	public void emptyTableHasNoRows() {
+		ProgrammerTable empty = ProgrammerTable.of(List.of());
+		assertEquals(-1, empty.findTheYoungestProgrammerLoop());
+		assertEquals(-1, empty.findTheProgrammerWithHighestSalaryLambdaParallel());
+	}
+
+	private static Programmer programmer(String language) {
+		return new Programmer("A", "B", LocalDate.of(1980, 1, 1), language, LocalDate.of(2000, 1, 1), new BigDecimal("1.00"));
+	}
+
+}
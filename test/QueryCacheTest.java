@@ -0,0 +1,119 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link QueryCache} runs a query once per key and version and stays within its size.
+ *
+ * @author Aleksander
+ */
+public class QueryCacheTest {
+
+	@Test
+	public void concurrentMissesComputeOnce() throws Exception {
+		QueryCache cache = new QueryCache(1 << 20, () -> 0);
+		AtomicInteger computations = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<List<Integer>>> results = new ArrayList<>();
+			results.add(executor.submit(() -> cache.get("scan", 1, () -> {
+				computations.incrementAndGet();
+				started.countDown();
+				await(release);
+				return Arrays.asList(1, 2, 3);
+			})));
+			started.await();
+			for(int i = 1; i < callers; i++) {
+				results.add(executor.submit(() -> cache.get("scan", 1, () -> {
+					computations.incrementAndGet();
+					return Arrays.asList(1, 2, 3);
+				})));
+			}
+			//let the waiters reach the in-flight computation before it finishes
+			Thread.sleep(100);
+			release.countDown();
+			List<Integer> first = results.get(0).get(10, TimeUnit.SECONDS);
+			for(Future<List<Integer>> result : results) {
+				assertSame(first, result.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, computations.get());
+		assertEquals(1, cache.getStats().getMisses());
+		assertEquals(callers - 1, cache.getStats().getHits());
+	}
+
+	@Test
+	public void failedComputationIsNotCached() {
+		QueryCache cache = new QueryCache(1 << 20, () -> 0);
+		assertThrows(IllegalStateException.class, () -> cache.get("scan", 1, () -> {
+			throw new IllegalStateException();
+		}));
+		assertEquals("ok", cache.get("scan", 1, () -> "ok"));
+	}
+
+	@Test
+	public void versionChangeInvalidates() {
+		AtomicLong version = new AtomicLong();
+		QueryCache cache = new QueryCache(1 << 20, version::get);
+		assertEquals("a", cache.get("scan", 1, () -> "a"));
+		assertEquals("a", cache.get("scan", 1, () -> "b"));
+		version.incrementAndGet();
+		assertEquals("c", cache.get("scan", 1, () -> "c"));
+		assertEquals(1, cache.getStats().getInvalidations());
+	}
+
+	@Test
+	public void repositoryUpdateInvalidates() {
+		ProgrammerRepository repository = new ProgrammerRepository();
+		long id = repository.add(new Programmer("Ada", "Lovelace", LocalDate.of(1990, 1, 1), "JAVA",
+				LocalDate.of(2010, 1, 1), new BigDecimal("100.00")));
+		QueryCache cache = new QueryCache(1 << 20, repository::version);
+		assertEquals("Lovelace", cache.get("youngest", null, () -> repository.findTheYoungestProgrammer().getLastName()));
+		repository.update(id, programmer -> programmer.setLastName("Byron"));
+		assertEquals("Byron", cache.get("youngest", null, () -> repository.findTheYoungestProgrammer().getLastName()));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		long weight = QueryCache.weigh(new long[8]);
+		QueryCache cache = new QueryCache(2 * weight, () -> 0);
+		cache.get("scan", 1, () -> new long[8]);
+		cache.get("scan", 2, () -> new long[8]);
+		cache.get("scan", 1, () -> new long[8]);
+		cache.get("scan", 3, () -> new long[8]);
+		assertEquals(2, cache.getStats().getEntries());
+		assertEquals(1, cache.getStats().getEvictions());
+		long[] kept = cache.get("scan", 1, () -> null);
+		assertEquals(8, kept.length);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Every {@link QueryExecutor} strategy answers the queries alike, ties included.
+ *
+ * @author Aleksander
+ */
+public class QueryExecutorTest {
+
+	private static final String[] NAMES = {"loop", "stream", "parallelStream", "forkJoin", "chunked"};
+
+	private final List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(50000);
+
+	@Test
+	public void strategiesAgree() {
+		String name = programmers.get(0).getLastName().substring(0, 2);
+		Programmer youngest = ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers);
+		List<Programmer> byName = ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers);
+		for(String executorName : NAMES) {
+			try(QueryExecutor executor = QueryExecutor.named(executorName, 3)) {
+				assertSame(youngest, ProgrammerQueries.YOUNGEST.execute(executor, programmers), executorName);
+				assertEquals(byName, ProgrammerQueries.lastNameContains(name).execute(executor, programmers), executorName);
+			}
+		}
+	}
+
+	@Test
+	public void firstWinsOnTies() {
+		List<String> items = Arrays.asList(new String("a"), new String("b"), new String("b"), new String("b"));
+		for(String executorName : NAMES) {
+			try(QueryExecutor executor = QueryExecutor.named(executorName, 3)) {
+				assertSame(items.get(1), executor.maxBy(items, Comparator.naturalOrder()), executorName);
+				assertSame(items.get(0), executor.minBy(items, Comparator.naturalOrder()), executorName);
+				assertNull(executor.maxBy(Arrays.<String>asList(), Comparator.naturalOrder()), executorName);
+			}
+		}
+	}
+
+	@Test
+	public void unknownName() {
+		assertThrows(IllegalArgumentException.class, () -> QueryExecutor.named("gpu", 1));
+	}
+
+}
@@ -0,0 +1,61 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link QueryMetrics} measures per thread and never reports negative costs.
+ *
+ * @author Aleksander
+ */
+public class QueryMetricsTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void growthComparesTheSameThreads() {
+		long[] before = {1, 2, 3};
+		long[] after = {1, 3, 4};
+		//thread 2 ended, thread 4 started, thread 3 ended just before the second reading
+		assertEquals(10 + 7, QueryMetrics.growth(before, new long[] {100, 500, 50}, after, new long[] {110, -1, 7}));
+		assertEquals(0, QueryMetrics.growth(before, new long[] {100, 500, 50}, new long[] {1}, new long[] {100}));
+	}
+
+	@Test
+	public void recordsAllocationsOfTheQuery() {
+		QueryMetrics metrics = new QueryMetrics();
+		byte[] result = metrics.record("allocate", () -> new byte[1 << 20]);
+		assertEquals(1 << 20, result.length);
+		QueryMeasurement measurement = metrics.last();
+		assertEquals("allocate", measurement.getQuery());
+		assertTrue(measurement.getAllocatedBytes() >= 1 << 20, measurement.toString());
+		assertTrue(measurement.getNanos() > 0);
+	}
+
+	@Test
+	public void parallelQueriesAreNotNegative() throws IOException {
+		List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(50000);
+		QueryMetrics metrics = new QueryMetrics();
+		for(int run = 0; run < 20; run++) {
+			metrics.record("youngest", () -> ProgrammerQueries.findTheYoungestProgrammerLambdaParallel(programmers));
+			assertTrue(metrics.last().getAllocatedBytes() >= 0);
+			assertTrue(metrics.last().getCpuNanos() >= -1);
+		}
+		Path file = directory.resolve("metrics.csv");
+		metrics.writeCsv(file);
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertEquals(2, lines.size());
+		assertTrue(lines.get(1).startsWith("\"youngest\",20,"), lines.get(1));
+	}
+
+}
@@ -0,0 +1,75 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The cents of {@link Salaries} are exact and order like the BigDecimal salaries.
+ *
+ * @author Aleksander
+ */
+public class SalariesTest {
+
+	@Test
+	public void convertsExactly() {
+		assertEquals(1234, Salaries.toCents(new BigDecimal("12.34")));
+		assertEquals(1234, Salaries.toCents(new BigDecimal("12.340")));
+		assertEquals(100000, Salaries.toCents(new BigDecimal("1E+3")));
+		assertEquals(-5, Salaries.toCents(new BigDecimal("-0.05")));
+		assertEquals(new BigDecimal("12.34"), Salaries.fromCents(1234));
+	}
+
+	@Test
+	public void rejectsFractionsOfACent() {
+		assertThrows(ArithmeticException.class, () -> Salaries.toCents(new BigDecimal("12.345")));
+		assertThrows(ArithmeticException.class, () -> Salaries.toCents(new BigDecimal("1E+20")));
+	}
+
+	@Test
+	public void rejectsMissingSalaries() {
+		Programmer programmer = programmer("1.00");
+		programmer.setSalary(null);
+		assertThrows(NullPointerException.class, programmer::getSalaryInCents);
+	}
+
+	@Test
+	public void centsFindersEqualBigDecimalFinders() {
+		List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(20000);
+		Programmer expected = ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers);
+		assertSame(expected, ProgrammerQueries.findTheProgrammerWithHighestSalaryInCentsForLoop(programmers));
+		assertSame(expected, ProgrammerQueries.findTheProgrammerWithHighestSalaryInCentsLambdaParallel(programmers));
+		assertEquals(programmers.size(), Salaries.statisticsParallel(programmers).getCount());
+	}
+
+	@Test
+	public void storedCentsEqualConvertedCents() {
+		List<Programmer> programmers = new ProgrammerGenerator(ProgrammerGenerator.DEFAULT_SEED).generate(20000);
+		List<ImmutableProgrammer> records = ImmutableProgrammer.of(programmers);
+		BigDecimal highest = ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers).getSalary();
+		assertEquals(highest, records.stream().max(Salaries.BY_SALARY).get().getSalary());
+		assertEquals(Salaries.statisticsParallel(programmers).toString(),
+				Salaries.statisticsParallel(records, ImmutableProgrammer::getSalaryInCents).toString());
+		assertArrayEquals(Salaries.histogram(programmers, 500000, 10000, 50),
+				Salaries.histogram(records, ImmutableProgrammer::getSalaryInCents, 500000, 10000, 50));
+	}
+
+	@Test
+	public void histogramClampsToOuterBuckets() {
+		List<Programmer> programmers = Arrays.asList(programmer("1.00"), programmer("10.00"), programmer("10.99"), programmer("99.00"));
+		assertArrayEquals(new long[] {1, 2, 1}, Salaries.histogram(programmers, 500, 500, 3));
+	}
+
+	private static Programmer programmer(String salary) {
+		return new Programmer("A", "B", LocalDate.of(1980, 1, 1), "Java", LocalDate.of(2000, 1, 1), new BigDecimal(salary));
+	}
+
+}
@@ -0,0 +1,98 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import domain.ScalabilityRunner.Measurement;
+
+/**
+ * The CSV baseline, the curves and the regression check of {@link ScalabilityRunner}.
+ *
+ * @author Aleksander
+ */
+public class ScalabilityRunnerTest {
+
+	private static final String JVM = "-Xmx8g -XX:+UseG1GC";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void csvKeepsAllParams() throws IOException {
+		List<Measurement> measurements = Arrays.asList(
+				measurement("FinderBenchmark.youngest", params("size", "1000", "mode", "a,\"b\""), 2, 10.5, 0.25),
+				measurement("ObjectSizes.none", params(), 1, 3, Double.NaN));
+		Path file = directory.resolve("results.csv");
+		ScalabilityRunner.writeCsv(file, measurements);
+		List<Measurement> read = ScalabilityRunner.readCsv(file);
+		assertEquals(2, read.size());
+		assertEquals("a,\"b\"", read.get(0).getParam("mode"));
+		assertEquals("1000", read.get(0).getParam("size"));
+		assertEquals("mode=a,\"b\";size=1000", read.get(0).getParamsText());
+		assertEquals(2, read.get(0).getThreads());
+		assertEquals(10.5, read.get(0).getScore());
+		assertEquals(JVM, read.get(0).getJvm());
+		assertNull(read.get(1).getParam("size"));
+		assertEquals("", read.get(1).getParamsText());
+		assertTrue(Double.isNaN(read.get(1).getError()));
+	}
+
+	@Test
+	public void regressionNeedsThresholdAndSeparateIntervals() {
+		SortedMap<String, String> params = params("size", "1000");
+		List<Measurement> baseline = List.of(measurement("B.run", params, 1, 100, 5));
+		//20% slower, but the intervals 95..105 and 105..135 overlap
+		assertEquals(0, ScalabilityRunner.regressions(List.of(measurement("B.run", params, 1, 120, 15)), baseline, 0.1).size());
+		//within the threshold with tight intervals
+		assertEquals(0, ScalabilityRunner.regressions(List.of(measurement("B.run", params, 1, 108, 0.1)), baseline, 0.1).size());
+		assertEquals(1, ScalabilityRunner.regressions(List.of(measurement("B.run", params, 1, 120, 5)), baseline, 0.1).size());
+		//a missing error counts as zero
+		assertEquals(1, ScalabilityRunner.regressions(List.of(measurement("B.run", params, 1, 120, Double.NaN)), baseline, 0.1)
+				.size());
+	}
+
+	@Test
+	public void otherParamsAreOtherBenchmarks() {
+		List<Measurement> baseline = List.of(measurement("B.run", params("size", "1000", "mode", "a"), 1, 100, 0));
+		List<Measurement> measurements = List.of(measurement("B.run", params("size", "1000", "mode", "b"), 1, 200, 0),
+				measurement("B.run", params("size", "1000"), 1, 200, 0), measurement("B.run", params("size", "1000", "mode", "a"), 2, 200, 0));
+		assertEquals(0, ScalabilityRunner.regressions(measurements, baseline, 0.1).size());
+	}
+
+	@Test
+	public void curvesRelateToTheLowestThreadCount() {
+		SortedMap<String, String> small = params("size", "1000");
+		SortedMap<String, String> large = params("size", "1000000");
+		List<String> curves = ScalabilityRunner.curves(List.of(measurement("B.run", small, 2, 60, 0),
+				measurement("B.run", small, 1, 100, 0), measurement("B.run", small, 4, 40, 0), measurement("B.run", large, 4, 10, 0)));
+		assertEquals("B.run,\"size=1000\",\"" + JVM + "\",2,60.000,1.667,0.833", curves.get(0));
+		assertEquals("B.run,\"size=1000\",\"" + JVM + "\",1,100.000,1.000,1.000", curves.get(1));
+		assertEquals("B.run,\"size=1000\",\"" + JVM + "\",4,40.000,2.500,0.625", curves.get(2));
+		assertEquals("B.run,\"size=1000000\",\"" + JVM + "\",4,10.000,1.000,1.000", curves.get(3));
+	}
+
+	private static Measurement measurement(String benchmark, SortedMap<String, String> params, int threads, double score,
+			double error) {
+		return new Measurement(benchmark, params, threads, JVM, score, error, "ns/op");
+	}
+
+	private static SortedMap<String, String> params(String... namesAndValues) {
+		SortedMap<String, String> params = new TreeMap<>();
+		for(int i = 0; i < namesAndValues.length; i += 2) {
+			params.put(namesAndValues[i], namesAndValues[i + 1]);
+		}
+		return params;
+	}
+}
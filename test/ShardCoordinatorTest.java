@@ -0,0 +1,64 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The shards of {@link ShardCoordinator} together hold the whole dataset and answer like a
+ * single JVM.
+ *
+ * @author Aleksander
+ */
+public class ShardCoordinatorTest {
+
+	private static final long SEED = 41;
+	private static final int SIZE = 3000;
+
+	@Test
+	public void shardsPartitionTheDataset() {
+		List<Programmer> expected = new ProgrammerGenerator(SEED).generate(SIZE);
+		List<ShardWorker.Row> rows = new ArrayList<>();
+		for(int shard = 0; shard < 3; shard++) {
+			rows.addAll(ShardWorker.load(SEED, SIZE, shard, 3));
+		}
+		rows.sort(Comparator.comparingLong(row -> row.row));
+		assertEquals(SIZE, rows.size());
+		for(int i = 0; i < SIZE; i++) {
+			assertEquals(i, rows.get(i).row);
+			assertEquals(describe(expected.get(i)), describe(rows.get(i).programmer));
+		}
+	}
+
+	@Test
+	public void shardedQueriesMatchOneJvm() throws IOException {
+		List<Programmer> programmers = new ProgrammerGenerator(SEED).generate(SIZE);
+		String name = programmers.get(0).getLastName().substring(0, 2);
+		try(ShardCoordinator coordinator = ShardCoordinator.launch(2, SEED, SIZE, Arrays.asList("-Xmx64m"))) {
+			assertEquals(describe(ProgrammerQueries.findTheYoungestProgrammerForeachLoop(programmers)),
+					describe(coordinator.findTheYoungestProgrammer()));
+			assertEquals(describe(ProgrammerQueries.findTheProgrammerWithHighestSalaryForLoop(programmers)),
+					describe(coordinator.findTheProgrammerWithHighestSalary()));
+			assertEquals(describe(Aggregations.top(programmers, 10, Comparator.comparing(Programmer::getSalary))),
+					describe(coordinator.findTheProgrammersWithHighestSalaries(10)));
+			assertEquals(describe(ProgrammerQueries.findTheProgrammersByNameAndForLoop(name, programmers)),
+					describe(coordinator.findTheProgrammersByName(name)));
+		}
+	}
+
+	private static String describe(Programmer programmer) {
+		return programmer.getFirstName() + " " + programmer.getLastName() + " " + programmer.getBirthDate() + " "
+				+ programmer.getSalary();
+	}
+
+	private static List<String> describe(List<Programmer> programmers) {
+		return programmers.stream().map(ShardCoordinatorTest::describe).collect(Collectors.toList());
+	}
+}
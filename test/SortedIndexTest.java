@@ -0,0 +1,81 @@
+package domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link SortedIndex} agrees with sorting the rows by key and row, across parallel merges and
+ * delta flushes.
+ *
+ * @author Aleksander
+ */
+public class SortedIndexTest {
+
+	@Test
+	public void bulkBuildMatchesSortedRows() {
+		//large enough for parallel sorts and merges, with many equal keys
+		List<Programmer> programmers = new ProgrammerGenerator(3).generate(100_000);
+		SortedIndex index = SortedIndex.of(programmers, SortedIndexTest::key);
+		assertMatches(programmers, index);
+	}
+
+	@Test
+	public void insertsMatchSortedRows() {
+		List<Programmer> generated = new ProgrammerGenerator(5).generate(60_000);
+		List<Programmer> programmers = new ArrayList<>(generated.subList(0, 20_000));
+		SortedIndex index = SortedIndex.of(programmers, SortedIndexTest::key);
+		SplittableRandom random = new SplittableRandom(7);
+		for(Programmer programmer : generated.subList(20_000, generated.size())) {
+			index.insert(programmers.size(), programmer);
+			programmers.add(programmer);
+			if(random.nextInt(1000) == 0) {
+				assertMatches(programmers, index);
+			}
+		}
+		assertMatches(programmers, index);
+	}
+
+	@Test
+	public void duplicateInsertIsIgnored() {
+		List<Programmer> programmers = new ArrayList<>(new ProgrammerGenerator(9).generate(10));
+		SortedIndex index = SortedIndex.of(programmers.subList(0, 9), SortedIndexTest::key);
+		index.insert(9, programmers.get(9));
+		index.insert(9, programmers.get(9));
+		assertEquals(10, index.size());
+		assertMatches(programmers, index);
+	}
+
+	@Test
+	public void reinsertOfAnIndexedRowIsIgnored() {
+		List<Programmer> programmers = new ProgrammerGenerator(11).generate(5000);
+		SortedIndex index = SortedIndex.of(programmers, SortedIndexTest::key);
+		for(int row = 0; row < programmers.size(); row += 3) {
+			index.insert(row, programmers.get(row));
+		}
+		assertMatches(programmers, index);
+	}
+
+	private static long key(Programmer programmer) {
+		return programmer.getBirthDate().getYear();
+	}
+
+	private static void assertMatches(List<Programmer> programmers, SortedIndex index) {
+		int[] expected = IntStream.range(0, programmers.size()).boxed()
+				.sorted(Comparator.comparingLong((Integer row) -> key(programmers.get(row))).thenComparingInt(row -> row))
+				.mapToInt(Integer::intValue).toArray();
+		assertEquals(expected.length, index.size());
+		assertArrayEquals(expected, index.rowsInRange(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(expected[0], index.minRow());
+		long max = key(programmers.get(expected[expected.length - 1]));
+		assertEquals(index.rowsInRange(max, max + 1)[0], index.maxRow());
+		assertEquals(IntStream.of(expected).filter(row -> key(programmers.get(row)) < 1980).count(), index.count(Long.MIN_VALUE, 1980));
+	}
+}